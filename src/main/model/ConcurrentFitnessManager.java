@@ -0,0 +1,177 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.json.JSONObject;
+
+import persistence.Writable;
+
+// A FitnessManager that any number of threads can use at once (e.g. the Swing EDT next to a background save
+// or import). Every change takes an exclusive write lock and every lookup a shared read lock. Exercises and
+// sessions are only ever handed out as immutable snapshots, which can be read from any thread without a lock;
+// change them only through the methods below or update(...).
+// The snapshot of the whole manager is published after it is first taken following a change, so taking it
+// again costs one volatile read; taking it after a change only holds the read lock (and keeps other threads
+// taking it out), so it never blocks other readers.
+// Listeners are told about changes on the writing thread, while it holds the write lock.
+public class ConcurrentFitnessManager implements Writable {
+    private final FitnessManager manager;
+    private final StampedLock lock = new StampedLock();
+    private final Object snapshotting = new Object(); // held while taking a snapshot under the read lock
+    private volatile FitnessSnapshot published;       // snapshot of the manager as it is, or null if changed
+
+    // EFFECTS: constructs an empty concurrent manager
+    public ConcurrentFitnessManager() {
+        this(new FitnessManager());
+    }
+
+    // REQUIRES: no other code keeps using manager directly
+    // EFFECTS: constructs a concurrent manager that guards manager, e.g. one that was just loaded
+    public ConcurrentFitnessManager(FitnessManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        return read(FitnessManager::toJson);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates and stores a new exercise and returns a snapshot of it
+    public ExerciseSnapshot createExercise(String name, String targetMuscle, int weight, int reps) {
+        return write(fm -> new ExerciseSnapshot(fm.createExercise(name, targetMuscle, weight, reps)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates and stores a new training session and returns a snapshot of it
+    public SessionSnapshot createSession(String name) {
+        return write(fm -> new SessionSnapshot(fm.createSession(name)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds an exercise and number of sets to a session
+    public void addExerciseToSession(String sessionName, String exerciseName, int sets) {
+        update(fm -> fm.addExerciseToSession(sessionName, exerciseName, sets));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes an exercise by name from the library and all sessions; returns true if it was found
+    public boolean deleteExercise(String name) {
+        return write(fm -> fm.deleteExercise(name));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes an exercise from a session; returns true if the session contained it
+    public boolean removeExerciseFromSession(String sessionName, String exerciseName) {
+        return write(fm -> fm.removeExerciseFromSession(sessionName, exerciseName));
+    }
+
+    // EFFECTS: finds an exercise by name (ignoring case and surrounding whitespace) and returns a snapshot of
+    //          it as it is now, or null if there is none
+    public ExerciseSnapshot findExerciseByName(String name) {
+        return read(fm -> {
+            Exercise e = fm.exerciseNamed(name);
+            return e == null ? null : new ExerciseSnapshot(e);
+        });
+    }
+
+    // EFFECTS: finds a training session by name (ignoring case and surrounding whitespace) and returns a
+    //          snapshot of it as it is now, or null if there is none
+    public SessionSnapshot findSessionByName(String name) {
+        return read(fm -> {
+            TrainingSession s = fm.sessionNamed(name);
+            return s == null ? null : new SessionSnapshot(s, ExerciseSnapshot::new);
+        });
+    }
+
+    // EFFECTS: returns an immutable snapshot of the exercises and sessions as they are now; without a change
+    //          since it was last taken this takes no lock at all, and otherwise only the read lock
+    public FitnessSnapshot snapshot() {
+        FitnessSnapshot snapshot = published;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return read(fm -> {
+            synchronized (snapshotting) { // taking it updates state that only writers and snapshots touch
+                FitnessSnapshot taken = fm.snapshot();
+                published = taken;
+                return taken;
+            }
+        });
+    }
+
+    // EFFECTS: returns a read-only list of snapshots of all exercises, as they are now
+    public List<ExerciseSnapshot> getExercises() {
+        return snapshot().getExercises();
+    }
+
+    // EFFECTS: returns a read-only list of snapshots of all training sessions, as they are now
+    public List<SessionSnapshot> getSessions() {
+        return snapshot().getSessions();
+    }
+
+    // EFFECTS: returns a read-only list of snapshots of the sessions that contain the exercise with the given
+    //          name (ignoring case and surrounding whitespace), as they are now; empty if there is none
+    public List<SessionSnapshot> getSessionsContaining(String exerciseName) {
+        return read(fm -> {
+            Exercise e = fm.exerciseNamed(exerciseName);
+            List<SessionSnapshot> sessions = new ArrayList<>();
+            if (e != null) {
+                for (TrainingSession s : fm.getSessionsContaining(e)) {
+                    sessions.add(new SessionSnapshot(s, ExerciseSnapshot::new));
+                }
+            }
+            return Collections.unmodifiableList(sessions);
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to be told about every later change
+    public void addListener(ModelListener listener) {
+        manager.addListener(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unregisters listener; does nothing if it was not registered
+    public void removeListener(ModelListener listener) {
+        manager.removeListener(listener);
+    }
+
+    // EFFECTS: returns what query computes from the guarded manager, holding the read lock meanwhile so no
+    //          change can happen; query must not change the manager or anything in it
+    public <T> T read(Function<FitnessManager, T> query) {
+        long stamp = lock.readLock();
+        try {
+            return query.apply(manager);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies change to the guarded manager (and its exercises and sessions) while holding the write
+    //          lock, so that it happens all at once as far as other threads can tell
+    public void update(Consumer<FitnessManager> change) {
+        write(fm -> {
+            change.accept(fm);
+            return null;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies change to the guarded manager while holding the write lock, and returns its result
+    private <T> T write(Function<FitnessManager, T> change) {
+        long stamp = lock.writeLock();
+        try {
+            published = null;
+            return change.apply(manager);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
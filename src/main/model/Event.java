@@ -1,12 +1,16 @@
 package model;
 
-import java.util.Calendar;
 import java.util.Date;
 
 public class Event {
     private static final int HASH_CONSTANT = 14;
-    private Date dateLogged;
-    private String description;
+    private final long timestamp;    // when the event was logged, in milliseconds since the epoch
+    private final EventKind kind;
+    private final String exercise;   // name of the exercise the event is about, or null
+    private final String session;    // name of the session the event is about, or null
+    private final String detail;     // any other text of the event (e.g. a target muscle), or null
+    private final int value;         // number of the event (sets, weight or reps), or 0
+    private String description;      // built from the fields above when first asked for
 
     /**
      * Creates an event with the given description
@@ -15,17 +19,45 @@ public class Event {
      * @param description a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(EventKind.MESSAGE, null, null, description, 0);
         this.description = description;
     }
 
+    /**
+     * Creates an event of the given kind with the current date/time stamp. Only the fields are
+     * stored; the description is built from them the first time it is asked for.
+     *
+     * @param kind     what happened
+     * @param exercise name of the exercise the event is about, or null
+     * @param session  name of the session the event is about, or null
+     * @param detail   any other text of the event, or null
+     * @param value    number of the event (sets, weight or reps), or 0
+     */
+    public Event(EventKind kind, String exercise, String session, String detail, int value) {
+        this.timestamp = System.currentTimeMillis();
+        this.kind = kind;
+        this.exercise = exercise;
+        this.session = session;
+        this.detail = detail;
+        this.value = value;
+    }
+
     /**
      * Gets the date of this event (includes time).
      * 
      * @return the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(timestamp);
+    }
+
+    /**
+     * Gets the time of this event.
+     *
+     * @return the time of the event, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
     }
 
     /**
@@ -34,7 +66,57 @@ public class Event {
      * @return the description of the event
      */
     public String getDescription() {
-        return description;
+        String d = description;
+        if (d == null) {
+            d = kind.describe(exercise, session, detail, value);
+            description = d; // Strings are immutable, so a racing thread at worst builds its own copy
+        }
+        return d;
+    }
+
+    /**
+     * Gets the kind of this event.
+     *
+     * @return what happened
+     */
+    public EventKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the exercise this event is about.
+     *
+     * @return the name of the exercise, or null
+     */
+    public String getExercise() {
+        return exercise;
+    }
+
+    /**
+     * Gets the session this event is about.
+     *
+     * @return the name of the session, or null
+     */
+    public String getSession() {
+        return session;
+    }
+
+    /**
+     * Gets any other text of this event, such as a new target muscle.
+     *
+     * @return the detail of the event, or null
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Gets the number of this event.
+     *
+     * @return the sets, weight or reps the event recorded, or 0
+     */
+    public int getValue() {
+        return value;
     }
 
     @Override
@@ -49,18 +131,18 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
-                && this.description.equals(otherEvent.description));
+        return (this.timestamp == otherEvent.timestamp
+                && this.getDescription().equals(otherEvent.getDescription()));
         
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(timestamp) + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
@@ -0,0 +1,253 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a queryable history of the most recent logged events. Registered as a sink of the EventLog, it
+// keeps up to a fixed number of the events logged from then on, in the order they were logged, together with
+// indexes of their positions by kind, by exercise name and by session name; once full, each new event evicts the
+// oldest one. A query finds its time range by binary search and then only looks at the positions of its most
+// selective index within that range, so it never scans the whole history.
+// Logging an event only publishes it into a lock-free ring of the same capacity (see EventRing), so producers
+// never wait on a lock; the next query (or size) indexes the events published since, under the history's lock.
+// An event the ring has overwritten before it was indexed would have been evicted from the history anyway.
+public class EventHistory implements EventSink {
+    public static final int DEFAULT_CAPACITY = 1 << 19;
+    private static final int INITIAL_LENGTH = 1024;
+
+    private final int capacity;
+    private final EventRing incoming; // logged events, indexed by the next query
+    private long drained;             // sequence number in incoming of the next event to index
+    private final Map<EventKind, Positions> byKind = new EnumMap<>(EventKind.class);
+    private final Map<String, Positions> byExercise = new HashMap<>();  // keyed by FitnessManager.nameKey
+    private final Map<String, Positions> bySession = new HashMap<>();   // keyed by FitnessManager.nameKey
+    // The event with sequence number n (the nth event logged) is at index n % events.length; times holds, at the
+    // same index, the latest timestamp of the events up to n. The arrays only wrap around once they are full.
+    private Event[] events;
+    private long[] times;
+    private long first; // sequence number of the oldest event kept
+    private long next;  // sequence number of the next event logged
+
+    // EFFECTS: constructs an empty history keeping the DEFAULT_CAPACITY most recent events
+    public EventHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an empty history keeping the capacity most recent events
+    public EventHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        incoming = new EventRing(capacity);
+        events = new Event[Math.min(capacity, INITIAL_LENGTH)];
+        times = new long[events.length];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands e to the history without taking a lock; it is indexed by the next query
+    @Override
+    public void eventLogged(Event e) {
+        incoming.add(e);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the events logged since the last drain, in the order they were logged
+    private void drain() {
+        drained = incoming.drain(drained, this::append);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds e to the end of the history and to the indexes it belongs in, evicting the oldest event if
+    //          the history is full
+    private void append(Event e) {
+        if (next - first == events.length) {
+            if (events.length == capacity) {
+                evictOldest();
+            } else {
+                int length = (int) Math.min(capacity, events.length * 2L);
+                events = Arrays.copyOf(events, length);
+                times = Arrays.copyOf(times, length);
+            }
+        }
+        int i = index(next);
+        events[i] = e;
+        times[i] = next == first ? e.getTimestamp() : Math.max(e.getTimestamp(), times[index(next - 1)]);
+        byKind.computeIfAbsent(e.getKind(), k -> new Positions()).add(next);
+        if (e.getExercise() != null) {
+            byExercise.computeIfAbsent(key(e.getExercise()), k -> new Positions()).add(next);
+        }
+        if (e.getSession() != null) {
+            bySession.computeIfAbsent(key(e.getSession()), k -> new Positions()).add(next);
+        }
+        next++;
+    }
+
+    // EFFECTS: returns the number of events in the history
+    public synchronized int size() {
+        drain();
+        return (int) (next - first);
+    }
+
+    // EFFECTS: returns the most events the history keeps
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // EFFECTS: returns the events still in the history logged from time from (inclusive) to time to (exclusive),
+    //          in milliseconds since the epoch, that are of the given kind and about the exercise and session with
+    //          the given names (ignoring case and surrounding spaces), oldest first; a null kind or name matches
+    //          every event. So that the history stays in time order, an event stamped earlier than one already in
+    //          the history (e.g. by a thread that lost a race to log it) counts as logged at that later time.
+    public synchronized List<Event> query(long from, long to, EventKind kind, String exercise, String session) {
+        drain();
+        long lo = lowerBound(from);
+        long hi = Math.max(lo, lowerBound(to));
+        String exerciseKey = exercise == null ? null : FitnessManager.nameKey(exercise);
+        String sessionKey = session == null ? null : FitnessManager.nameKey(session);
+        List<Positions> indexes = new ArrayList<>(3);
+        if (kind != null) {
+            indexes.add(byKind.getOrDefault(kind, Positions.NONE));
+        }
+        if (exerciseKey != null) {
+            indexes.add(byExercise.getOrDefault(exerciseKey, Positions.NONE));
+        }
+        if (sessionKey != null) {
+            indexes.add(bySession.getOrDefault(sessionKey, Positions.NONE));
+        }
+        if (indexes.isEmpty()) {
+            List<Event> result = new ArrayList<>((int) (hi - lo));
+            for (long n = lo; n < hi; n++) {
+                result.add(events[index(n)]);
+            }
+            return result;
+        }
+        Positions smallest = Collections.min(indexes, Comparator.comparingInt(p -> p.count(lo, hi)));
+        return select(smallest, lo, hi, kind, exerciseKey, sessionKey);
+    }
+
+    // EFFECTS: returns the events at the positions in lo..hi-1 of candidates that match kind, exerciseKey and
+    //          sessionKey, where null matches anything
+    private List<Event> select(Positions candidates, long lo, long hi, EventKind kind, String exerciseKey,
+                               String sessionKey) {
+        List<Event> result = new ArrayList<>();
+        for (int i = candidates.lowerBound(lo), end = candidates.lowerBound(hi); i < end; i++) {
+            Event e = events[index(candidates.positions[i])];
+            if ((kind == null || e.getKind() == kind)
+                    && (exerciseKey == null || exerciseKey.equals(key(e.getExercise())))
+                    && (sessionKey == null || sessionKey.equals(key(e.getSession())))) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    // REQUIRES: the history is not empty
+    // MODIFIES: this
+    // EFFECTS: removes the oldest event from the history and from the indexes it is in, dropping the index of a
+    //          name no remaining event has
+    private void evictOldest() {
+        Event e = events[index(first)];
+        events[index(first)] = null;
+        byKind.get(e.getKind()).removeFirst();
+        if (e.getExercise() != null) {
+            removeFirst(byExercise, key(e.getExercise()));
+        }
+        if (e.getSession() != null) {
+            removeFirst(bySession, key(e.getSession()));
+        }
+        first++;
+    }
+
+    // MODIFIES: index
+    // EFFECTS: removes the first position of the positions of key in index, and key itself if none remain
+    private static void removeFirst(Map<String, Positions> index, String key) {
+        Positions positions = index.get(key);
+        positions.removeFirst();
+        if (positions.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // EFFECTS: returns the index in events and times of the event with sequence number n
+    private int index(long n) {
+        return (int) (n % events.length);
+    }
+
+    // EFFECTS: returns the sequence number of the first event in the history whose time is at least time, or
+    //          next if there is none
+    private long lowerBound(long time) {
+        long lo = first;
+        long hi = next;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (times[index(mid)] < time) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // EFFECTS: returns the index key of name, or null if name is null
+    private static String key(String name) {
+        return name == null ? null : FitnessManager.nameKey(name);
+    }
+
+    // The sequence numbers of the events in the history with one kind or name, in increasing order; they occupy
+    // positions[start..end-1]
+    private static final class Positions {
+        static final Positions NONE = new Positions(); // stands in for a kind or name no event has
+
+        long[] positions = new long[4];
+        int start;
+        int end;
+
+        // MODIFIES: this
+        // EFFECTS: adds position, which is greater than every position already added
+        void add(long position) {
+            if (end == positions.length) {
+                int count = end - start;
+                if (start >= count) {
+                    System.arraycopy(positions, start, positions, 0, count);
+                } else {
+                    positions = Arrays.copyOfRange(positions, start, start + count * 2);
+                }
+                start = 0;
+                end = count;
+            }
+            positions[end++] = position;
+        }
+
+        // REQUIRES: !isEmpty()
+        // MODIFIES: this
+        // EFFECTS: removes the smallest position
+        void removeFirst() {
+            start++;
+        }
+
+        // EFFECTS: returns true if there are no positions
+        boolean isEmpty() {
+            return start == end;
+        }
+
+        // EFFECTS: returns the index of the first position that is at least position, or end
+        int lowerBound(long position) {
+            int i = Arrays.binarySearch(positions, start, end, position);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        // EFFECTS: returns the number of positions in lo..hi-1
+        int count(long lo, long hi) {
+            return lowerBound(hi) - lowerBound(lo);
+        }
+    }
+}
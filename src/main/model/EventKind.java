@@ -0,0 +1,36 @@
+package model;
+
+// The kinds of events the model logs. Each kind knows how to turn the fields of an event into its
+// description, which is only done when the description is first asked for.
+public enum EventKind {
+    MESSAGE((e, s, d, v) -> d),
+    EXERCISE_CREATED((e, s, d, v) -> "Created new exercise " + e + "!"),
+    SESSION_CREATED((e, s, d, v) -> "Created new session " + s + "!"),
+    SETS_ADDED((e, s, d, v) -> "Added " + v + "sets of " + e + " to " + s + "!"),
+    EXERCISE_DELETED((e, s, d, v) -> "Deleted exercise " + e + " from library and all sessions!"),
+    EXERCISE_REMOVED_FROM_SESSION((e, s, d, v) -> "Removed " + e + " from session " + s + "."),
+    SESSION_EXERCISE_ADDED((e, s, d, v) -> "Added " + e + " to " + s + "!"),
+    SESSION_EXERCISE_REMOVED((e, s, d, v) -> "Removed " + e + " from " + s + "!"),
+    SESSION_CLEARED((e, s, d, v) -> "Cleared session " + s + "!"),
+    EXERCISE_RENAMED((e, s, d, v) -> "Changed exercise name to " + e + "!"),
+    TARGET_MUSCLE_CHANGED((e, s, d, v) -> "Changed exercise target muscle to " + d + "!"),
+    WEIGHT_CHANGED((e, s, d, v) -> "Changed exercise weight to " + v + "lbs!"),
+    REPS_CHANGED((e, s, d, v) -> "Changed exercise reps to " + v + " per set!"),
+    LOG_CLEARED((e, s, d, v) -> "Event log cleared.");
+
+    private final Format format;
+
+    EventKind(Format format) {
+        this.format = format;
+    }
+
+    // EFFECTS: returns the description of an event of this kind with the given fields
+    String describe(String exercise, String session, String detail, int value) {
+        return format.describe(exercise, session, detail, value);
+    }
+
+    // Builds the description of an event from its exercise name, session name, detail text and value
+    private interface Format {
+        String describe(String exercise, String session, String detail, int value);
+    }
+}
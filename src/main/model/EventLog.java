@@ -3,18 +3,36 @@ package model;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * The log of events, shared by the whole application. It is safe to use from any number of threads:
+ * logging never takes a lock (events go onto a lock-free queue, or into a lock-free ring buffer when
+ * the log is bounded), and iterating never throws ConcurrentModificationException.
+ */
 public class EventLog implements Iterable<Event> {
-    /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private volatile Collection<Event> events;
+    /** the most recent events when the log is bounded, null when it is unbounded */
+    private volatile EventRing ring;
+    /** also handed every event, e.g. to write it to disk */
+    private final List<EventSink> sinks = new CopyOnWriteArrayList<>();
+
+    /**
+     * Holds the only EventLog in the system (Singleton Design Pattern). The JVM creates it, exactly
+     * once and safely published to every thread, the first time getInstance() is called.
+     */
+    private static class Holder {
+        private static final EventLog INSTANCE = new EventLog();
+    }
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        events = new ConcurrentLinkedQueue<Event>();
     }
 
     /**
@@ -25,32 +43,110 @@ public class EventLog implements Iterable<Event> {
      * @return instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Sets how many of the most recent events the log keeps. A positive capacity turns the log into a
+     * fixed-size ring buffer that overwrites its oldest event once full, and that any number of threads
+     * can log to without locking; 0 makes the log unbounded again. The newest events already logged are
+     * carried over. Events logged by other threads while the capacity changes may be lost.
+     *
+     * @param capacity the number of events to keep, or 0 for no limit
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
         }
+        Collection<Event> current = snapshot();
+        if (capacity == 0) {
+            events = new ConcurrentLinkedQueue<Event>(current);
+            ring = null;
+            return;
+        }
+        EventRing resized = new EventRing(capacity);
+        current.forEach(resized::add);
+        events = new ConcurrentLinkedQueue<Event>();
+        ring = resized;
+    }
 
-        return theLog;
+    /**
+     * Gets the number of events the log keeps.
+     *
+     * @return the capacity of the log, or 0 if it is unbounded
+     */
+    public int getCapacity() {
+        EventRing r = ring;
+        return r == null ? 0 : r.capacity();
     }
 
     /**
-     * Adds an event to the event log.
+     * Registers a sink to be handed every event logged from now on.
+     *
+     * @param sink the sink to add
+     */
+    public void addSink(EventSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Unregisters a sink; does nothing if it was not registered.
+     *
+     * @param sink the sink to remove
+     */
+    public void removeSink(EventSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Adds an event to the event log and hands it to the registered sinks.
      * 
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        EventRing r = ring;
+        if (r != null) {
+            r.add(e);
+        } else {
+            events.add(e);
+        }
+        for (EventSink sink : sinks) {
+            sink.eventLogged(e);
+        }
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        EventRing r = ring;
+        if (r != null) {
+            r.clear();
+        } else {
+            events.clear();
+        }
+        logEvent(new Event(EventKind.LOG_CLEARED, null, null, null, 0));
     }
 
+    /**
+     * Iterates over the events of the log, oldest first. When the log is bounded, the iterator walks
+     * a snapshot of the current window; otherwise it is weakly consistent: it sees every event logged
+     * before it was created and may or may not see events logged while it is in use. Either way,
+     * events logged meanwhile never make it fail.
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        EventRing r = ring;
+        return r == null ? events.iterator() : r.snapshot().iterator();
+    }
+
+    /**
+     * Copies the events currently in the log.
+     *
+     * @return the events of the log, oldest first
+     */
+    private Collection<Event> snapshot() {
+        EventRing r = ring;
+        return r == null ? new ArrayList<Event>(events) : r.snapshot();
     }
 }
@@ -0,0 +1,98 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// A fixed-capacity window onto the most recent events. Appends are lock-free and may come from any number of
+// threads: each claims the next sequence number and publishes its event into slot (sequence % capacity),
+// overwriting the oldest event. A slot only ever moves forward in sequence, so a slow producer can never
+// overwrite a newer event with an older one.
+final class EventRing {
+    private final int capacity;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong next;  // sequence number of the next event
+    private final AtomicLong floor; // events numbered below this were cleared
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an empty ring holding at most capacity events
+    EventRing(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.next = new AtomicLong();
+        this.floor = new AtomicLong();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends e, overwriting the oldest event once the ring is full
+    void add(Event e) {
+        long seq = next.getAndIncrement();
+        int index = (int) (seq % capacity);
+        Slot slot = new Slot(seq, e);
+        Slot current;
+        do {
+            current = slots.get(index);
+            if (current != null && current.seq > seq) {
+                return; // the ring already wrapped past this event
+            }
+        } while (!slots.compareAndSet(index, current, slot));
+    }
+
+    // EFFECTS: returns the events of the current window, oldest first, as an unmodifiable copy. Every event
+    //          appears once and in the order it was logged; an event still being published, or overwritten
+    //          while the copy is taken, is left out.
+    List<Event> snapshot() {
+        long hi = next.get();
+        long lo = Math.max(floor.get(), hi - capacity);
+        List<Event> window = new ArrayList<>((int) Math.max(hi - lo, 0));
+        for (long seq = lo; seq < hi; seq++) {
+            Slot slot = slots.get((int) (seq % capacity));
+            if (slot != null && slot.seq == seq) {
+                window.add(slot.event);
+            }
+        }
+        return Collections.unmodifiableList(window);
+    }
+
+    // EFFECTS: passes the events numbered from seq on to sink, oldest first, and returns the number to continue
+    //          from next time. It stops at an event still being published, so none is passed twice or out of
+    //          order; events already overwritten (or older than the current window) are skipped.
+    long drain(long seq, Consumer<Event> sink) {
+        long hi = next.get();
+        for (seq = Math.max(seq, hi - capacity); seq < hi; seq++) {
+            Slot slot = slots.get((int) (seq % capacity));
+            if (slot == null || slot.seq < seq) {
+                break;
+            }
+            if (slot.seq == seq) {
+                sink.accept(slot.event);
+            }
+        }
+        return seq;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every event logged so far
+    void clear() {
+        floor.accumulateAndGet(next.get(), Math::max);
+    }
+
+    // EFFECTS: returns the maximum number of events held
+    int capacity() {
+        return capacity;
+    }
+
+    // An event together with the sequence number it was logged under
+    private static final class Slot {
+        private final long seq;
+        private final Event event;
+
+        Slot(long seq, Event event) {
+            this.seq = seq;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package model;
+
+// Receives every event logged to the EventLog, on the thread that logged it, in addition to the log keeping
+// it. Implementations are on the path of every model change, so they must return quickly.
+public interface EventSink {
+
+    // EFFECTS: handles an event that was just logged
+    void eventLogged(Event e);
+}
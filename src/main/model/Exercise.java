@@ -1,20 +1,38 @@
 package model;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.json.JSONObject;
 
 import persistence.Writable;
 
 // Represents an exercise having a name, target muscle (main muscle group that the exercise is
-// meant to target), weight (in pounds (lbs)), and reps (repetitions the exercise should be done for)
+// meant to target), weight (in pounds (lbs)), and reps (repetitions the exercise should be done for).
+// Every exercise also has an immutable id; two exercises are equal iff their ids are, so an exercise
+// stays findable as a map key however its other fields are edited.
 public class Exercise implements Writable {
+    private static final AtomicLong NEXT_ID = new AtomicLong(1); // next id handed out by the constructor
+
+    private final long id; // identity key, never changes
     private String name; // exercises name
     private String targetMuscle; // targeted muscle group
     private int weight; // 0 if bodyweight
     private int reps; // reptitions per set
+    private FitnessManager manager; // library this exercise belongs to, or null
+    private ExerciseSnapshot snapshot; // the current fields, made when first asked for after a change
 
     // REQUIRES: reps > 0 & weight >= 0
-    // EFFECTS: constructs an Exercise with a name, targetMuscle, weight, and reps
+    // EFFECTS: constructs an Exercise with a fresh id, a name, targetMuscle, weight, and reps
     public Exercise(String name, String targetMuscle, int weight, int reps) {
+        this(NEXT_ID.getAndIncrement(), name, targetMuscle, weight, reps);
+    }
+
+    // REQUIRES: id > 0 & reps > 0 & weight >= 0
+    // EFFECTS: constructs an Exercise with a known id (e.g. one read back from a file), a name, targetMuscle,
+    //          weight, and reps; ids handed out afterwards are greater than id
+    public Exercise(long id, String name, String targetMuscle, int weight, int reps) {
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+        this.id = id;
         this.name = name;
         this.targetMuscle = targetMuscle;
         this.weight = weight;
@@ -24,6 +42,7 @@ public class Exercise implements Writable {
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
+        json.put("id", id);
         json.put("name", name);
         json.put("targetMuscle", targetMuscle);
         json.put("weight", weight);
@@ -33,6 +52,11 @@ public class Exercise implements Writable {
 
     // GETTERS:
 
+    // EFFECTS: returns the immutable id of the exercise
+    public long getId() {
+        return id;
+    }
+
     // EFFECTS: returns the name of the exercise
     public String getName() {
         return name;
@@ -58,17 +82,16 @@ public class Exercise implements Writable {
     // MODIFIES: this
     // EFFECTS: sets the exercise name
     public void setName(String name) {
-        this.name = name;
-
-        EventLog.getInstance().logEvent(new Event("Changed exercise name to " + name + "!"));
+        rename(name);
+        EventLog.getInstance().logEvent(new Event(EventKind.EXERCISE_RENAMED, name, null, null, 0));
     }
 
     // MODIFIES: this
     // EFFECTS: sets the targetMuscle
     public void setTargetMuscle(String targetMuscle) {
-        this.targetMuscle = targetMuscle;
-
-        EventLog.getInstance().logEvent(new Event("Changed exercise target muscle to " + targetMuscle + "!"));
+        retarget(targetMuscle);
+        EventLog.getInstance().logEvent(new Event(EventKind.TARGET_MUSCLE_CHANGED, name, null,
+                targetMuscle, 0));
     }
 
     // REQUIRES: weight >= 0
@@ -76,8 +99,8 @@ public class Exercise implements Writable {
     // EFFECTS: sets the weight for the exercise
     public void setWeight(int weight) {
         this.weight = weight;
-
-        EventLog.getInstance().logEvent(new Event("Changed exercise weight to " + weight + "lbs!"));
+        changed();
+        EventLog.getInstance().logEvent(new Event(EventKind.WEIGHT_CHANGED, name, null, null, weight));
     }
 
     // REQUIRES: reps > 0
@@ -85,8 +108,75 @@ public class Exercise implements Writable {
     // EFFECTS: sets the number of reps for the exercise
     public void setReps(int reps) {
         this.reps = reps;
+        changed();
+        EventLog.getInstance().logEvent(new Event(EventKind.REPS_CHANGED, name, null, null, reps));
+    }
+
+    // REQUIRES: reps > 0 & weight >= 0
+    // MODIFIES: this
+    // EFFECTS: brings the fields up to date with ones read back from a file (e.g. by replaying a journal),
+    //          telling the owning manager about each field that differs like the setters do, but without
+    //          logging an event, since the change is not a new user action
+    public void restore(String name, String targetMuscle, int weight, int reps) {
+        if (!this.name.equals(name)) {
+            rename(name);
+        }
+        if (!this.targetMuscle.equals(targetMuscle)) {
+            retarget(targetMuscle);
+        }
+        if (this.weight != weight || this.reps != reps) {
+            this.weight = weight;
+            this.reps = reps;
+            changed();
+        }
+    }
 
-        EventLog.getInstance().logEvent(new Event("Changed exercise reps to " + reps + " per set!"));
+    // MODIFIES: this
+    // EFFECTS: sets the name and tells the owning manager, if any
+    private void rename(String name) {
+        String oldName = this.name;
+        this.name = name;
+        snapshot = null;
+        if (manager != null) {
+            manager.exerciseRenamed(this, oldName);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the target muscle and tells the owning manager, if any
+    private void retarget(String targetMuscle) {
+        this.targetMuscle = targetMuscle;
+        snapshot = null;
+        if (manager != null) {
+            manager.exerciseRetargeted(this);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the snapshot of the old fields and tells the owning manager, if any, that the weight or
+    //          reps changed
+    private void changed() {
+        snapshot = null;
+        if (manager != null) {
+            manager.exerciseChanged(this);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns an immutable snapshot of the current fields of this exercise; the same one is returned
+    //          until a field changes, so snapshots of the library and of sessions share it
+    ExerciseSnapshot snapshot() {
+        if (snapshot == null) {
+            snapshot = new ExerciseSnapshot(this);
+        }
+        return snapshot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the library this exercise belongs to (null when removed), so renames and new target
+    //          muscles reach its indexes and edits reach its listeners
+    void setManager(FitnessManager manager) {
+        this.manager = manager;
     }
 
     @Override
@@ -97,20 +187,12 @@ public class Exercise implements Writable {
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
-        Exercise exercise = (Exercise) o;
-        return weight == exercise.weight
-                && reps == exercise.reps
-                && name.equals(exercise.name)
-                && targetMuscle.equals(exercise.targetMuscle);
+        return id == ((Exercise) o).id;
     }
 
     @Override
     public int hashCode() {
-        int result = name.hashCode();
-        result = 31 * result + targetMuscle.hashCode();
-        result = 31 * result + weight;
-        result = 31 * result + reps;
-        return result;
+        return Long.hashCode(id);
     }
 
 }
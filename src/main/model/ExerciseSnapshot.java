@@ -0,0 +1,60 @@
+package model;
+
+import org.json.JSONObject;
+
+import persistence.Writable;
+
+// Represents the fields of an exercise as they were when a FitnessSnapshot was taken. Immutable, so it can be
+// shared between snapshots and read from any thread.
+public final class ExerciseSnapshot implements Writable {
+    private final long id;
+    private final String name;
+    private final String targetMuscle;
+    private final int weight;
+    private final int reps;
+
+    // EFFECTS: constructs a snapshot of the current fields of exercise
+    ExerciseSnapshot(Exercise exercise) {
+        this.id = exercise.getId();
+        this.name = exercise.getName();
+        this.targetMuscle = exercise.getTargetMuscle();
+        this.weight = exercise.getWeight();
+        this.reps = exercise.getReps();
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("id", id);
+        json.put("name", name);
+        json.put("targetMuscle", targetMuscle);
+        json.put("weight", weight);
+        json.put("reps", reps);
+        return json;
+    }
+
+    // EFFECTS: returns the id of the exercise
+    public long getId() {
+        return id;
+    }
+
+    // EFFECTS: returns the name of the exercise
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the target muscle
+    public String getTargetMuscle() {
+        return targetMuscle;
+    }
+
+    // EFFECTS: returns the weight for the exercise
+    public int getWeight() {
+        return weight;
+    }
+
+    // EFFECTS: returns the reps per set of the exercise
+    public int getReps() {
+        return reps;
+    }
+}
@@ -1,7 +1,15 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -12,11 +20,29 @@ import persistence.Writable;
 public class FitnessManager implements Writable {
     private List<Exercise> exercises;
     private List<TrainingSession> sessions;
+    private NameIndex<Exercise> exercisesByName;          // normalized name -> exercises
+    private NameIndex<TrainingSession> sessionsByName;    // normalized name -> sessions
+    private Map<Exercise, Set<TrainingSession>> sessionsByExercise; // exercise -> sessions that contain it
+    private MuscleIndex muscles;                          // exercises and sessions by target muscle
+    private List<ModelListener> listeners;                // told about every change, in registration order
+    private SnapshotArray<Exercise, ExerciseSnapshot> exerciseSnapshots;    // follows exercises
+    private SnapshotArray<TrainingSession, SessionSnapshot> sessionSnapshots; // follows sessions
+    private Set<Exercise> editedExercises;                // edited since the sessions containing them were
+                                                          // last snapshotted
+    private FitnessSnapshot snapshot;                     // last snapshot taken, or null if changed since
 
     // EFFECTS: constructs an empty FitnessManager
     public FitnessManager() {
-        this.exercises = new ArrayList<>();
-        this.sessions = new ArrayList<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.exercisesByName = new NameIndex<>();
+        this.sessionsByName = new NameIndex<>();
+        this.sessionsByExercise = new HashMap<>();
+        this.muscles = new MuscleIndex();
+        this.exercises = new TrackedList<>(this::exerciseAdded, this::exerciseRemoved);
+        this.sessions = new TrackedList<>(this::sessionAdded, this::sessionRemoved);
+        this.exerciseSnapshots = new SnapshotArray<>();
+        this.sessionSnapshots = new SnapshotArray<>();
+        this.editedExercises = new LinkedHashSet<>();
     }
 
     @Override
@@ -44,7 +70,7 @@ public class FitnessManager implements Writable {
         Exercise exercise = new Exercise(name, targetMuscle, weight, reps);
         exercises.add(exercise);
 
-        EventLog.getInstance().logEvent(new Event("Created new exercise " + name + "!"));
+        EventLog.getInstance().logEvent(new Event(EventKind.EXERCISE_CREATED, name, null, null, 0));
 
         return exercise;
     }
@@ -55,31 +81,37 @@ public class FitnessManager implements Writable {
         TrainingSession session = new TrainingSession(name);
         sessions.add(session);
 
-        EventLog.getInstance().logEvent(new Event("Created new session " + name + "!"));
+        EventLog.getInstance().logEvent(new Event(EventKind.SESSION_CREATED, null, name, null, 0));
 
         return session;
     }
 
-    // EFFECTS: finds and returns an exercise by name or null
+    // EFFECTS: finds and returns an exercise by name (ignoring case and surrounding whitespace) or null
     public Exercise findExerciseByName(String name) {
-        for (Exercise e : exercises) {
-            if (e.getName().equalsIgnoreCase(name.trim())) {
-                return e;
-            }
+        Exercise e = exerciseNamed(name);
+        if (e == null) {
+            System.out.println("Exercise Not Found.");
         }
-        System.out.println("Exercise Not Found.");
-        return null;
+        return e;
     }
 
-    // EFFECTS: finds and returns a training session by name
+    // EFFECTS: finds and returns a training session by name (ignoring case and surrounding whitespace) or null
     public TrainingSession findSessionByName(String name) {
-        for (TrainingSession s : sessions) {
-            if (s.getName().equalsIgnoreCase(name.trim())) {
-                return s;
-            }
+        TrainingSession s = sessionNamed(name);
+        if (s == null) {
+            System.out.println("Session Not Found.");
         }
-        System.out.println("Session Not Found.");
-        return null;
+        return s;
+    }
+
+    // EFFECTS: returns the exercise indexed under name, or null; unlike findExerciseByName, prints nothing
+    Exercise exerciseNamed(String name) {
+        return exercisesByName.get(name);
+    }
+
+    // EFFECTS: returns the session indexed under name, or null; unlike findSessionByName, prints nothing
+    TrainingSession sessionNamed(String name) {
+        return sessionsByName.get(name);
     }
 
     // MODIFIES: this
@@ -103,8 +135,8 @@ public class FitnessManager implements Writable {
 
         session.addExercise(exercise, sets);
 
-        EventLog.getInstance().logEvent(new Event("Added " + sets + "sets of " + exerciseName
-                + " to " + sessionName + "!"));
+        EventLog.getInstance().logEvent(new Event(EventKind.SETS_ADDED, exerciseName, sessionName,
+                null, sets));
 
         System.out.println("Added " + sets + "sets of " + exerciseName + " to " + sessionName + "!");
     }
@@ -122,30 +154,66 @@ public class FitnessManager implements Writable {
     }
 
     // MODIFIES: this
-// EFFECTS: deletes an exercise by name, removing it from the library AND all sessions.
-//          returns true if deleted; false if not found.
-public boolean deleteExercise(String name) {
-    Exercise e = findExerciseByName(name);
-    if (e == null) {
-        System.out.println("Error: exercise '" + name + "' not found!");
-        return false;
+    // EFFECTS: returns an immutable snapshot of the exercises and sessions as they are now; it shares its
+    //          contents with this manager, which copies them before changing them from then on. Taking it is
+    //          O(1) apart from rebuilding the snapshots of sessions whose exercises were edited since the last.
+    //          Edits to an exercise that is only in sessions, not in the library, are not seen by snapshots.
+    public FitnessSnapshot snapshot() {
+        if (snapshot == null) {
+            resnapshotEditedSessions();
+            snapshot = new FitnessSnapshot(exerciseSnapshots.freeze(), sessionSnapshots.freeze());
+        }
+        return snapshot;
+    }
+
+    // EFFECTS: returns the sessions of this manager that contain the given exercise ("where used")
+    public Set<TrainingSession> getSessionsContaining(Exercise exercise) {
+        Set<TrainingSession> using = sessionsByExercise.get(exercise);
+        return using == null ? Collections.emptySet() : Collections.unmodifiableSet(using);
+    }
+
+    // EFFECTS: returns the library exercises whose target muscle is muscle (ignoring case and surrounding
+    //          whitespace), in O(1); the set is a read-only view that follows later changes
+    public Set<Exercise> getExercisesTargeting(String muscle) {
+        return muscles.exercisesTargeting(muscle);
     }
 
-    // remove from master list
-    boolean removedFromLibrary = exercises.remove(e);
+    // EFFECTS: returns the sessions with at least one exercise whose target muscle is muscle (ignoring case and
+    //          surrounding whitespace), in O(1); the set is a read-only view that follows later changes
+    public Set<TrainingSession> getSessionsTargeting(String muscle) {
+        return muscles.sessionsTargeting(muscle);
+    }
+
+    // EFFECTS: returns how many library exercises target each muscle group, keyed by the target muscle as the
+    //          first exercise of the group spells it, in the order the groups first appeared
+    public Map<String, Integer> getMuscleCounts() {
+        return muscles.counts();
+    }
 
-    // remove from all sessions (only if present to avoid misleading logs)
-    for (TrainingSession s : sessions) {
-        if (s.getExerciseSets().containsKey(e)) {
+    // MODIFIES: this
+    // EFFECTS: deletes an exercise by name, removing it from the library AND all sessions.
+    //          returns true if deleted; false if not found.
+    public boolean deleteExercise(String name) {
+        Exercise e = findExerciseByName(name);
+        if (e == null) {
+            System.out.println("Error: exercise '" + name + "' not found!");
+            return false;
+        }
+
+        // remove from master list
+        boolean removedFromLibrary = exercises.remove(e);
+
+        // remove from the sessions that actually use it (copied, as removal updates the index)
+        for (TrainingSession s : new ArrayList<>(getSessionsContaining(e))) {
             s.removeExercise(e); // TrainingSession logs its own event
         }
-    }
 
-    if (removedFromLibrary) {
-        EventLog.getInstance().logEvent(new Event("Deleted exercise " + e.getName() + " from library and all sessions!"));
+        if (removedFromLibrary) {
+            EventLog.getInstance().logEvent(new Event(EventKind.EXERCISE_DELETED, e.getName(), null,
+                    null, 0));
+        }
+        return removedFromLibrary;
     }
-    return removedFromLibrary;
-}
 
     // MODIFIES: this
     // EFFECTS: removes a specific exercise from a particular session.
@@ -163,8 +231,196 @@ public boolean deleteExercise(String name) {
         }
 
         s.removeExercise(e); // TrainingSession logs its own event
-        EventLog.getInstance().logEvent(new Event("Removed " + e.getName() + " from session " + s.getName() + "."));
+        EventLog.getInstance().logEvent(new Event(EventKind.EXERCISE_REMOVED_FROM_SESSION, e.getName(),
+                s.getName(), null, 0));
         return true;
     }
 
+    // MODIFIES: this
+    // EFFECTS: registers listener to be told about every later change to this manager, its library
+    //          exercises and its sessions
+    public void addListener(ModelListener listener) {
+        listeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unregisters listener; does nothing if it was not registered
+    public void removeListener(ModelListener listener) {
+        listeners.remove(listener);
+    }
+
+    // INDEX MAINTENANCE:
+
+    // EFFECTS: returns the key a name is indexed under, so lookups ignore case and surrounding whitespace
+    public static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // MODIFIES: this, e
+    // EFFECTS: indexes an exercise that was just added to the library at index
+    private void exerciseAdded(Exercise e, int index) {
+        e.setManager(this);
+        exercisesByName.add(e.getName(), e);
+        muscles.exerciseAdded(e);
+        exerciseSnapshots.added(e, index, e.snapshot());
+        snapshot = null;
+        notifyListeners(l -> l.exerciseAdded(e, index));
+    }
+
+    // MODIFIES: this, e
+    // EFFECTS: drops an exercise that was just removed from index of the library from the indexes
+    private void exerciseRemoved(Exercise e, int index) {
+        e.setManager(null);
+        exercisesByName.remove(e.getName(), e);
+        muscles.exerciseRemoved(e);
+        exerciseSnapshots.removed(e, index);
+        snapshot = null;
+        notifyListeners(l -> l.exerciseRemoved(e, index));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes an exercise of this library after it was renamed from oldName
+    void exerciseRenamed(Exercise e, String oldName) {
+        exercisesByName.remove(oldName, e);
+        exercisesByName.add(e.getName(), e);
+        int index = resnapshotExercise(e);
+        notifyListeners(l -> l.exerciseUpdated(e, index));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes an exercise of this library, and the sessions that contain it, after its target muscle
+    //          changed
+    void exerciseRetargeted(Exercise e) {
+        muscles.exerciseRetargeted(e, getSessionsContaining(e));
+        exerciseChanged(e);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells listeners that a field other than the name of an exercise of this library changed
+    void exerciseChanged(Exercise e) {
+        int index = resnapshotExercise(e);
+        notifyListeners(l -> l.exerciseUpdated(e, index));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the snapshot of an exercise of this library, and marks the snapshots of the sessions
+    //          that contain it to be rebuilt when the next snapshot is taken; returns the index of the exercise
+    //          in the library
+    private int resnapshotExercise(Exercise e) {
+        int index = exerciseSnapshots.updated(e, e.snapshot());
+        editedExercises.add(e);
+        snapshot = null;
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds, once each, the snapshots of the sessions that contain an exercise edited since the
+    //          last snapshot was taken
+    private void resnapshotEditedSessions() {
+        if (editedExercises.isEmpty()) {
+            return;
+        }
+        Set<TrainingSession> edited = new LinkedHashSet<>();
+        for (Exercise e : editedExercises) {
+            edited.addAll(getSessionsContaining(e));
+        }
+        editedExercises.clear();
+        for (TrainingSession s : edited) {
+            resnapshotSession(s);
+        }
+    }
+
+    // MODIFIES: this, s
+    // EFFECTS: indexes a session that was just added at index, along with the exercises it already contains
+    private void sessionAdded(TrainingSession s, int index) {
+        s.setManager(this);
+        sessionsByName.add(s.getName(), s);
+        for (Exercise e : s.getExerciseSets().keySet()) {
+            indexEntry(s, e);
+        }
+        sessionSnapshots.added(s, index, new SessionSnapshot(s));
+        snapshot = null;
+        notifyListeners(l -> l.sessionAdded(s, index));
+    }
+
+    // MODIFIES: this, s
+    // EFFECTS: drops a session that was just removed from index, and its exercises, from the indexes
+    private void sessionRemoved(TrainingSession s, int index) {
+        s.setManager(null);
+        sessionsByName.remove(s.getName(), s);
+        for (Exercise e : s.getExerciseSets().keySet()) {
+            unindexEntry(s, e);
+        }
+        sessionSnapshots.removed(s, index);
+        snapshot = null;
+        notifyListeners(l -> l.sessionRemoved(s, index));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that session s of this manager now contains exercise e
+    void exerciseAddedToSession(TrainingSession s, Exercise e) {
+        indexEntry(s, e);
+        resnapshotSession(s);
+        int sets = s.getExerciseSets().get(e);
+        notifyListeners(l -> l.sessionExerciseAdded(s, e, sets));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that session s of this manager no longer contains exercise e
+    void exerciseRemovedFromSession(TrainingSession s, Exercise e) {
+        unindexEntry(s, e);
+        resnapshotSession(s);
+        notifyListeners(l -> l.sessionExerciseRemoved(s, e));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells listeners that the number of sets of exercise e in session s of this manager changed
+    void exerciseSetsChanged(TrainingSession s, Exercise e) {
+        resnapshotSession(s);
+        int sets = s.getExerciseSets().get(e);
+        notifyListeners(l -> l.sessionExerciseUpdated(s, e, sets));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the snapshot of session s of this manager and returns the index of s
+    private int resnapshotSession(TrainingSession s) {
+        snapshot = null;
+        return sessionSnapshots.updated(s, new SessionSnapshot(s));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds s to the sessions indexed as containing e
+    private void indexEntry(TrainingSession s, Exercise e) {
+        if (sessionsByExercise.computeIfAbsent(e, k -> new LinkedHashSet<>()).add(s)) {
+            muscles.entryAdded(s, e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes s from the sessions indexed as containing e
+    private void unindexEntry(TrainingSession s, Exercise e) {
+        Set<TrainingSession> using = sessionsByExercise.get(e);
+        if (using != null && using.remove(s)) {
+            muscles.entryRemoved(s, e);
+            if (using.isEmpty()) {
+                sessionsByExercise.remove(e);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: re-indexes a session of this manager after it was renamed from oldName
+    void sessionRenamed(TrainingSession s, String oldName) {
+        sessionsByName.remove(oldName, s);
+        sessionsByName.add(s.getName(), s);
+        int index = resnapshotSession(s);
+        notifyListeners(l -> l.sessionUpdated(s, index));
+    }
+
+    // EFFECTS: hands a change to every registered listener
+    private void notifyListeners(Consumer<ModelListener> change) {
+        for (ModelListener l : listeners) {
+            change.accept(l);
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package model;
+
+import java.util.List;
+
+// Represents search-as-you-type over the exercises (by name and target muscle) and sessions (by name) of a
+// FitnessManager. It watches the manager, so each change only updates the index entries of what changed.
+public class FitnessSearch implements ModelListener {
+    private final SearchIndex<Exercise> exercises = new SearchIndex<>(Exercise::getName, Exercise::getTargetMuscle);
+    private final SearchIndex<TrainingSession> sessions = new SearchIndex<>(TrainingSession::getName, s -> "");
+    private FitnessManager manager;
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the previous manager, if any, and indexes and watches fm
+    public void watch(FitnessManager fm) {
+        if (manager != null) {
+            manager.removeListener(this);
+        }
+        manager = fm;
+        exercises.clear();
+        sessions.clear();
+        fm.getExercises().forEach(exercises::add);
+        fm.getSessions().forEach(sessions::add);
+        fm.addListener(this);
+    }
+
+    // EFFECTS: returns at most limit exercises of the library matching query, best first
+    public List<Exercise> findExercises(String query, int limit) {
+        return exercises.search(query, limit);
+    }
+
+    // EFFECTS: returns at most limit sessions matching query, best first
+    public List<TrainingSession> findSessions(String query, int limit) {
+        return sessions.search(query, limit);
+    }
+
+    @Override
+    public void exerciseAdded(Exercise exercise, int index) {
+        exercises.add(exercise);
+    }
+
+    @Override
+    public void exerciseRemoved(Exercise exercise, int index) {
+        exercises.remove(exercise);
+    }
+
+    @Override
+    public void exerciseUpdated(Exercise exercise, int index) {
+        exercises.update(exercise);
+    }
+
+    @Override
+    public void sessionAdded(TrainingSession session, int index) {
+        sessions.add(session);
+    }
+
+    @Override
+    public void sessionRemoved(TrainingSession session, int index) {
+        sessions.remove(session);
+    }
+
+    @Override
+    public void sessionUpdated(TrainingSession session, int index) {
+        sessions.update(session);
+    }
+}
@@ -0,0 +1,53 @@
+package model;
+
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import persistence.Writable;
+
+// Represents the exercises and sessions of a FitnessManager as they were at one moment. Taking one is O(1):
+// it shares its lists with the manager, which copies a list before its next change to it instead of changing
+// it in place (copy-on-write). A snapshot is immutable, so any thread can read it, e.g. to save it in the
+// background, while the manager keeps being edited, without locks and without seeing half of an edit.
+public final class FitnessSnapshot implements Writable {
+    private final List<ExerciseSnapshot> exercises;
+    private final List<SessionSnapshot> sessions;
+
+    // REQUIRES: exercises and sessions are read-only and never change
+    // EFFECTS: constructs a snapshot of the given exercises and sessions
+    FitnessSnapshot(List<ExerciseSnapshot> exercises, List<SessionSnapshot> sessions) {
+        this.exercises = exercises;
+        this.sessions = sessions;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+
+        JSONArray exercisesArray = new JSONArray();
+        for (ExerciseSnapshot ex : exercises) {
+            exercisesArray.put(ex.toJson());
+        }
+        json.put("exercises", exercisesArray);
+
+        JSONArray sessionsArray = new JSONArray();
+        for (SessionSnapshot session : sessions) {
+            sessionsArray.put(session.toJson());
+        }
+        json.put("sessions", sessionsArray);
+
+        return json;
+    }
+
+    // EFFECTS: returns the read-only list of the exercises of the library
+    public List<ExerciseSnapshot> getExercises() {
+        return exercises;
+    }
+
+    // EFFECTS: returns the read-only list of the training sessions
+    public List<SessionSnapshot> getSessions() {
+        return sessions;
+    }
+}
@@ -0,0 +1,36 @@
+package model;
+
+// The rep range a set falls in, as a stand-in for its intensity: the heavier a set is relative to what the
+// lifter can do, the fewer reps it allows. Exercises record reps but not a one-rep max, so the rep range is
+// the intensity the model can tell.
+public enum IntensityZone {
+    STRENGTH(1, 5),
+    HYPERTROPHY(6, 12),
+    ENDURANCE(13, Integer.MAX_VALUE);
+
+    private final int minReps;
+    private final int maxReps;
+
+    IntensityZone(int minReps, int maxReps) {
+        this.minReps = minReps;
+        this.maxReps = maxReps;
+    }
+
+    // EFFECTS: returns the zone a set of the given number of reps falls in
+    public static IntensityZone of(int reps) {
+        if (reps <= STRENGTH.maxReps) {
+            return STRENGTH;
+        }
+        return reps <= HYPERTROPHY.maxReps ? HYPERTROPHY : ENDURANCE;
+    }
+
+    // EFFECTS: returns the fewest reps of a set in this zone
+    public int getMinReps() {
+        return minReps;
+    }
+
+    // EFFECTS: returns the most reps of a set in this zone
+    public int getMaxReps() {
+        return maxReps;
+    }
+}
@@ -0,0 +1,46 @@
+package model;
+
+// Receives every change made to a FitnessManager, to the exercises of its library and to its sessions,
+// right after the change happened. Changes to the library and to the list of sessions come with the index of
+// the exercise or session in its list, so that a view of the list (e.g. a JList) can update just that row.
+// All methods do nothing by default, so a listener only overrides the changes it cares about. Edits to
+// exercises that are only referenced by sessions (not in the library) are not reported.
+public interface ModelListener {
+
+    // EFFECTS: called after exercise was added to the library at index
+    default void exerciseAdded(Exercise exercise, int index) {
+    }
+
+    // EFFECTS: called after exercise was removed from index of the library
+    default void exerciseRemoved(Exercise exercise, int index) {
+    }
+
+    // EFFECTS: called after a field (name, target muscle, weight or reps) of the exercise at index of the
+    //          library changed
+    default void exerciseUpdated(Exercise exercise, int index) {
+    }
+
+    // EFFECTS: called after session was added at index, along with the exercises it already contains
+    default void sessionAdded(TrainingSession session, int index) {
+    }
+
+    // EFFECTS: called after session was removed from index
+    default void sessionRemoved(TrainingSession session, int index) {
+    }
+
+    // EFFECTS: called after the session at index was renamed
+    default void sessionUpdated(TrainingSession session, int index) {
+    }
+
+    // EFFECTS: called after exercise was added to session with the given number of sets
+    default void sessionExerciseAdded(TrainingSession session, Exercise exercise, int sets) {
+    }
+
+    // EFFECTS: called after exercise was removed from session
+    default void sessionExerciseRemoved(TrainingSession session, Exercise exercise) {
+    }
+
+    // EFFECTS: called after the number of sets of exercise in session changed to sets
+    default void sessionExerciseUpdated(TrainingSession session, Exercise exercise, int sets) {
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Indexes the library exercises of a FitnessManager by target muscle, and its sessions by the muscles their
+// exercises target. Muscles are normalized like names (FitnessManager.nameKey), so "Chest" and " chest" are
+// one muscle group, and each group's key is interned: every exercise indexed under it shares the one key
+// string. Each exercise remembers the key it was indexed under, so it is unindexed from the right group even
+// if its target muscle changed without the manager being told (e.g. an exercise that is only in sessions).
+final class MuscleIndex {
+    private final Map<String, Set<Exercise>> exercises = new LinkedHashMap<>();               // key -> exercises
+    private final Map<String, Map<TrainingSession, Integer>> sessions = new LinkedHashMap<>(); // key -> session
+                                                                            //    -> its exercises targeting it
+    private final Map<Exercise, Indexed> keys = new IdentityHashMap<>();    // exercise -> key it is indexed under
+    private final Map<String, String> pool = new HashMap<>();               // key -> its interned instance
+
+    // EFFECTS: returns the library exercises targeting muscle, in the order they were indexed
+    Set<Exercise> exercisesTargeting(String muscle) {
+        Set<Exercise> targeting = exercises.get(FitnessManager.nameKey(muscle));
+        return targeting == null ? Collections.emptySet() : Collections.unmodifiableSet(targeting);
+    }
+
+    // EFFECTS: returns the sessions with at least one exercise targeting muscle
+    Set<TrainingSession> sessionsTargeting(String muscle) {
+        Map<TrainingSession, Integer> targeting = sessions.get(FitnessManager.nameKey(muscle));
+        return targeting == null ? Collections.emptySet() : Collections.unmodifiableSet(targeting.keySet());
+    }
+
+    // EFFECTS: returns the number of library exercises targeting each muscle group that has any, by the target
+    //          muscle of the first of them, in the order the groups were first indexed
+    Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Set<Exercise> group : exercises.values()) {
+            counts.put(group.iterator().next().getTargetMuscle(), group.size());
+        }
+        return counts;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes e, which was just added to the library, under its target muscle
+    void exerciseAdded(Exercise e) {
+        exercises.computeIfAbsent(use(e), k -> new LinkedHashSet<>()).add(e);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops e, which was just removed from the library, from its muscle group
+    void exerciseRemoved(Exercise e) {
+        String key = release(e);
+        Set<Exercise> group = exercises.get(key);
+        if (group != null && group.remove(e) && group.isEmpty()) {
+            exercises.remove(key);
+        }
+    }
+
+    // REQUIRES: e is in the library, and using are all the sessions that contain it
+    // MODIFIES: this
+    // EFFECTS: moves e, and the sessions that contain it, to the group of its new target muscle
+    void exerciseRetargeted(Exercise e, Set<TrainingSession> using) {
+        for (TrainingSession s : using) {
+            entryRemoved(s, e);
+        }
+        exerciseRemoved(e);
+        exerciseAdded(e);
+        for (TrainingSession s : using) {
+            entryAdded(s, e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that session s now contains exercise e
+    void entryAdded(TrainingSession s, Exercise e) {
+        sessions.computeIfAbsent(use(e), k -> new LinkedHashMap<>()).merge(s, 1, Integer::sum);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that session s no longer contains exercise e
+    void entryRemoved(TrainingSession s, Exercise e) {
+        String key = release(e);
+        Map<TrainingSession, Integer> group = sessions.get(key);
+        if (group != null && group.computeIfPresent(s, (k, n) -> n > 1 ? n - 1 : null) == null
+                && group.isEmpty()) {
+            sessions.remove(key);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the interned key e is indexed under, recording one more use of it
+    private String use(Exercise e) {
+        Indexed indexed = keys.get(e);
+        if (indexed == null) {
+            indexed = new Indexed(intern(FitnessManager.nameKey(e.getTargetMuscle())));
+            keys.put(e, indexed);
+        }
+        indexed.uses++;
+        return indexed.key;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the key e is indexed under, recording one use fewer of it, or null if e is not indexed
+    private String release(Exercise e) {
+        Indexed indexed = keys.get(e);
+        if (indexed == null) {
+            return null;
+        }
+        if (--indexed.uses == 0) {
+            keys.remove(e);
+        }
+        return indexed.key;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the one key string used for the muscle group of key
+    private String intern(String key) {
+        String interned = pool.putIfAbsent(key, key);
+        return interned == null ? key : interned;
+    }
+
+    // The key an exercise is indexed under, and how many times (library and sessions) it is indexed
+    private static final class Indexed {
+        final String key;
+        int uses;
+
+        Indexed(String key) {
+            this.key = key;
+        }
+    }
+}
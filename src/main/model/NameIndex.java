@@ -0,0 +1,52 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Indexes items (exercises or sessions) by normalized name (FitnessManager.nameKey). Names are not required to
+// be unique, so each key holds the bucket of every item indexed under it, in the order they were indexed, and
+// a lookup returns the first of them. Adding and removing an item only touches its own bucket, which is almost
+// always a single item, so neither rescans the other items.
+final class NameIndex<T> {
+    private final Map<String, List<T>> buckets = new HashMap<>(); // key -> items named so, earliest first
+
+    // EFFECTS: returns the first item indexed under name, or null if there is none
+    T get(String name) {
+        List<T> bucket = buckets.get(FitnessManager.nameKey(name));
+        return bucket == null ? null : bucket.get(0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes item under name, after the items already indexed under it
+    void add(String name, T item) {
+        buckets.merge(FitnessManager.nameKey(name), List.of(item), (bucket, one) -> {
+            List<T> more = new ArrayList<>(bucket);
+            more.add(item);
+            return more;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes item from the items indexed under name; does nothing if it is not indexed under it
+    void remove(String name, T item) {
+        String key = FitnessManager.nameKey(name);
+        List<T> bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        if (bucket.size() == 1) {
+            if (bucket.get(0) == item) {
+                buckets.remove(key);
+            }
+            return;
+        }
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == item) {
+                bucket.remove(i);
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package model;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+// A spliterator over the indexes [from, to) of an immutable random-access list (e.g. a list of a
+// FitnessSnapshot), for aggregating it in parallel. It splits its range in halves as long as each half keeps at
+// least grain indexes, so every forked task has enough work to pay for itself, and it reports exact sizes and
+// encounter order, so partial results can be merged back in the order a sequential pass would see them.
+final class RangeSpliterator implements Spliterator.OfInt {
+    private int from;
+    private final int to;
+    private final int grain;
+
+    // REQUIRES: 0 <= from <= to & grain > 0
+    // EFFECTS: constructs a spliterator over the indexes from (inclusive) to to (exclusive)
+    RangeSpliterator(int from, int to, int grain) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(from++);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+        int end = to;
+        for (int i = from; i < end; i++) {
+            action.accept(i);
+        }
+        from = end;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+        int half = (to - from) >>> 1;
+        if (half < grain) {
+            return null;
+        }
+        int mid = from + half;
+        RangeSpliterator prefix = new RangeSpliterator(from, mid, grain);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT;
+    }
+}
@@ -0,0 +1,490 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Represents an in-memory index for finding items (e.g. exercises) from what has been typed so far. Every word
+// of an item's name and detail (e.g. the target muscle of an exercise) goes into a prefix trie, and an item
+// matches a query if each word of the query starts a word of the item. When that finds fewer items than were
+// asked for, the query is matched again fuzzily: each query word then also matches the words that share most
+// of its trigrams, so a typo still finds something.
+// Results are ranked: an exact name first, then names that start with the query, then other prefix matches,
+// then fuzzy matches by similarity; ties go to shorter names. A query only looks at the postings of the words
+// it matches, never at every item.
+public class SearchIndex<T> {
+    private static final int MAX_QUERY_WORDS = 63;     // query words beyond this are ignored
+    private static final int MIN_FUZZY_LENGTH = 3;     // shorter query words are only matched by prefix
+    private static final int MIN_SIMILARITY = 30;      // percent of trigrams a fuzzy match must share (Dice)
+    private static final int EXACT = 100;              // similarity of a prefix match
+
+    private final Function<T, String> name;
+    private final Function<T, String> detail;
+    private Node root = new Node();
+    private final Map<String, Integer> vocabulary = new HashMap<>();   // word -> word id
+    private final IntList wordTrigrams = new IntList();                // word id -> number of its trigrams
+    private final List<IntList> postings = new ArrayList<>();          // word id -> ids of items with it
+    private final Map<String, IntList> trigrams = new HashMap<>();     // trigram -> ids of words with it
+    private final Map<T, Integer> ids = new IdentityHashMap<>();       // item -> item id
+    private final IntList free = new IntList();                        // item ids of removed items
+    private Object[] items = new Object[16];   // item id -> item, or null if the id is free
+    private String[] names = new String[16];   // item id -> FitnessManager.nameKey of its name
+    private int[] nameLengths = new int[16];   // item id -> length of that, at most 0xFFFF
+    private int[][] itemWords = new int[16][]; // item id -> ids of its words
+    private int count;
+    private Query scratch = new Query(16);     // reused by every query
+
+    // EFFECTS: constructs an empty index of items found by the words of name and of detail
+    public SearchIndex(Function<T, String> name, Function<T, String> detail) {
+        this.name = name;
+        this.detail = detail;
+    }
+
+    // EFFECTS: returns the number of items indexed
+    public int size() {
+        return ids.size();
+    }
+
+    // REQUIRES: item is not indexed yet
+    // MODIFIES: this
+    // EFFECTS: indexes item under its name and detail as they are now
+    public void add(T item) {
+        int id = free.size > 0 ? free.pop() : count++;
+        if (id == items.length) {
+            int capacity = items.length * 2;
+            items = Arrays.copyOf(items, capacity);
+            names = Arrays.copyOf(names, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            itemWords = Arrays.copyOf(itemWords, capacity);
+        }
+        ids.put(item, id);
+        items[id] = item;
+        index(item, id);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops finding item; does nothing if it is not indexed
+    public void remove(T item) {
+        Integer id = ids.remove(item);
+        if (id != null) {
+            unindex(id);
+            items[id] = null;
+            free.add(id);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes item again after its name or detail changed; does nothing if it is not indexed
+    public void update(T item) {
+        Integer id = ids.get(item);
+        if (id != null) {
+            unindex(id);
+            index(item, id);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every item, and every word and trigram with them
+    public void clear() {
+        root = new Node();
+        vocabulary.clear();
+        wordTrigrams.size = 0;
+        postings.clear();
+        trigrams.clear();
+        ids.clear();
+        free.size = 0;
+        items = new Object[16];
+        names = new String[16];
+        nameLengths = new int[16];
+        itemWords = new int[16][];
+        count = 0;
+    }
+
+    // EFFECTS: returns at most limit items matching query, best first; nothing if query has no words
+    public List<T> search(String query, int limit) {
+        String[] words = words(query);
+        if (words.length > MAX_QUERY_WORDS) {
+            words = Arrays.copyOf(words, MAX_QUERY_WORDS);
+        }
+        if (words.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Ranking ranking = new Ranking(limit);
+        String key = FitnessManager.nameKey(query);
+        match(words, key, false, ranking);
+        if (ranking.size < limit) {
+            match(words, key, true, ranking);
+        }
+        return ranking.items();
+    }
+
+    // EFFECTS: returns the words of text: its runs of letters and digits, in lower case
+    static String[] words(String text) {
+        List<String> words = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean inWord = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds item id to the postings of the words of item's name and detail
+    private void index(T item, int id) {
+        String itemName = name.apply(item);
+        names[id] = FitnessManager.nameKey(itemName);
+        nameLengths[id] = Math.min(names[id].length(), 0xFFFF);
+        Set<String> all = new LinkedHashSet<>(Arrays.asList(words(itemName)));
+        all.addAll(Arrays.asList(words(detail.apply(item))));
+        int[] wordIds = new int[all.size()];
+        int i = 0;
+        for (String w : all) {
+            wordIds[i] = wordId(w);
+            postings.get(wordIds[i++]).add(id);
+        }
+        itemWords[id] = wordIds;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes item id from the postings of its words
+    private void unindex(int id) {
+        for (int w : itemWords[id]) {
+            postings.get(w).removeValue(id);
+        }
+        itemWords[id] = null;
+        names[id] = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the id of word, adding it to the trie and the trigram postings if it is new
+    private int wordId(String word) {
+        Integer known = vocabulary.get(word);
+        if (known != null) {
+            return known;
+        }
+        int id = postings.size();
+        vocabulary.put(word, id);
+        postings.add(new IntList());
+        root.insert(word, 0, id);
+        Set<String> own = trigramsOf(word);
+        wordTrigrams.add(own.size());
+        for (String trigram : own) {
+            trigrams.computeIfAbsent(trigram, k -> new IntList()).add(id);
+        }
+        return id;
+    }
+
+    // EFFECTS: returns the distinct trigrams of word, padded so that its start and end count as well
+    private static Set<String> trigramsOf(String word) {
+        String padded = "  " + word + " ";
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    // MODIFIES: ranking
+    // EFFECTS: offers ranking the items that match every word of words, by prefix or, if fuzzy, also by
+    //          trigrams; the fuzzy pass skips items that matched by prefix alone, as the first pass found them
+    private void match(String[] words, String key, boolean fuzzy, Ranking ranking) {
+        Query q = query();
+        for (int t = 0; t < words.length; t++) {
+            WordMatches matches = matchingWords(words[t], fuzzy);
+            if (matches.size == 0) {
+                return;
+            }
+            for (int m = 0; m < matches.size; m++) {
+                IntList withWord = postings.get(matches.words[m]);
+                for (int p = 0; p < withWord.size; p++) {
+                    q.mark(withWord.values[p], t, matches.similarities[m]);
+                }
+            }
+        }
+        for (int c = 0; c < q.candidates.size; c++) {
+            int id = q.candidates.values[c];
+            int similarity = q.similarity(id, words.length);
+            if (similarity >= 0 && (similarity < EXACT || !fuzzy) && ranking.mayKeep(bestScore(id, key.length()))) {
+                ranking.offer(score(id, key, similarity));
+            }
+        }
+    }
+
+    // EFFECTS: returns the best score item id could have for a query whose key has keyLength characters,
+    //          worked out without looking at its name: only a name of that length can be exact
+    private long bestScore(int id, int keyLength) {
+        long rank = nameLengths[id] == keyLength ? 0 : 1;
+        return rank << 48 | (long) nameLengths[id] << 32 | id;
+    }
+
+    // EFFECTS: returns the score of item id, lower being better: its rank, then the length of its name, then
+    //          its id (which the score ends with)
+    private long score(int id, String key, int similarity) {
+        long rank;
+        if (similarity < EXACT) {
+            rank = 3L * 128 + (EXACT - similarity);
+        } else if (names[id].equals(key)) {
+            rank = 0;
+        } else {
+            rank = names[id].startsWith(key) ? 1 : 2;
+        }
+        return rank << 48 | (long) nameLengths[id] << 32 | id;
+    }
+
+    // EFFECTS: returns the words that start with word and, if fuzzy and word is long enough, those that share
+    //          at least MIN_SIMILARITY percent of its trigrams
+    private WordMatches matchingWords(String word, boolean fuzzy) {
+        WordMatches matches = new WordMatches();
+        Node node = root.find(word, 0);
+        if (node != null) {
+            node.collect(matches);
+        }
+        if (fuzzy && word.length() >= MIN_FUZZY_LENGTH) {
+            addSimilarWords(word, matches);
+        }
+        return matches;
+    }
+
+    // MODIFIES: matches
+    // EFFECTS: adds the words that share at least MIN_SIMILARITY percent of the trigrams of word and are not
+    //          in matches yet, with their similarity
+    private void addSimilarWords(String word, WordMatches matches) {
+        Set<String> own = trigramsOf(word);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : own) {
+            IntList with = trigrams.get(trigram);
+            for (int i = 0; with != null && i < with.size; i++) {
+                shared.merge(with.values[i], 1, Integer::sum);
+            }
+        }
+        Set<Integer> already = new HashSet<>();
+        for (int i = 0; i < matches.size; i++) {
+            already.add(matches.words[i]);
+        }
+        for (Map.Entry<Integer, Integer> e : shared.entrySet()) {
+            int others = wordTrigrams.values[e.getKey()];
+            int similarity = 200 * e.getValue() / (own.size() + others);
+            if (similarity >= MIN_SIMILARITY && !already.contains(e.getKey())) {
+                matches.add(e.getKey(), Math.min(similarity, EXACT - 1));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the scratch space of a new query, big enough for every item id
+    private Query query() {
+        boolean exhausted = scratch.base > Integer.MAX_VALUE - 2 * (MAX_QUERY_WORDS + 1);
+        if (scratch.progress.length < items.length || exhausted) {
+            scratch = new Query(items.length);
+        }
+        scratch.start();
+        return scratch;
+    }
+
+    // A node of the prefix trie of words: its children by next character, and the id of the word ending here
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int word = -1;
+
+        // MODIFIES: this
+        // EFFECTS: adds word from character i on below this node, ending at a node that holds id
+        void insert(String w, int i, int id) {
+            if (i == w.length()) {
+                word = id;
+                return;
+            }
+            Node child = child(w.charAt(i));
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = w.charAt(i);
+                children[children.length - 1] = child;
+            }
+            child.insert(w, i + 1, id);
+        }
+
+        // EFFECTS: returns the node reached by following w from character i on, or null if there is none
+        Node find(String w, int i) {
+            Node node = this;
+            for (; node != null && i < w.length(); i++) {
+                node = node.child(w.charAt(i));
+            }
+            return node;
+        }
+
+        // MODIFIES: matches
+        // EFFECTS: adds every word ending at or below this node to matches, as an exact match
+        void collect(WordMatches matches) {
+            if (word >= 0) {
+                matches.add(word, EXACT);
+            }
+            for (Node child : children) {
+                child.collect(matches);
+            }
+        }
+
+        // EFFECTS: returns the child for c, or null
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    // The words one query word matches, with how similar each is to it (EXACT for a prefix match)
+    private static final class WordMatches {
+        int[] words = new int[8];
+        int[] similarities = new int[8];
+        int size;
+
+        // MODIFIES: this
+        // EFFECTS: adds word with the given similarity
+        void add(int word, int similarity) {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, size * 2);
+                similarities = Arrays.copyOf(similarities, size * 2);
+            }
+            words[size] = word;
+            similarities[size++] = similarity;
+        }
+    }
+
+    // Scratch space of one query, indexed by item id. Entries are stamped with base, which grows with every
+    // query, so nothing needs clearing between queries.
+    private static final class Query {
+        final int[] progress;  // base + number of query words matched, if at least base
+        final int[] minSim;    // lowest similarity over the query words before the current one
+        final int[] curSim;    // best similarity for the current query word
+        final IntList candidates = new IntList();
+        int base = -(MAX_QUERY_WORDS + 1);
+
+        Query(int capacity) {
+            progress = new int[capacity];
+            minSim = new int[capacity];
+            curSim = new int[capacity];
+            Arrays.fill(progress, Integer.MIN_VALUE);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: starts a new query
+        void start() {
+            base += MAX_QUERY_WORDS + 1;
+            candidates.size = 0;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records that query word t matched a word of item id with the given similarity, if the item
+        //          matched every query word before t
+        void mark(int id, int t, int similarity) {
+            int matched = progress[id] >= base ? progress[id] - base : 0;
+            if (matched == t) {
+                if (t == 0) {
+                    candidates.add(id);
+                    minSim[id] = EXACT;
+                } else {
+                    minSim[id] = Math.min(minSim[id], curSim[id]);
+                }
+                curSim[id] = similarity;
+                progress[id] = base + t + 1;
+            } else if (matched == t + 1) {
+                curSim[id] = Math.max(curSim[id], similarity);
+            }
+        }
+
+        // EFFECTS: returns how similar item id is to a query of n words, or -1 if it did not match them all
+        int similarity(int id, int n) {
+            return progress[id] == base + n ? Math.min(minSim[id], curSim[id]) : -1;
+        }
+    }
+
+    // The best limit items seen so far, by score
+    private final class Ranking {
+        final long[] scores;
+        int size;
+
+        Ranking(int limit) {
+            scores = new long[limit];
+        }
+
+        // EFFECTS: returns true if an item whose score is at least score could be kept
+        boolean mayKeep(long score) {
+            return size < scores.length || score < scores[size - 1];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: keeps the item score is for if it is among the best limit seen so far
+        void offer(long score) {
+            if (size == scores.length && score >= scores[size - 1]) {
+                return;
+            }
+            int i = size < scores.length ? size++ : size - 1;
+            for (; i > 0 && scores[i - 1] > score; i--) {
+                scores[i] = scores[i - 1];
+            }
+            scores[i] = score;
+        }
+
+        // EFFECTS: returns the items kept, best first
+        @SuppressWarnings("unchecked")
+        List<T> items() {
+            List<T> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add((T) items[(int) scores[i]]);
+            }
+            return result;
+        }
+    }
+
+    // A growable list of ints
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        // MODIFIES: this
+        // EFFECTS: adds value at the end
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes the first occurrence of value, if any, moving the last value into its place
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        // REQUIRES: size > 0
+        // MODIFIES: this
+        // EFFECTS: removes and returns the last value
+        int pop() {
+            return values[--size];
+        }
+    }
+}
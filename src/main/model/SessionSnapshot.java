@@ -0,0 +1,71 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import persistence.Writable;
+
+// Represents a training session as it was when a FitnessSnapshot was taken: its id, name and the number of
+// sets of each of its exercises, in the session's own order. Immutable, so it can be shared between snapshots
+// and read from any thread.
+public final class SessionSnapshot implements Writable {
+    private final long id;
+    private final String name;
+    private final Map<ExerciseSnapshot, Integer> exerciseSets;
+
+    // MODIFIES: the exercises of session
+    // EFFECTS: constructs a snapshot of the current name and entries of session, sharing the cached snapshots
+    //          of its exercises
+    SessionSnapshot(TrainingSession session) {
+        this(session, Exercise::snapshot);
+    }
+
+    // EFFECTS: constructs a snapshot of the current name and entries of session, taking the snapshot of each
+    //          exercise from snapshots
+    SessionSnapshot(TrainingSession session, Function<Exercise, ExerciseSnapshot> snapshots) {
+        Map<ExerciseSnapshot, Integer> sets = new LinkedHashMap<>(session.getExerciseSets().size() * 4 / 3 + 1);
+        for (Map.Entry<Exercise, Integer> entry : session.getExerciseSets().entrySet()) {
+            sets.put(snapshots.apply(entry.getKey()), entry.getValue());
+        }
+        this.id = session.getId();
+        this.name = session.getName();
+        this.exerciseSets = Collections.unmodifiableMap(sets);
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("id", id);
+        json.put("name", name);
+
+        JSONArray exercisesArray = new JSONArray();
+        for (Map.Entry<ExerciseSnapshot, Integer> entry : exerciseSets.entrySet()) {
+            JSONObject exerciseJson = entry.getKey().toJson();
+            exerciseJson.put("sets", entry.getValue());
+            exercisesArray.put(exerciseJson);
+        }
+
+        json.put("exerciseSets", exercisesArray);
+        return json;
+    }
+
+    // EFFECTS: returns the id of the training session
+    public long getId() {
+        return id;
+    }
+
+    // EFFECTS: returns name of training session
+    public String getName() {
+        return name;
+    }
+
+    // EFFECTS: returns the read-only map of the session's exercises to their sets
+    public Map<ExerciseSnapshot, Integer> getExerciseSets() {
+        return exerciseSets;
+    }
+}
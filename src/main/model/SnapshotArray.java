@@ -0,0 +1,136 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// An array of immutable snapshots of the elements of a list, kept in the same order as the list, that can be
+// frozen into a read-only List in O(1). Frozen lists share the array, so the next change that would overwrite
+// or shift one of its entries copies it first (copy-on-write); appending needs no copy, as a frozen list never
+// looks past its own size. Each element has a slot that remembers where it sits, so replacing the snapshot of
+// an element is O(1). An insertion or removal shifts the elements after it, and their slots are only brought up
+// to date when one of them is next replaced, in time proportional to the shift (not to the whole list).
+final class SnapshotArray<E, S> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<E, Slot> positions = new IdentityHashMap<>(); // element -> its slot
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    private Slot[] slots = new Slot[INITIAL_CAPACITY]; // slots[i] is the slot of the element at index i
+    private int size;
+    private int staleFrom; // slots[i].index is i for every i < staleFrom
+    private boolean shared; // true if a frozen list may be reading items
+
+    // REQUIRES: element was just inserted into the list this array follows at index, and is in it only once
+    // MODIFIES: this
+    // EFFECTS: inserts the snapshot of element at index
+    void added(E element, int index, S snapshot) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            slots = Arrays.copyOf(slots, size * 2);
+            shared = false;
+        } else if (index < size) {
+            own();
+        }
+        System.arraycopy(items, index, items, index + 1, size - index);
+        System.arraycopy(slots, index, slots, index + 1, size - index);
+        Slot slot = new Slot(index);
+        items[index] = snapshot;
+        slots[index] = slot;
+        positions.put(element, slot);
+        if (staleFrom == size && index == size) {
+            staleFrom++; // appended: nothing shifted
+        } else {
+            staleFrom = Math.min(staleFrom, index);
+        }
+        size++;
+    }
+
+    // REQUIRES: element was just removed from the list at index
+    // MODIFIES: this
+    // EFFECTS: removes the snapshot at index
+    void removed(E element, int index) {
+        own();
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+        items[--size] = null;
+        slots[size] = null;
+        positions.remove(element);
+        staleFrom = Math.min(staleFrom, index);
+    }
+
+    // REQUIRES: element is in the list
+    // MODIFIES: this
+    // EFFECTS: replaces the snapshot of element and returns its index
+    int updated(E element, S snapshot) {
+        own();
+        int index = position(element);
+        items[index] = snapshot;
+        return index;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a read-only list of the snapshots as they are now, which later changes do not affect
+    List<S> freeze() {
+        shared = true;
+        return new Frozen<>(items, size);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies items if a frozen list may be reading them, so they can be changed in place
+    private void own() {
+        if (shared) {
+            items = items.clone();
+            shared = false;
+        }
+    }
+
+    // REQUIRES: element is in the list
+    // MODIFIES: this
+    // EFFECTS: returns the index of element, first bringing the slots shifted since they were last up to date
+    //          up to date if element's may be one of them
+    private int position(E element) {
+        Slot slot = positions.get(element);
+        if (slot.index >= staleFrom) {
+            for (int i = staleFrom; i < size; i++) {
+                slots[i].index = i;
+            }
+            staleFrom = size;
+        }
+        return slot.index;
+    }
+
+    // Where one element sits in the list, as of the last time it was brought up to date
+    private static final class Slot {
+        int index;
+
+        Slot(int index) {
+            this.index = index;
+        }
+    }
+
+    // A read-only view of the first size items of an array that is no longer changed in place
+    private static final class Frozen<S> extends AbstractList<S> implements RandomAccess {
+        private final Object[] items;
+        private final int size;
+
+        Frozen(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public S get(int index) {
+            return (S) items[Objects.checkIndex(index, size)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.ObjIntConsumer;
+
+// An ArrayList-backed list that reports every element added to or removed from it, and where, so an owner
+// can keep secondary indexes in sync even when callers mutate the list they got from a getter directly
+class TrackedList<E> extends AbstractList<E> implements RandomAccess {
+    private final List<E> elements;
+    private final ObjIntConsumer<E> onAdd;
+    private final ObjIntConsumer<E> onRemove;
+
+    // EFFECTS: constructs an empty list that calls onAdd/onRemove with each element added/removed and the
+    //          index it was added at/removed from
+    TrackedList(ObjIntConsumer<E> onAdd, ObjIntConsumer<E> onRemove) {
+        this.elements = new ArrayList<>();
+        this.onAdd = onAdd;
+        this.onRemove = onRemove;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        modCount++;
+        onAdd.accept(element, index);
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E old = elements.set(index, element);
+        onRemove.accept(old, index);
+        onAdd.accept(element, index);
+        return old;
+    }
+
+    @Override
+    public E remove(int index) {
+        E old = elements.remove(index);
+        modCount++;
+        onRemove.accept(old, index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        List<E> removed = new ArrayList<>(elements);
+        elements.clear();
+        modCount++;
+        for (E e : removed) {
+            onRemove.accept(e, 0); // as if removed from the front one at a time
+        }
+    }
+}
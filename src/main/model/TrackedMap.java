@@ -0,0 +1,132 @@
+package model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// A HashMap-backed map that reports every key added to or removed from it, and every key whose value
+// changes, so an owner can keep secondary indexes in sync even when callers mutate the map they got from
+// a getter directly
+class TrackedMap<K, V> extends AbstractMap<K, V> {
+    private final Map<K, V> entries;
+    private final Consumer<K> onAdd;
+    private final Consumer<K> onRemove;
+    private final Consumer<K> onUpdate;
+
+    // EFFECTS: constructs an empty map that calls onAdd/onRemove for each key added/removed and onUpdate
+    //          for each existing key given a different value
+    TrackedMap(Consumer<K> onAdd, Consumer<K> onRemove, Consumer<K> onUpdate) {
+        this.entries = new HashMap<>();
+        this.onAdd = onAdd;
+        this.onRemove = onRemove;
+        this.onUpdate = onUpdate;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public V get(Object key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        boolean added = !entries.containsKey(key);
+        V old = entries.put(key, value);
+        if (added) {
+            onAdd.accept(key);
+        } else if (!Objects.equals(old, value)) {
+            onUpdate.accept(key);
+        }
+        return old;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (!entries.containsKey(key)) {
+            return null;
+        }
+        V old = entries.remove(key);
+        onRemove.accept((K) key);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        List<K> removed = new ArrayList<>(entries.keySet());
+        entries.clear();
+        removed.forEach(onRemove);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                Iterator<Map.Entry<K, V>> it = entries.entrySet().iterator();
+                return new Iterator<>() {
+                    private K last;
+
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        Map.Entry<K, V> entry = it.next();
+                        last = entry.getKey();
+                        return new TrackedEntry(entry);
+                    }
+
+                    @Override
+                    public void remove() {
+                        it.remove();
+                        onRemove.accept(last);
+                    }
+                };
+            }
+        };
+    }
+
+    // An entry handed out by the entry set iterator; setValue writes through and reports the update
+    private class TrackedEntry extends SimpleEntry<K, V> {
+        private final Map.Entry<K, V> entry;
+
+        TrackedEntry(Map.Entry<K, V> entry) {
+            super(entry);
+            this.entry = entry;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = entry.setValue(value);
+            super.setValue(value);
+            if (!Objects.equals(old, value)) {
+                onUpdate.accept(getKey());
+            }
+            return old;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package model;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -10,20 +10,35 @@ import persistence.Writable;
 
 // Represents a training session having a name and a map of exercises to their
 // corresponding number of sets, where the key is an Exercise object and the
-// value is the number of sets that the specific exercise should be executed for
+// value is the number of sets that the specific exercise should be executed for.
+// Like an exercise, every session has an immutable id that survives renames.
 public class TrainingSession implements Writable {
+    private static final AtomicLong NEXT_ID = new AtomicLong(1); // next id handed out by the constructor
+
+    private final long id;                         // identity key, never changes
     private String name;                           // training session name
     private Map<Exercise, Integer> exerciseSets;   // maps Exercise to its necessary sets
+    private FitnessManager manager;                // manager this session belongs to, or null
 
-    // EFFECTS: initializes a TrainingSession with a name and empty map
+    // EFFECTS: initializes a TrainingSession with a fresh id, a name and empty map
     public TrainingSession(String name) {
+        this(NEXT_ID.getAndIncrement(), name);
+    }
+
+    // REQUIRES: id > 0
+    // EFFECTS: initializes a TrainingSession with a known id (e.g. one read back from a file), a name and
+    //          empty map; ids handed out afterwards are greater than id
+    public TrainingSession(long id, String name) {
+        NEXT_ID.accumulateAndGet(id + 1, Math::max);
+        this.id = id;
         this.name = name;
-        this.exerciseSets = new HashMap<>();
+        this.exerciseSets = new TrackedMap<>(this::exerciseAdded, this::exerciseRemoved, this::setsChanged);
     }
 
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
+        json.put("id", id);
         json.put("name", name);
 
         JSONArray exercisesArray = new JSONArray();
@@ -47,7 +62,8 @@ public class TrainingSession implements Writable {
             exerciseSets.put(exercise, sets);
         }
 
-        EventLog.getInstance().logEvent(new Event("Added " + exercise.getName() + " to " + name + "!"));
+        EventLog.getInstance().logEvent(new Event(EventKind.SESSION_EXERCISE_ADDED, exercise.getName(), name,
+                null, 0));
     }
 
     // MODIFIES: this
@@ -55,7 +71,8 @@ public class TrainingSession implements Writable {
     public void removeExercise(Exercise exercise) {
         exerciseSets.remove(exercise);
 
-        EventLog.getInstance().logEvent(new Event("Removed " + exercise.getName() + " from " + name + "!"));
+        EventLog.getInstance().logEvent(new Event(EventKind.SESSION_EXERCISE_REMOVED, exercise.getName(), name,
+                null, 0));
     }
 
     // MODIFIES: this
@@ -63,11 +80,16 @@ public class TrainingSession implements Writable {
     public void clearSession() {
         exerciseSets.clear();
 
-        EventLog.getInstance().logEvent(new Event("Cleared session " + name + "!"));
+        EventLog.getInstance().logEvent(new Event(EventKind.SESSION_CLEARED, null, name, null, 0));
     }
 
     // GETTERS:
 
+    // EFFECTS: returns the immutable id of the training session
+    public long getId() {
+        return id;
+    }
+
     // EFFECTS: returns name of training session
     public String getName() {
         return name;
@@ -80,8 +102,42 @@ public class TrainingSession implements Writable {
 
     // SETTERS:
 
+    // MODIFIES: this
+    // EFFECTS: sets the training session name
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        if (manager != null) {
+            manager.sessionRenamed(this, oldName);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the manager this session belongs to (null when removed), so renames and exercise
+    //          changes reach its indexes
+    void setManager(FitnessManager manager) {
+        this.manager = manager;
+    }
+
+    // EFFECTS: tells the owning manager (if any) that exercise was just added to this session
+    private void exerciseAdded(Exercise exercise) {
+        if (manager != null) {
+            manager.exerciseAddedToSession(this, exercise);
+        }
+    }
+
+    // EFFECTS: tells the owning manager (if any) that exercise was just removed from this session
+    private void exerciseRemoved(Exercise exercise) {
+        if (manager != null) {
+            manager.exerciseRemovedFromSession(this, exercise);
+        }
+    }
+
+    // EFFECTS: tells the owning manager (if any) that the number of sets of exercise just changed
+    private void setsChanged(Exercise exercise) {
+        if (manager != null) {
+            manager.exerciseSetsChanged(this, exercise);
+        }
     }
 
 }
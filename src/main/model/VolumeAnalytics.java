@@ -0,0 +1,153 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Represents training volume analytics over the sessions of a FitnessManager: the volume, sets and intensity
+// distribution of every session, of every muscle group (normalized like names) and of every exercise, plus
+// their total. It watches the manager and keeps what each session entry contributed, so a change only moves
+// the contribution of the entries it touched between the stats instead of rescanning the sessions.
+// Stats are updated in place, but those of a session, muscle or exercise are dropped once nothing counts
+// towards them, so ask for them again after a change. Like the manager's listeners, it does not see edits to
+// exercises that are only in sessions.
+public class VolumeAnalytics implements ModelListener {
+    private static final VolumeStats NONE = new VolumeStats(); // returned for anything without entries
+
+    private final Map<TrainingSession, Map<Exercise, Entry>> entries = new HashMap<>(); // what each entry adds
+    private final Map<TrainingSession, VolumeStats> bySession = new HashMap<>();
+    private final Map<String, VolumeStats> byMuscle = new LinkedHashMap<>();           // muscle key -> stats
+    private final Map<Exercise, VolumeStats> byExercise = new HashMap<>();
+    private VolumeStats total = new VolumeStats();
+    private FitnessManager manager;
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the previous manager, if any, and computes the stats of fm and watches it
+    public void watch(FitnessManager fm) {
+        if (manager != null) {
+            manager.removeListener(this);
+        }
+        manager = fm;
+        entries.clear();
+        bySession.clear();
+        byMuscle.clear();
+        byExercise.clear();
+        total = new VolumeStats();
+        for (TrainingSession s : fm.getSessions()) {
+            sessionAdded(s, -1);
+        }
+        fm.addListener(this);
+    }
+
+    // EFFECTS: returns the stats of session s (empty if it has no exercises)
+    public VolumeStats getSessionVolume(TrainingSession s) {
+        return bySession.getOrDefault(s, NONE);
+    }
+
+    // EFFECTS: returns the stats of exercise e over every session containing it
+    public VolumeStats getExerciseVolume(Exercise e) {
+        return byExercise.getOrDefault(e, NONE);
+    }
+
+    // EFFECTS: returns the stats of the session entries whose exercise targets muscle (ignoring case and
+    //          surrounding whitespace)
+    public VolumeStats getMuscleVolume(String muscle) {
+        return byMuscle.getOrDefault(FitnessManager.nameKey(muscle), NONE);
+    }
+
+    // EFFECTS: returns the stats of every muscle group trained in some session, by normalized muscle
+    public Map<String, VolumeStats> getMuscleVolumes() {
+        return Collections.unmodifiableMap(byMuscle);
+    }
+
+    // EFFECTS: returns the stats of all sessions together
+    public VolumeStats getTotalVolume() {
+        return total;
+    }
+
+    @Override
+    public void exerciseUpdated(Exercise exercise, int index) {
+        for (TrainingSession s : manager.getSessionsContaining(exercise)) {
+            sessionExerciseUpdated(s, exercise, s.getExerciseSets().get(exercise));
+        }
+    }
+
+    @Override
+    public void sessionAdded(TrainingSession session, int index) {
+        for (Map.Entry<Exercise, Integer> e : session.getExerciseSets().entrySet()) {
+            sessionExerciseAdded(session, e.getKey(), e.getValue());
+        }
+    }
+
+    @Override
+    public void sessionRemoved(TrainingSession session, int index) {
+        Map<Exercise, Entry> counted = entries.remove(session);
+        if (counted != null) {
+            for (Map.Entry<Exercise, Entry> e : counted.entrySet()) {
+                count(session, e.getKey(), e.getValue(), -1);
+            }
+        }
+    }
+
+    @Override
+    public void sessionExerciseAdded(TrainingSession session, Exercise exercise, int sets) {
+        Entry entry = new Entry(exercise, sets);
+        entries.computeIfAbsent(session, k -> new HashMap<>()).put(exercise, entry);
+        count(session, exercise, entry, 1);
+    }
+
+    @Override
+    public void sessionExerciseRemoved(TrainingSession session, Exercise exercise) {
+        Map<Exercise, Entry> counted = entries.get(session);
+        Entry entry = counted == null ? null : counted.remove(exercise);
+        if (entry != null) {
+            count(session, exercise, entry, -1);
+            if (counted.isEmpty()) {
+                entries.remove(session);
+            }
+        }
+    }
+
+    @Override
+    public void sessionExerciseUpdated(TrainingSession session, Exercise exercise, int sets) {
+        sessionExerciseRemoved(session, exercise);
+        sessionExerciseAdded(session, exercise, sets);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts entry (exercise in session) in (sign 1) or out (sign -1) of the stats it belongs to,
+    //          dropping the stats that no longer count any entry
+    private void count(TrainingSession session, Exercise exercise, Entry entry, int sign) {
+        total.add(entry, sign);
+        addTo(bySession, session, entry, sign);
+        addTo(byMuscle, entry.muscle, entry, sign);
+        addTo(byExercise, exercise, entry, sign);
+    }
+
+    // MODIFIES: stats
+    // EFFECTS: counts entry in or out of the stats of key in stats
+    private static <K> void addTo(Map<K, VolumeStats> stats, K key, Entry entry, int sign) {
+        VolumeStats s = stats.computeIfAbsent(key, k -> new VolumeStats());
+        s.add(entry, sign);
+        if (s.isEmpty()) {
+            stats.remove(key);
+        }
+    }
+
+    // What one exercise in one session contributes, as it was when last counted, so it can be taken back out
+    // after the exercise changed
+    static final class Entry {
+        final String muscle;   // normalized target muscle
+        final int sets;
+        final int reps;
+        final int weight;
+
+        Entry(Exercise e, int sets) {
+            this.muscle = FitnessManager.nameKey(e.getTargetMuscle());
+            this.sets = sets;
+            this.reps = e.getReps();
+            this.weight = e.getWeight();
+        }
+    }
+}
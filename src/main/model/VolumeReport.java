@@ -0,0 +1,204 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.StreamSupport;
+
+// Represents volume analytics computed from scratch over a whole FitnessSnapshot, e.g. for an export over
+// hundreds of thousands of sessions: the total volume, the volume per muscle, the number of library exercises
+// per muscle, and the sessions with the most volume. Unlike VolumeAnalytics it is not kept up to date; take a
+// new snapshot and report instead.
+// A report can be computed in parallel on a ForkJoinPool: the snapshot's lists are split into index ranges
+// (RangeSpliterator), each range is aggregated on its own, and the partial results are merged in encounter
+// order. Every figure is an exact integer sum, muscles keep the order they are first met in, and sessions
+// with equal volume are ranked by position, so a parallel report always equals the sequential one.
+public final class VolumeReport {
+    private static final int GRAIN = 1024; // fewest sessions or exercises a parallel task aggregates
+
+    // sessions ranked by volume, most first, then by position in the snapshot
+    private static final Comparator<SessionVolume> RANK =
+            Comparator.comparingLong(SessionVolume::getVolume).reversed()
+                    .thenComparingInt(SessionVolume::getPosition);
+
+    private final VolumeStats total;
+    private final Map<String, VolumeStats> byMuscle;         // normalized muscle -> stats, in encounter order
+    private final Map<String, Integer> libraryMuscleCounts;  // normalized muscle -> library exercises
+    private final List<SessionVolume> topSessions;
+
+    private VolumeReport(Sessions sessions, Map<String, Integer> libraryMuscleCounts) {
+        this.total = sessions.total;
+        this.byMuscle = Collections.unmodifiableMap(sessions.byMuscle);
+        this.libraryMuscleCounts = Collections.unmodifiableMap(libraryMuscleCounts);
+        List<SessionVolume> top = new ArrayList<>(sessions.top);
+        top.sort(RANK);
+        this.topSessions = Collections.unmodifiableList(top);
+    }
+
+    // REQUIRES: topN >= 0
+    // EFFECTS: returns the report of snapshot, with its topN sessions with the most volume, computed on the
+    //          calling thread
+    public static VolumeReport of(FitnessSnapshot snapshot, int topN) {
+        return compute(snapshot, topN, false);
+    }
+
+    // REQUIRES: topN >= 0
+    // EFFECTS: returns the same report as of(snapshot, topN), computed in parallel by the threads of pool
+    public static VolumeReport of(FitnessSnapshot snapshot, int topN, ForkJoinPool pool) {
+        return pool.submit(() -> compute(snapshot, topN, true)).join();
+    }
+
+    // EFFECTS: returns the volume of all sessions together
+    public VolumeStats getTotal() {
+        return total;
+    }
+
+    // EFFECTS: returns the volume per normalized muscle, in the order the muscles are first met in the sessions
+    public Map<String, VolumeStats> getMuscleVolumes() {
+        return byMuscle;
+    }
+
+    // EFFECTS: returns the number of library exercises per normalized muscle, in library order
+    public Map<String, Integer> getLibraryMuscleCounts() {
+        return libraryMuscleCounts;
+    }
+
+    // EFFECTS: returns the sessions with the most volume, most first; sessions with equal volume are ranked by
+    //          their position in the snapshot
+    public List<SessionVolume> getTopSessions() {
+        return topSessions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof VolumeReport)) {
+            return false;
+        }
+        VolumeReport other = (VolumeReport) o;
+        return total.equals(other.total) && byMuscle.equals(other.byMuscle)
+                && List.copyOf(byMuscle.keySet()).equals(List.copyOf(other.byMuscle.keySet()))
+                && libraryMuscleCounts.equals(other.libraryMuscleCounts) && topSessions.equals(other.topSessions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, byMuscle, topSessions);
+    }
+
+    // EFFECTS: aggregates the sessions and the library of snapshot, in parallel if parallel is true
+    private static VolumeReport compute(FitnessSnapshot snapshot, int topN, boolean parallel) {
+        List<SessionSnapshot> sessions = snapshot.getSessions();
+        Sessions aggregated = StreamSupport.intStream(new RangeSpliterator(0, sessions.size(), GRAIN), parallel)
+                .collect(() -> new Sessions(topN), (acc, i) -> acc.add(i, sessions.get(i)), Sessions::merge);
+
+        List<ExerciseSnapshot> exercises = snapshot.getExercises();
+        Map<String, Integer> counts = StreamSupport.intStream(new RangeSpliterator(0, exercises.size(), GRAIN),
+                parallel).collect(LinkedHashMap::new, (acc, i) -> countMuscle(acc, exercises.get(i)),
+                    (left, right) -> right.forEach((muscle, n) -> left.merge(muscle, n, Integer::sum)));
+        return new VolumeReport(aggregated, counts);
+    }
+
+    // MODIFIES: counts
+    // EFFECTS: counts e towards the exercises of its target muscle
+    private static void countMuscle(Map<String, Integer> counts, ExerciseSnapshot e) {
+        counts.merge(FitnessManager.nameKey(e.getTargetMuscle()), 1, Integer::sum);
+    }
+
+    // Represents the volume of one session of a snapshot
+    public static final class SessionVolume {
+        private final SessionSnapshot session;
+        private final int position;
+        private final long volume;
+
+        SessionVolume(SessionSnapshot session, int position, long volume) {
+            this.session = session;
+            this.position = position;
+            this.volume = volume;
+        }
+
+        // EFFECTS: returns the session
+        public SessionSnapshot getSession() {
+            return session;
+        }
+
+        // EFFECTS: returns the index of the session in the snapshot
+        public int getPosition() {
+            return position;
+        }
+
+        // EFFECTS: returns the volume of the session in lbs
+        public long getVolume() {
+            return volume;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SessionVolume)) {
+                return false;
+            }
+            SessionVolume other = (SessionVolume) o;
+            return session == other.session && position == other.position && volume == other.volume;
+        }
+
+        @Override
+        public int hashCode() {
+            return position;
+        }
+    }
+
+    // The aggregate of a range of sessions, which a parallel pass merges with the aggregate of the next range
+    private static final class Sessions {
+        final VolumeStats total = new VolumeStats();
+        final Map<String, VolumeStats> byMuscle = new LinkedHashMap<>();
+        final Map<ExerciseSnapshot, VolumeStats> muscleOf = new IdentityHashMap<>(); // exercise -> muscle stats
+        final PriorityQueue<SessionVolume> top = new PriorityQueue<>(RANK.reversed()); // worst kept one first
+        final int topN;
+
+        Sessions(int topN) {
+            this.topN = topN;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: counts session s, found at position of the snapshot
+        void add(int position, SessionSnapshot s) {
+            long volume = 0;
+            for (Map.Entry<ExerciseSnapshot, Integer> entry : s.getExerciseSets().entrySet()) {
+                ExerciseSnapshot e = entry.getKey();
+                int sets = entry.getValue();
+                total.add(sets, e.getReps(), e.getWeight(), 1);
+                muscleOf.computeIfAbsent(e, k -> byMuscle.computeIfAbsent(
+                        FitnessManager.nameKey(k.getTargetMuscle()), m -> new VolumeStats()))
+                        .add(sets, e.getReps(), e.getWeight(), 1);
+                volume += (long) sets * e.getReps() * e.getWeight();
+            }
+            offer(new SessionVolume(s, position, volume));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: keeps v if it is among the topN best seen so far
+        void offer(SessionVolume v) {
+            if (top.size() < topN) {
+                top.add(v);
+            } else if (topN > 0 && RANK.compare(v, top.peek()) < 0) {
+                top.poll();
+                top.add(v);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the aggregate of the range right after this one
+        void merge(Sessions next) {
+            total.merge(next.total);
+            next.byMuscle.forEach((muscle, stats) -> byMuscle.computeIfAbsent(muscle, k -> new VolumeStats())
+                    .merge(stats));
+            next.top.forEach(this::offer);
+        }
+    }
+}
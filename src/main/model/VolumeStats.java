@@ -0,0 +1,95 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents the training volume of some session entries (an exercise with its number of sets in a session):
+// the volume (sets x reps x weight, in lbs), the number of sets and reps, and how the sets are distributed over
+// the intensity zones. VolumeAnalytics keeps one up to date per session, per muscle and per exercise, so
+// reading it never rescans anything.
+public class VolumeStats {
+    private long volume;
+    private int sets;
+    private long reps;
+    private int entries;                                                   // session entries counted
+    private final int[] setsByZone = new int[IntensityZone.values().length]; // zone ordinal -> sets
+
+    // EFFECTS: returns the total volume in lbs
+    public long getVolume() {
+        return volume;
+    }
+
+    // EFFECTS: returns the total number of sets
+    public int getSets() {
+        return sets;
+    }
+
+    // EFFECTS: returns the total number of reps over all sets
+    public long getReps() {
+        return reps;
+    }
+
+    // EFFECTS: returns the number of sets in zone
+    public int getSets(IntensityZone zone) {
+        return setsByZone[zone.ordinal()];
+    }
+
+    // EFFECTS: returns the average weight lifted per rep in lbs, or 0 if there are no reps
+    public double getAverageWeight() {
+        return reps == 0 ? 0 : (double) volume / reps;
+    }
+
+    // EFFECTS: returns true if no session entry is counted
+    public boolean isEmpty() {
+        return entries == 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts entry in (sign 1) or out (sign -1) of these stats
+    void add(VolumeAnalytics.Entry entry, int sign) {
+        add(entry.sets, entry.reps, entry.weight, sign);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts an entry of sets sets of reps reps at weight lbs in (sign 1) or out (sign -1) of these stats
+    void add(int sets, int reps, int weight, int sign) {
+        volume += sign * (long) sets * reps * weight;
+        this.sets += sign * sets;
+        this.reps += sign * (long) sets * reps;
+        entries += sign;
+        setsByZone[IntensityZone.of(reps).ordinal()] += sign * sets;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts every entry counted by other in these stats too
+    void merge(VolumeStats other) {
+        volume += other.volume;
+        sets += other.sets;
+        reps += other.reps;
+        entries += other.entries;
+        for (int i = 0; i < setsByZone.length; i++) {
+            setsByZone[i] += other.setsByZone[i];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof VolumeStats)) {
+            return false;
+        }
+        VolumeStats other = (VolumeStats) o;
+        return volume == other.volume && sets == other.sets && reps == other.reps && entries == other.entries
+                && Arrays.equals(setsByZone, other.setsByZone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(volume) * 31 + sets;
+    }
+
+    @Override
+    public String toString() {
+        return volume + " lbs over " + sets + " sets (strength " + getSets(IntensityZone.STRENGTH)
+                + ", hypertrophy " + getSets(IntensityZone.HYPERTROPHY)
+                + ", endurance " + getSets(IntensityZone.ENDURANCE) + ")";
+    }
+}
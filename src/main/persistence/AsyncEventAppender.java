@@ -0,0 +1,279 @@
+package persistence;
+
+import model.Event;
+import model.EventSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents an EventSink that appends events to a text file on a background thread. Logging an event only
+// puts it on a bounded queue; the writer thread takes everything that has queued up and writes it with a
+// single write call (group commit), forcing it to disk when sync is on, so a burst of events costs one I/O.
+// A BackPressure policy decides what happens to events logged while the queue is full.
+// Each event becomes one line: the UTC time it was logged (ISO-8601, to the millisecond), a tab, and its
+// description.
+public class AsyncEventAppender implements EventSink, Closeable {
+    private static final int MAX_BATCH = 4096;
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+    private static final Event STOP = new Event("Event writer stopped."); // queued by close()
+    private static final int CLOSED = 1 << 30;    // flag in state once close() has begun
+    private static final long WAIT_MILLIS = 100;  // how often a blocked put checks that the writer still runs
+
+    private final BlockingQueue<Event> queue;
+    private final int capacity;
+    private final BackPressure policy;
+    private final int sampleRate;     // SAMPLE keeps one in this many events near a full queue
+    private final boolean sync;       // true to force every batch to disk
+    private final FileChannel channel;
+    private final Thread writer;
+    private final LongAdder dropped;  // events not written because of back pressure, close or failure
+    private volatile long written;    // events written so far, only updated by the writer thread
+    private final AtomicInteger state = new AtomicInteger(); // CLOSED flag + number of eventLogged calls queueing
+    private volatile IOException failure; // first error the writer thread ran into
+    private long lastSecond = Long.MIN_VALUE; // epoch second whose formatted form is in secondText
+    private String secondText;                // e.g. "2024-03-03T12:30:05", reused for events in lastSecond
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an appender to destination with a queue of capacity events and the given policy,
+    //          sampling one in ten events under SAMPLE and leaving flushing to the OS; starts the writer thread;
+    //          throws IOException if destination cannot be opened
+    public AsyncEventAppender(String destination, int capacity, BackPressure policy) throws IOException {
+        this(destination, capacity, policy, 10, false);
+    }
+
+    // REQUIRES: capacity > 0 & sampleRate > 0
+    // EFFECTS: constructs an appender to destination with a queue of capacity events and the given policy,
+    //          keeping one in sampleRate events under SAMPLE, and forcing each batch to disk if sync;
+    //          starts the writer thread; throws IOException if destination cannot be opened
+    public AsyncEventAppender(String destination, int capacity, BackPressure policy, int sampleRate,
+                              boolean sync) throws IOException {
+        Path path = Paths.get(destination);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.policy = policy;
+        this.sampleRate = sampleRate;
+        this.sync = sync;
+        this.dropped = new LongAdder();
+        this.writer = new Thread(this::run, "event-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // EFFECTS: queues e for the writer thread, applying the back-pressure policy if the queue is full;
+    //          events logged once close() has begun are dropped. Registering in state before queueing lets
+    //          close() wait for every event that got past the check, so none is queued after STOP.
+    @Override
+    public void eventLogged(Event e) {
+        int current;
+        do {
+            current = state.get();
+            if ((current & CLOSED) != 0) {
+                dropped.increment();
+                return;
+            }
+        } while (!state.compareAndSet(current, current + 1));
+        try {
+            if (!enqueue(e)) {
+                dropped.increment();
+            }
+        } finally {
+            state.decrementAndGet();
+        }
+    }
+
+    // EFFECTS: queues e as the back-pressure policy says and returns true, or returns false if it was turned
+    //          away; a blocked put gives up if the writer thread has died, as nothing would make room anymore
+    private boolean enqueue(Event e) {
+        if (policy == BackPressure.BLOCK) {
+            try {
+                return offer(e);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (policy == BackPressure.SAMPLE && queue.remainingCapacity() < capacity / 4
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return false;
+        }
+        return queue.offer(e);
+    }
+
+    // EFFECTS: waits for room on the queue and queues e, returning true, or returns false once the writer
+    //          thread has stopped
+    private boolean offer(Event e) throws InterruptedException {
+        while (!queue.offer(e, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (!writer.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops accepting events, waits for the events being queued and for the writer thread to write
+    //          everything queued, and closes the file; events still queued because the writer thread died are
+    //          counted as dropped. Throws IOException if writing failed at any point
+    @Override
+    public synchronized void close() throws IOException {
+        if ((state.getAndUpdate(current -> current | CLOSED) & CLOSED) == 0) {
+            try {
+                while (state.get() != CLOSED) {
+                    Thread.sleep(1);  // an eventLogged call is still queueing its event
+                }
+                offer(STOP);
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while closing the event log");
+            }
+            dropped.add(queue.stream().filter(e -> e != STOP).count());
+            queue.clear();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: returns the number of events written to the file so far
+    public long getWrittenCount() {
+        return written;
+    }
+
+    // EFFECTS: returns the number of events that were not written: turned away by the back-pressure policy,
+    //          logged after close, or lost to a write error
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: body of the writer thread: writes batches of queued events until close() queues STOP. After a
+    //          write error it keeps taking events (counting them as dropped) so that blocked producers go on.
+    private void run() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder text = new StringBuilder();
+        boolean stop = false;
+        try {
+            while (!stop) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                stop = writeBatch(batch, text);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the events of batch up to STOP in a single write, and returns true if STOP was reached
+    private boolean writeBatch(List<Event> batch, StringBuilder text) {
+        text.setLength(0);
+        int count = 0;
+        boolean stop = false;
+        for (Event e : batch) {
+            if (e == STOP) {
+                stop = true;
+                break;
+            }
+            appendLine(text, e);
+            count++;
+        }
+        if (failure == null && count > 0) {
+            try {
+                write(StandardCharsets.UTF_8.encode(CharBuffer.wrap(text)));
+                written += count;
+                return stop;
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            dropped.add(count);
+        }
+        return stop;
+    }
+
+    // EFFECTS: writes all of bytes to the end of the file, forcing them to disk if sync
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+    }
+
+    // MODIFIES: this, text
+    // EFFECTS: appends the line for e, escaping backslashes and line breaks in its description
+    private void appendLine(StringBuilder text, Event e) {
+        appendTime(text, e.getTimestamp());
+        text.append('\t');
+        String description = e.getDescription();
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (c == '\\') {
+                text.append("\\\\");
+            } else if (c == '\n') {
+                text.append("\\n");
+            } else if (c == '\r') {
+                text.append("\\r");
+            } else {
+                text.append(c);
+            }
+        }
+        text.append('\n');
+    }
+
+    // MODIFIES: this, text
+    // EFFECTS: appends epochMillis as e.g. "2024-03-03T12:30:05.042Z"; the part up to the seconds is only
+    //          formatted once per second, as consecutive events almost always share it
+    private void appendTime(StringBuilder text, long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != lastSecond) {
+            lastSecond = second;
+            secondText = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC).format(SECOND_FORMAT);
+        }
+        int millis = Math.floorMod(epochMillis, 1000);
+        text.append(secondText).append('.');
+        text.append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10))
+                .append((char) ('0' + millis % 10)).append('Z');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file, recording the error if closing fails
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package persistence;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+// The file a save writes to, at a given durability. Except for DIRECT, output goes to a temp file in the
+// destination's directory and commit() moves it over the destination in one step, so the destination
+// always holds either the previous save or the new one, never a partial file. The temp file is given the
+// destination's POSIX permissions first, so replacing the destination does not change who may read it.
+final class AtomicFile {
+    private final String destination; // file path the save ends up at
+    private final Durability durability;
+    private Path target;              // destination, once opened
+    private Path temp;                // file being written, or null when writing the destination in place
+    private FileChannel channel;      // open onto temp (or target)
+
+    // EFFECTS: constructs a save to destination at the given durability
+    AtomicFile(String destination, Durability durability) {
+        this.destination = destination;
+        this.durability = durability;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: creates the file to write to and returns an unbuffered stream onto it;
+    //          throws IOException (FileNotFoundException for an invalid path) if it cannot be created
+    OutputStream open() throws IOException {
+        try {
+            target = Paths.get(destination);
+        } catch (InvalidPathException e) {
+            throw new FileNotFoundException(destination + " (" + e.getReason() + ")");
+        }
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir); // create ./data on first run
+        if (durability == Durability.DIRECT) {
+            channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } else {
+            temp = Files.createTempFile(dir, target.getFileName() + ".", ".tmp");
+            channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+            try {
+                copyPermissions(target, temp);
+            } catch (IOException e) {
+                abort();
+                throw e;
+            }
+        }
+        return Channels.newOutputStream(channel);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finishes the save: forces the written data to disk (SYNC), closes the file and moves it over
+    //          the destination; on failure the destination is left as it was and IOException is thrown
+    void commit() throws IOException {
+        try {
+            if (durability == Durability.SYNC) {
+                channel.force(true);
+            }
+            channel.close();
+            if (temp != null) {
+                moveIntoPlace();
+            }
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: gives up on the save, closing and deleting the temp file; the destination is untouched unless
+    //          writing in place
+    void abort() {
+        try {
+            channel.close();
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // nothing more can be done; the temp file is left behind
+        }
+    }
+
+    // MODIFIES: to
+    // EFFECTS: gives to the POSIX permissions of from, if from exists and the file system has them
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (Files.exists(from) && Files.getFileAttributeView(from, PosixFileAttributeView.class) != null) {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        }
+    }
+
+    // EFFECTS: renames the temp file over the destination, then (SYNC) forces the directory entry to disk
+    private void moveIntoPlace() throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        temp = null;
+        if (durability == Durability.SYNC) {
+            forceDirectory(target.toAbsolutePath().getParent());
+        }
+    }
+
+    // EFFECTS: forces the directory's entries (the rename) to disk where the platform allows it
+    static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // some platforms (Windows) cannot open a directory; the rename is durable once the OS flushes it
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.ModelListener;
+import model.TrainingSession;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Represents an autosave that watches a FitnessManager and saves it through a ChangeJournal on a background
+// thread, appending the changes made since the last save to the journal and only writing a full JSON snapshot
+// when the journal compacts. A burst of changes is debounced into one save, taken once no change has happened
+// for a quiet period (or, during a long stream of changes, at most a maximum delay after the first unsaved
+// one). Changes made while a save is running are coalesced into the next one.
+// The manager is only ever touched on its own thread (e.g. the Swing EDT, through modelThread): that is where
+// changes are reported and framed as journal records, and where a save is taken (the records so far, or an O(1)
+// snapshot for a checkpoint), which the background thread then writes while editing goes on.
+public class AutoSaver implements ModelListener {
+    private final ChangeJournal journal;
+    private final Executor modelThread;   // runs tasks on the thread that owns the manager
+    private final long quietNanos;        // how long changes must stop before a save
+    private final long maxDelayNanos;     // longest a change waits for a save while changes keep coming
+    private final SaveListener listener;  // told about every finished save, on the background thread
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean(); // true while a save is waiting to be taken
+    private FitnessManager manager;
+    private volatile long changes;        // changes seen so far, only counted on the model thread
+    private volatile long snapshotted;    // value of changes when the last save was taken
+    private volatile long firstChangeNanos; // when the first change waiting for a save happened
+    private volatile long lastChangeNanos;  // when the latest change happened
+    private volatile long lastSaveMillis = -1;
+
+    // REQUIRES: quietMillis > 0 & maxDelayMillis >= quietMillis
+    // EFFECTS: constructs an autosave to destination and its journal (destination followed by ".journal"),
+    //          writing as durability says, that saves once changes have stopped for quietMillis, or maxDelayMillis
+    //          after the first unsaved change; modelThread runs tasks on the thread that changes the manager, and
+    //          listener is told about every finished save
+    public AutoSaver(String destination, Durability durability, Executor modelThread, long quietMillis,
+                     long maxDelayMillis, SaveListener listener) {
+        this(new ChangeJournal(destination, destination + ".journal", ChangeJournal.DEFAULT_CHECKPOINT_BYTES,
+                durability), modelThread, quietMillis, maxDelayMillis, listener);
+    }
+
+    // REQUIRES: quietMillis > 0 & maxDelayMillis >= quietMillis, and journal is only used through this autosave
+    // EFFECTS: constructs an autosave through journal, otherwise like the constructor above
+    public AutoSaver(ChangeJournal journal, Executor modelThread, long quietMillis, long maxDelayMillis,
+                     SaveListener listener) {
+        this.journal = journal;
+        this.modelThread = modelThread;
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.listener = listener;
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    // REQUIRES: called on the model thread
+    // MODIFIES: this
+    // EFFECTS: stops watching the previous manager, if any, and watches fm, whose current state counts as saved
+    //          (e.g. because it was just loaded by load); unless fm was just loaded, its first save writes a full
+    //          snapshot
+    public void watch(FitnessManager fm) {
+        if (manager != null) {
+            manager.removeListener(this);
+        }
+        manager = fm;
+        fm.addListener(this);
+        journal.record(fm);
+        snapshotted = changes;
+    }
+
+    // REQUIRES: called on the model thread
+    // MODIFIES: this
+    // EFFECTS: stops watching the manager, if any, forgetting its unsaved changes
+    public void unwatch() {
+        if (manager != null) {
+            manager.removeListener(this);
+            manager = null;
+        }
+        journal.detach();
+        snapshotted = changes;
+    }
+
+    // REQUIRES: not watching a manager; not called on the model thread
+    // MODIFIES: this
+    // EFFECTS: loads the manager through the journal on the background thread, once the saves already started
+    //          have been written, and returns it to be watched; tells progress how much has been read;
+    //          throws IOException if it cannot be read, and InterruptedIOException (cancelling the load) if the
+    //          calling thread is interrupted while waiting
+    public FitnessManager load(ProgressListener progress) throws IOException {
+        Future<FitnessManager> loading = executor.submit(() -> journal.load(progress));
+        try {
+            return loading.get();
+        } catch (InterruptedException e) {
+            loading.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Load cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // REQUIRES: called on the model thread, while watching a manager
+    // MODIFIES: this
+    // EFFECTS: saves the manager as it is now on the background thread, whether or not it changed
+    public void saveNow() {
+        snapshotted = changes;
+        ChangeJournal.PendingSave save = journal.takeSave();
+        executor.execute(() -> save(save));
+    }
+
+    // REQUIRES: called on the model thread
+    // MODIFIES: this
+    // EFFECTS: saves any unsaved changes, waits for the saves already started to finish and stops the
+    //          background thread; throws InterruptedIOException if interrupted while waiting
+    public void close() throws IOException {
+        if (manager != null && changes != snapshotted) {
+            saveNow();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while finishing the last save");
+        }
+    }
+
+    // EFFECTS: returns true if a manager is being watched
+    public boolean isWatching() {
+        return manager != null;
+    }
+
+    // EFFECTS: returns how long the last save took, in milliseconds, or -1 if nothing was saved yet
+    public long getLastSaveMillis() {
+        return lastSaveMillis;
+    }
+
+    // EFFECTS: returns true if the manager changed since the last save was taken
+    public boolean isDirty() {
+        return changes != snapshotted;
+    }
+
+    @Override
+    public void exerciseAdded(Exercise e, int index) {
+        changed();
+    }
+
+    @Override
+    public void exerciseRemoved(Exercise e, int index) {
+        changed();
+    }
+
+    @Override
+    public void exerciseUpdated(Exercise e, int index) {
+        changed();
+    }
+
+    @Override
+    public void sessionAdded(TrainingSession s, int index) {
+        changed();
+    }
+
+    @Override
+    public void sessionRemoved(TrainingSession s, int index) {
+        changed();
+    }
+
+    @Override
+    public void sessionUpdated(TrainingSession s, int index) {
+        changed();
+    }
+
+    @Override
+    public void sessionExerciseAdded(TrainingSession s, Exercise e, int sets) {
+        changed();
+    }
+
+    @Override
+    public void sessionExerciseRemoved(TrainingSession s, Exercise e) {
+        changed();
+    }
+
+    @Override
+    public void sessionExerciseUpdated(TrainingSession s, Exercise e, int sets) {
+        changed();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a change on the model thread, and schedules a save unless one is already waiting
+    private void changed() {
+        changes++;
+        lastChangeNanos = System.nanoTime();
+        if (scheduled.compareAndSet(false, true)) {
+            firstChangeNanos = lastChangeNanos;
+            schedule(quietNanos);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the background thread: takes the save if changes have been quiet long enough or the first
+    //          of them has waited the maximum delay, and otherwise checks again when that will next be so
+    private void tick() {
+        long now = System.nanoTime();
+        long wait = Math.min(lastChangeNanos + quietNanos, firstChangeNanos + maxDelayNanos) - now;
+        if (wait > 0) {
+            schedule(wait);
+        } else {
+            modelThread.execute(this::takeSave);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the model thread: snapshots the manager and hands the snapshot to the background thread to
+    //          write, unless it was saved since the save was scheduled; later changes schedule another save
+    private void takeSave() {
+        scheduled.set(false);
+        if (manager != null && changes != snapshotted && !executor.isShutdown()) {
+            saveNow();
+        }
+    }
+
+    // EFFECTS: runs tick on the background thread after delayNanos, unless closed
+    private void schedule(long delayNanos) {
+        if (!executor.isShutdown()) {
+            executor.schedule(this::tick, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the background thread: writes save and tells the listener how it went
+    private void save(ChangeJournal.PendingSave save) {
+        long start = System.nanoTime();
+        IOException failure = null;
+        try {
+            save.write();
+        } catch (IOException e) {
+            failure = e;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (failure == null) {
+            lastSaveMillis = millis;
+        }
+        listener.saveFinished(millis, failure);
+    }
+}
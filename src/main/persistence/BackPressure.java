@@ -0,0 +1,9 @@
+package persistence;
+
+// What an AsyncEventAppender does with events logged faster than it can write them
+public enum BackPressure {
+    BLOCK,  // wait for room in the queue: nothing is lost, but logging slows down to the speed of the disk
+    DROP,   // discard an event that finds the queue full, and count it
+    SAMPLE  // once the queue is three quarters full, keep a random one in every n events and count the rest
+            // as dropped, so a burst thins out instead of being cut off
+}
@@ -0,0 +1,152 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.TrainingSession;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a reader that reads FitnessManager from a binary snapshot written by BinaryWriter
+public class BinaryReader {
+    private String source; // Source file path
+    private ProgressInputStream counted; // the file being read, counting the bytes read so far
+    private long size;                   // size of the file being read
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads FitnessManager from file and returns it;
+    // throws IOException if an error occurs reading data from file or the file is not a valid snapshot
+    public FitnessManager read() throws IOException {
+        size = new File(source).length();
+        counted = new ProgressInputStream(new BufferedInputStream(new FileInputStream(source), 1 << 16), size,
+                (read, total) -> { });
+        try (DataInputStream in = new DataInputStream(counted)) {
+            if (in.readInt() != BinaryWriter.MAGIC) {
+                throw new IOException("Not a Fitness Manager snapshot: " + source);
+            }
+            int version = VarInts.readInt(in);
+            if (version < 1 || version > BinaryWriter.FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + source);
+            }
+            return parseFitnessManager(in);
+        } catch (EOFException e) {
+            throw new IOException("Truncated or corrupt snapshot: " + source, e);
+        }
+    }
+
+    // EFFECTS: parses FitnessManager from the sections following the header
+    private FitnessManager parseFitnessManager(DataInputStream in) throws IOException {
+        FitnessManager fm = new FitnessManager();
+        RecordInput record = new RecordInput();
+        String[] strings = readStrings(in);
+        List<Exercise> exercises = new ArrayList<>();
+
+        readExercises(in, record, strings, exercises);
+        fm.getExercises().addAll(exercises);
+        readExercises(in, record, strings, exercises); // extras, only referenced by sessions
+
+        int sessionCount = VarInts.readInt(in);
+        for (int i = 0; i < sessionCount; i++) {
+            record.load(in, remaining());
+            fm.getSessions().add(parseSession(record, strings, exercises));
+        }
+        return fm;
+    }
+
+    // EFFECTS: reads the string table
+    private String[] readStrings(DataInputStream in) throws IOException {
+        String[] strings = new String[VarInts.readLength(in, remaining())];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < strings.length; i++) {
+            int length = VarInts.readLength(in, remaining());
+            if (bytes.length < length) {
+                bytes = new byte[length];
+            }
+            in.readFully(bytes, 0, length);
+            strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    // MODIFIES: exercises
+    // EFFECTS: reads a count followed by that many exercise records, appending them to exercises
+    private void readExercises(DataInputStream in, RecordInput record, String[] strings,
+                               List<Exercise> exercises) throws IOException {
+        int count = VarInts.readInt(in);
+        for (int i = 0; i < count; i++) {
+            record.load(in, remaining());
+            long id = VarInts.readLong(record.data);
+            String name = string(strings, VarInts.readInt(record.data));
+            String muscle = string(strings, VarInts.readInt(record.data));
+            int weight = VarInts.readSignedInt(record.data);
+            int reps = VarInts.readSignedInt(record.data);
+            exercises.add(new Exercise(id, name, muscle, weight, reps));
+        }
+    }
+
+    // EFFECTS: parses a session record whose entries refer to exercises by index; a record without a trailing
+    //          id (written before sessions had ids) gets a fresh one
+    private TrainingSession parseSession(RecordInput record, String[] strings, List<Exercise> exercises)
+            throws IOException {
+        DataInput data = record.data;
+        String name = string(strings, VarInts.readInt(data));
+        Map<Exercise, Integer> entries = new LinkedHashMap<>();
+        int count = VarInts.readInt(data);
+        for (int i = 0; i < count; i++) {
+            int index = VarInts.readInt(data);
+            if (index >= exercises.size()) {
+                throw new IOException("Corrupt snapshot: exercise index " + index + " out of range");
+            }
+            entries.put(exercises.get(index), VarInts.readSignedInt(data));
+        }
+        TrainingSession session = record.available() > 0
+                ? new TrainingSession(VarInts.readLong(data), name) : new TrainingSession(name);
+        session.getExerciseSets().putAll(entries);
+        return session;
+    }
+
+    // EFFECTS: returns the number of bytes of the file not read yet
+    private long remaining() {
+        return size - counted.getCount();
+    }
+
+    // EFFECTS: returns strings[index]; throws IOException if index is out of range
+    private static String string(String[] strings, int index) throws IOException {
+        if (index >= strings.length) {
+            throw new IOException("Corrupt snapshot: string index " + index + " out of range");
+        }
+        return strings[index];
+    }
+
+    // The payload of one length-prefixed record, read into a reused buffer. Fields a newer version appends
+    // to a record are simply left unread, as the next load replaces the buffer contents.
+    private static class RecordInput extends ByteArrayInputStream {
+        private final DataInputStream data = new DataInputStream(this);
+
+        RecordInput() {
+            super(new byte[256]);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the next record from in, which has remaining bytes left; reading past its end throws
+        //          EOFException
+        void load(DataInputStream in, long remaining) throws IOException {
+            int length = VarInts.readLength(in, remaining);
+            if (buf.length < length) {
+                buf = new byte[length];
+            }
+            in.readFully(buf, 0, length);
+            pos = 0;
+            count = length;
+            mark = 0;
+        }
+    }
+}
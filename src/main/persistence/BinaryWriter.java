@@ -0,0 +1,153 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.TrainingSession;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer that writes a compact binary snapshot of FitnessManager to file.
+// Layout (all counts, lengths and indexes are varints, see VarInts):
+//   file      := MAGIC version strings library extras sessions
+//   strings   := count (length utf8-bytes)*         -- every name and target muscle, each stored once
+//   library   := count record*                      -- the exercises of the library, in order
+//   extras    := count record*                      -- exercises used by sessions but not in the library
+//   sessions  := count record*
+//   record    := length payload                     -- readers skip payload bytes they do not understand
+//   exercise  := id name-index muscle-index weight reps
+//   session   := name-index entries (exercise-index sets)* id  -- index into library followed by extras;
+//                                                                 id is absent in files from before sessions had ids
+// weight, reps and sets are zig-zag encoded so the format round-trips any int.
+public class BinaryWriter {
+    static final int MAGIC = 0x464D4753; // "FMGS"
+    static final int FORMAT_VERSION = 1;
+
+    private OutputStream out;
+    private ByteArrayOutputStream record; // payload of the record being written
+    private String destination;           // File path for binary output
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if file cannot be opened
+    public void open() throws FileNotFoundException {
+        File file = new File(destination);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+        record = new ByteArrayOutputStream(256);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the snapshot of FitnessManager to file;
+    //          throws IOException if an error occurs writing to the file
+    public void write(FitnessManager fm) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<Exercise, Integer> exerciseIndexes = new HashMap<>();
+        List<Exercise> extras = new ArrayList<>();
+        collect(fm, strings, exerciseIndexes, extras);
+
+        new DataOutputStream(out).writeInt(MAGIC);
+        VarInts.writeInt(out, FORMAT_VERSION);
+        writeStrings(strings);
+        writeExercises(fm.getExercises(), strings);
+        writeExercises(extras, strings);
+        VarInts.writeInt(out, fm.getSessions().size());
+        for (TrainingSession s : fm.getSessions()) {
+            writeSession(s, strings, exerciseIndexes);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if an error occurs writing to the file
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // MODIFIES: strings, exerciseIndexes, extras
+    // EFFECTS: numbers every distinct string and exercise of fm in the order they will be written; exercises
+    //          only found in sessions are collected in extras
+    private void collect(FitnessManager fm, Map<String, Integer> strings, Map<Exercise, Integer> exerciseIndexes,
+                         List<Exercise> extras) {
+        for (Exercise e : fm.getExercises()) {
+            exerciseIndexes.putIfAbsent(e, exerciseIndexes.size());
+            intern(strings, e.getName());
+            intern(strings, e.getTargetMuscle());
+        }
+        for (TrainingSession s : fm.getSessions()) {
+            intern(strings, s.getName());
+            for (Exercise e : s.getExerciseSets().keySet()) {
+                if (!exerciseIndexes.containsKey(e)) {
+                    exerciseIndexes.put(e, exerciseIndexes.size());
+                    extras.add(e);
+                    intern(strings, e.getName());
+                    intern(strings, e.getTargetMuscle());
+                }
+            }
+        }
+    }
+
+    // MODIFIES: strings
+    // EFFECTS: gives s the next string index unless it already has one
+    private static void intern(Map<String, Integer> strings, String s) {
+        strings.putIfAbsent(s, strings.size());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the string table
+    private void writeStrings(Map<String, Integer> strings) throws IOException {
+        VarInts.writeInt(out, strings.size());
+        for (String s : strings.keySet()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            VarInts.writeInt(out, bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a count followed by one record per exercise
+    private void writeExercises(List<Exercise> exercises, Map<String, Integer> strings) throws IOException {
+        VarInts.writeInt(out, exercises.size());
+        for (Exercise e : exercises) {
+            VarInts.writeLong(record, e.getId());
+            VarInts.writeInt(record, strings.get(e.getName()));
+            VarInts.writeInt(record, strings.get(e.getTargetMuscle()));
+            VarInts.writeSignedInt(record, e.getWeight());
+            VarInts.writeSignedInt(record, e.getReps());
+            endRecord();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the record of one session
+    private void writeSession(TrainingSession s, Map<String, Integer> strings,
+                              Map<Exercise, Integer> exerciseIndexes) throws IOException {
+        VarInts.writeInt(record, strings.get(s.getName()));
+        VarInts.writeInt(record, s.getExerciseSets().size());
+        for (Map.Entry<Exercise, Integer> entry : s.getExerciseSets().entrySet()) {
+            VarInts.writeInt(record, exerciseIndexes.get(entry.getKey()));
+            VarInts.writeSignedInt(record, entry.getValue());
+        }
+        VarInts.writeLong(record, s.getId());
+        endRecord();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the pending record payload prefixed with its length, and clears it
+    private void endRecord() throws IOException {
+        VarInts.writeInt(out, record.size());
+        record.writeTo(out);
+        record.reset();
+    }
+}
@@ -0,0 +1,588 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.FitnessSnapshot;
+import model.ModelListener;
+import model.TrainingSession;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+// Represents a store that saves a FitnessManager incrementally. A full JSON snapshot is only written at a
+// checkpoint; in between, every change the manager reports (see ModelListener) is encoded as a small record,
+// and a save appends just the records made since the previous save to a journal file next to the snapshot.
+// Loading reads the snapshot and replays the journal over it. Once the journal outgrows its threshold the
+// next save writes a fresh snapshot and empties the journal again (compaction).
+// A save can also be split across two threads (see AutoSaver): takeSave, on the thread that changes the
+// manager, only takes the records made since the last save (or an O(1) snapshot for a checkpoint), and the
+// PendingSave it returns does the writing on another thread. Pending saves must be written in the order they
+// were taken, one at a time.
+// Journal layout (varints and strings as in BinaryWriter):
+//   journal := MAGIC version snapshot-size snapshot-modified record*
+//   record  := length payload crc32        -- replay stops at a torn or corrupt record, later saves overwrite it
+//   payload := op fields
+// The header names the snapshot the journal applies to, so a journal is ignored once the snapshot has been
+// rewritten without it (by a checkpoint that crashed before emptying the journal, or by another writer).
+public class ChangeJournal implements ModelListener {
+    static final int MAGIC = 0x464D4A4E; // "FMJN"
+    static final int FORMAT_VERSION = 1;
+    static final long DEFAULT_CHECKPOINT_BYTES = 256 * 1024;
+
+    private static final int EXERCISE_ADDED = 1;
+    private static final int EXERCISE_REMOVED = 2;
+    private static final int EXERCISE_UPDATED = 3;
+    private static final int SESSION_ADDED = 4;
+    private static final int SESSION_REMOVED = 5;
+    private static final int SESSION_UPDATED = 6;
+    private static final int ENTRY_ADDED = 7;
+    private static final int ENTRY_REMOVED = 8;
+    private static final int ENTRY_UPDATED = 9;
+
+    private final String snapshotPath;      // full JSON snapshot
+    private final String journalPath;       // records made since the snapshot was written
+    private final long checkpointBytes;     // journal size from which a save compacts
+    private final Durability durability;    // how snapshots and journal writes reach the disk
+    private final RecordBuffer record;      // payload of the record being encoded
+    private final AtomicBoolean failed;     // true if a save failed since the last checkpoint was taken
+    // Only used on the thread that changes the manager:
+    private final ByteArrayOutputStream pending; // framed records not yet taken for a save
+    private int pendingChanges;             // number of records in pending
+    private long takenBytes;                // bytes of records taken to append since the last checkpoint
+    private boolean checkpointDue;          // true if the next save must write a checkpoint
+    private FitnessManager manager;         // manager whose changes are being recorded, or null
+    // Only written by the thread writing the saves:
+    private volatile long journalLength;    // bytes of valid journal on disk, -1 if the journal is unusable
+    private volatile long snapshotSize;     // size of the snapshot on disk when last read or written
+
+    // EFFECTS: constructs a journal for the snapshot at snapshotPath, keeping its records in snapshotPath
+    //          followed by ".journal" and forcing every save to disk (Durability.SYNC)
+    public ChangeJournal(String snapshotPath) {
+        this(snapshotPath, snapshotPath + ".journal", DEFAULT_CHECKPOINT_BYTES, Durability.SYNC);
+    }
+
+    // REQUIRES: checkpointBytes > 0
+    // EFFECTS: constructs a journal for the snapshot at snapshotPath that keeps its records at journalPath and
+    //          compacts once they take at least checkpointBytes (or a quarter of the snapshot, if larger).
+    //          Snapshots replace the previous one as durability says; with SYNC, journal appends are also
+    //          forced to disk before a save returns.
+    public ChangeJournal(String snapshotPath, String journalPath, long checkpointBytes, Durability durability) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+        this.checkpointBytes = checkpointBytes;
+        this.durability = durability;
+        this.record = new RecordBuffer();
+        this.failed = new AtomicBoolean();
+        this.pending = new ByteArrayOutputStream();
+        this.journalLength = -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the snapshot (an empty manager if there is none yet), replays the journal over it and
+    //          returns the result, whose later changes this journal records;
+    //          throws IOException if the snapshot cannot be read or the journal contradicts it
+    public FitnessManager load() throws IOException {
+        return load((bytesRead, totalBytes) -> { });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads like load(), telling progress how many bytes of the snapshot and journal together have been
+    //          read as it goes; throws InterruptedIOException as soon as the loading thread is interrupted (e.g.
+    //          because the load was cancelled)
+    public FitnessManager load(ProgressListener progress) throws IOException {
+        detach();
+        Path snapshot = path(snapshotPath);
+        Path journal = path(journalPath);
+        boolean hasSnapshot = Files.exists(snapshot);
+        long size = hasSnapshot ? Files.size(snapshot) : 0;
+        long total = size + (hasSnapshot && Files.exists(journal) ? Files.size(journal) : 0);
+        FitnessManager fm = hasSnapshot
+                ? new JsonReader(snapshotPath).read((bytesRead, fileSize) -> progress.progress(bytesRead, total))
+                : new FitnessManager();
+        journalLength = -1;
+        if (hasSnapshot && Files.exists(journal)) {
+            journalLength = replay(fm, (bytesRead, fileSize) -> progress.progress(size + bytesRead, total));
+        }
+        progress.progress(total, total);
+        snapshotSize = size;
+        attach(fm);
+        checkpointDue = journalLength < 0;
+        takenBytes = Math.max(0, journalLength);
+        return fm;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves fm. If fm is the manager this journal records, only the changes made since the last save
+    //          are appended to the journal, or a checkpoint is written instead if the journal has grown too
+    //          large; any other manager is written as a new checkpoint.
+    //          throws IOException if an error occurs writing either file
+    public void save(FitnessManager fm) throws IOException {
+        record(fm);
+        takeSave().write();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes fm as a full snapshot, empties the journal and records fm's later changes;
+    //          throws IOException if an error occurs writing either file
+    public void checkpoint(FitnessManager fm) throws IOException {
+        attach(fm);
+        takeSave().write();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops recording the changes of the current manager and forgets the unsaved ones
+    public void detach() {
+        if (manager != null) {
+            manager.removeListener(this);
+            manager = null;
+        }
+        clearPending();
+    }
+
+    // EFFECTS: returns the number of changes recorded since the last save
+    public int getPendingChanges() {
+        return pendingChanges;
+    }
+
+    // EFFECTS: returns the size in bytes of the journal on disk, or -1 if the next save writes a checkpoint
+    public long getJournalLength() {
+        return journalLength;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the changes of fm from now on, unless it is already doing so (e.g. because fm was just
+    //          loaded); the next save of a manager that was not being recorded writes a checkpoint
+    void record(FitnessManager fm) {
+        if (fm != manager) {
+            attach(fm);
+        }
+    }
+
+    // REQUIRES: called on the thread that changes the recorded manager, while recording one
+    // MODIFIES: this
+    // EFFECTS: takes a save of the recorded manager as it is now and returns it to be written: the records made
+    //          since the last save, or a snapshot for a checkpoint if the journal has grown too large, is not
+    //          usable, or a save failed since the last checkpoint
+    PendingSave takeSave() {
+        if (failed.getAndSet(false) || checkpointDue
+                || takenBytes + pending.size() >= Math.max(checkpointBytes, snapshotSize / 4)) {
+            FitnessSnapshot state = manager.snapshot();
+            clearPending();
+            checkpointDue = false;
+            takenBytes = 0;
+            return () -> writeCheckpoint(state);
+        }
+        if (pendingChanges == 0) {
+            return () -> { };
+        }
+        byte[] records = pending.toByteArray();
+        takenBytes += records.length;
+        clearPending();
+        return () -> append(records);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts recording the changes of fm, with nothing pending; its next save writes a checkpoint
+    private void attach(FitnessManager fm) {
+        detach();
+        manager = fm;
+        fm.addListener(this);
+        checkpointDue = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the records not taken for a save yet
+    private void clearPending() {
+        pending.reset();
+        pendingChanges = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes state as a full snapshot and starts a new, empty journal for it;
+    //          throws IOException if an error occurs writing either file
+    private void writeCheckpoint(FitnessSnapshot state) throws IOException {
+        journalLength = -1; // until the new journal header is written
+        try {
+            JsonWriter writer = new JsonWriter(snapshotPath, false, durability);
+            writer.open();
+            try {
+                writer.write(state);
+            } finally {
+                writer.close();
+            }
+            byte[] header = header();
+            writeJournal(header, 0);
+            if (durability == Durability.SYNC) {
+                AtomicFile.forceDirectory(path(journalPath).toAbsolutePath().getParent());
+            }
+            snapshotSize = Files.size(path(snapshotPath));
+            journalLength = header.length;
+        } catch (IOException e) {
+            failed.set(true);
+            throw e;
+        }
+    }
+
+    // EFFECTS: returns the journal header naming the snapshot now on disk
+    private byte[] header() throws IOException {
+        Path snapshot = path(snapshotPath);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        new DataOutputStream(header).writeInt(MAGIC);
+        VarInts.writeInt(header, FORMAT_VERSION);
+        VarInts.writeLong(header, Files.size(snapshot));
+        VarInts.writeLong(header, Files.getLastModifiedTime(snapshot).toMillis());
+        return header.toByteArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends records to the journal, overwriting anything after its valid length; throws IOException
+    //          if that fails, or if an earlier save failed and left the journal unusable
+    private void append(byte[] records) throws IOException {
+        long position = journalLength;
+        if (position < 0) {
+            throw new IOException("Journal not written: an earlier save failed");
+        }
+        try {
+            writeJournal(records, position);
+        } catch (IOException e) {
+            journalLength = -1;
+            failed.set(true);
+            throw e;
+        }
+        journalLength = position + records.length;
+    }
+
+    // EFFECTS: writes bytes to the journal at position, dropping whatever followed, and (SYNC) forces them
+    //          to disk
+    private void writeJournal(byte[] bytes, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(journalPath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(position);
+            channel.position(position);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durability == Durability.SYNC) {
+                channel.force(false);
+            }
+        }
+    }
+
+    // EFFECTS: returns the path named name; throws FileNotFoundException if name is not a valid path
+    private static Path path(String name) throws IOException {
+        try {
+            return Paths.get(name);
+        } catch (InvalidPathException e) {
+            throw new FileNotFoundException(name + " (" + e.getReason() + ")");
+        }
+    }
+
+    // MODIFIES: fm
+    // EFFECTS: applies the records of the journal to fm and returns the length of the journal up to the last
+    //          intact record, or -1 if the journal belongs to another snapshot (fm is then left unchanged),
+    //          telling progress how much of the journal has been read as it goes;
+    //          throws IOException if the journal cannot be read or refers to things fm does not have
+    private long replay(FitnessManager fm, ProgressListener progress) throws IOException {
+        Path journal = path(journalPath);
+        long size = Files.size(journal);
+        InputStream file = new BufferedInputStream(Files.newInputStream(journal), 1 << 16);
+        try (ProgressInputStream in = new ProgressInputStream(file, size, progress)) {
+            DataInputStream data = new DataInputStream(in);
+            if (!appliesToSnapshot(data)) {
+                return -1;
+            }
+            Replay replay = new Replay(fm);
+            long valid = in.getCount();
+            byte[] payload;
+            while ((payload = nextRecord(data, size - in.getCount())) != null) {
+                replay.apply(new DataInputStream(new ByteArrayInputStream(payload)));
+                valid = in.getCount();
+            }
+            return valid;
+        }
+    }
+
+    // EFFECTS: reads the journal header and returns true if it matches the snapshot on disk
+    private boolean appliesToSnapshot(DataInputStream in) throws IOException {
+        Path snapshot = path(snapshotPath);
+        try {
+            return in.readInt() == MAGIC && VarInts.readInt(in) == FORMAT_VERSION
+                    && VarInts.readLong(in) == Files.size(snapshot)
+                    && VarInts.readLong(in) == Files.getLastModifiedTime(snapshot).toMillis();
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: returns the payload of the next intact record, or null at the end of the journal or at a torn
+    //          or corrupt record; remaining is the number of bytes left in the journal
+    private static byte[] nextRecord(DataInputStream in, long remaining) throws IOException {
+        try {
+            int length = VarInts.readInt(in);
+            if (length == 0 || length > remaining) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return in.readInt() == (int) crc.getValue() ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    // RECORDING:
+
+    @Override
+    public void exerciseAdded(Exercise exercise, int index) {
+        record.op(EXERCISE_ADDED).exercise(exercise);
+        frame();
+    }
+
+    @Override
+    public void exerciseRemoved(Exercise exercise, int index) {
+        record.op(EXERCISE_REMOVED).number(exercise.getId());
+        frame();
+    }
+
+    @Override
+    public void exerciseUpdated(Exercise exercise, int index) {
+        record.op(EXERCISE_UPDATED).exercise(exercise);
+        frame();
+    }
+
+    @Override
+    public void sessionAdded(TrainingSession session, int index) {
+        record.op(SESSION_ADDED).number(session.getId()).text(session.getName());
+        record.number(session.getExerciseSets().size());
+        for (Map.Entry<Exercise, Integer> entry : session.getExerciseSets().entrySet()) {
+            record.exercise(entry.getKey()).signed(entry.getValue());
+        }
+        frame();
+    }
+
+    @Override
+    public void sessionRemoved(TrainingSession session, int index) {
+        record.op(SESSION_REMOVED).number(session.getId());
+        frame();
+    }
+
+    @Override
+    public void sessionUpdated(TrainingSession session, int index) {
+        record.op(SESSION_UPDATED).number(session.getId()).text(session.getName());
+        frame();
+    }
+
+    @Override
+    public void sessionExerciseAdded(TrainingSession session, Exercise exercise, int sets) {
+        record.op(ENTRY_ADDED).number(session.getId()).exercise(exercise).signed(sets);
+        frame();
+    }
+
+    @Override
+    public void sessionExerciseRemoved(TrainingSession session, Exercise exercise) {
+        record.op(ENTRY_REMOVED).number(session.getId()).number(exercise.getId());
+        frame();
+    }
+
+    @Override
+    public void sessionExerciseUpdated(TrainingSession session, Exercise exercise, int sets) {
+        record.op(ENTRY_UPDATED).number(session.getId()).number(exercise.getId()).signed(sets);
+        frame();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the encoded record to pending, prefixed with its length and followed by its checksum
+    private void frame() {
+        CRC32 crc = new CRC32();
+        crc.update(record.buffer(), 0, record.size());
+        try {
+            VarInts.writeInt(pending, record.size());
+            record.writeTo(pending);
+            new DataOutputStream(pending).writeInt((int) crc.getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen writing to memory
+        }
+        record.reset();
+        pendingChanges++;
+    }
+
+    // A save taken by takeSave, to be written on another thread
+    interface PendingSave {
+        // EFFECTS: writes the save; throws IOException if that fails
+        void write() throws IOException;
+    }
+
+    // The payload of one record under construction; each method appends a field and returns this
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        // EFFECTS: starts a record with the given operation code
+        RecordBuffer op(int op) {
+            write(op);
+            return this;
+        }
+
+        // REQUIRES: value >= 0
+        // EFFECTS: appends value as a varint
+        RecordBuffer number(long value) {
+            try {
+                VarInts.writeLong(this, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        // EFFECTS: appends value zig-zag encoded
+        RecordBuffer signed(int value) {
+            try {
+                VarInts.writeSignedInt(this, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        // EFFECTS: appends s as its UTF-8 length followed by its bytes
+        RecordBuffer text(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            number(bytes.length);
+            write(bytes, 0, bytes.length);
+            return this;
+        }
+
+        // EFFECTS: appends every field of e
+        RecordBuffer exercise(Exercise e) {
+            return number(e.getId()).text(e.getName()).text(e.getTargetMuscle()).signed(e.getWeight())
+                    .signed(e.getReps());
+        }
+
+        // EFFECTS: returns the internal buffer, valid up to size()
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    // Applies journal records to a manager, finding its exercises and sessions by id
+    private static class Replay {
+        private final FitnessManager fm;
+        private final Map<Long, Exercise> exercises = new HashMap<>();
+        private final Map<Long, TrainingSession> sessions = new HashMap<>();
+
+        // EFFECTS: prepares to replay onto fm, indexing the exercises and sessions it already has
+        Replay(FitnessManager fm) {
+            this.fm = fm;
+            for (Exercise e : fm.getExercises()) {
+                exercises.putIfAbsent(e.getId(), e);
+            }
+            for (TrainingSession s : fm.getSessions()) {
+                sessions.putIfAbsent(s.getId(), s);
+                for (Exercise e : s.getExerciseSets().keySet()) {
+                    exercises.putIfAbsent(e.getId(), e);
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: applies the record read from in; throws IOException if it is malformed
+        void apply(DataInputStream in) throws IOException {
+            int op = in.readUnsignedByte();
+            switch (op) {
+                case EXERCISE_ADDED:
+                    fm.getExercises().add(exercise(in));
+                    break;
+                case EXERCISE_REMOVED:
+                    fm.getExercises().remove(knownExercise(VarInts.readLong(in)));
+                    break;
+                case EXERCISE_UPDATED:
+                    exercise(in);
+                    break;
+                default:
+                    applySessionRecord(op, in);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: applies a record that changes the sessions; throws IOException if it is malformed
+        private void applySessionRecord(int op, DataInputStream in) throws IOException {
+            if (op == SESSION_ADDED) {
+                addSession(in);
+                return;
+            }
+            TrainingSession s = sessions.get(VarInts.readLong(in));
+            if (s == null || op < SESSION_REMOVED || op > ENTRY_UPDATED) {
+                throw new IOException("Corrupt journal: unknown session or operation " + op);
+            }
+            if (op == SESSION_REMOVED) {
+                fm.getSessions().remove(s);
+            } else if (op == SESSION_UPDATED) {
+                s.setName(text(in));
+            } else if (op == ENTRY_ADDED) {
+                s.getExerciseSets().put(exercise(in), VarInts.readSignedInt(in));
+            } else if (op == ENTRY_REMOVED) {
+                s.getExerciseSets().remove(knownExercise(VarInts.readLong(in)));
+            } else {
+                s.getExerciseSets().put(knownExercise(VarInts.readLong(in)), VarInts.readSignedInt(in));
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the session described by the rest of the record
+        private void addSession(DataInputStream in) throws IOException {
+            TrainingSession s = new TrainingSession(VarInts.readLong(in), text(in));
+            int count = VarInts.readInt(in);
+            for (int i = 0; i < count; i++) {
+                s.getExerciseSets().put(exercise(in), VarInts.readSignedInt(in));
+            }
+            sessions.put(s.getId(), s);
+            fm.getSessions().add(s);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads an exercise's fields and returns the exercise with that id, brought up to date with
+        //          them, creating it if it is not known yet
+        private Exercise exercise(DataInputStream in) throws IOException {
+            long id = VarInts.readLong(in);
+            String name = text(in);
+            String muscle = text(in);
+            int weight = VarInts.readSignedInt(in);
+            int reps = VarInts.readSignedInt(in);
+            Exercise e = exercises.get(id);
+            if (e == null) {
+                e = new Exercise(id, name, muscle, weight, reps);
+                exercises.put(id, e);
+                return e;
+            }
+            e.restore(name, muscle, weight, reps); // not logged again as a user action
+            return e;
+        }
+
+        // EFFECTS: returns the exercise with the given id; throws IOException if there is none
+        private Exercise knownExercise(long id) throws IOException {
+            Exercise e = exercises.get(id);
+            if (e == null) {
+                throw new IOException("Corrupt journal: unknown exercise " + id);
+            }
+            return e;
+        }
+
+        // EFFECTS: reads a string written by RecordBuffer.text
+        private static String text(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[VarInts.readLength(in, in.available())];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
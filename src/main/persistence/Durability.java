@@ -0,0 +1,9 @@
+package persistence;
+
+// How hard a save works to survive a crash, from fastest to safest
+public enum Durability {
+    DIRECT, // truncates and rewrites the destination in place: a crash during the save loses the file
+    ATOMIC, // writes a temp file next to the destination and renames it over the destination: survives the
+            // application crashing or being killed, but the OS may still lose recent data on power loss
+    SYNC    // as ATOMIC, but forces the temp file and then the directory to disk: also survives power loss
+}
@@ -7,12 +7,24 @@ import model.TrainingSession;
 import org.json.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
-// Represents a reader that reads FitnessManager from JSON data stored in file
+// Represents a reader that reads FitnessManager from JSON data stored in file.
+// The file is parsed as a stream: only one exercise or session is held as JSON at a time, and each is
+// turned into model objects as soon as it has been read, so memory use follows the size of the model
+// rather than the size of the file.
 public class JsonReader {
     private String source; // Source file path
 
@@ -24,67 +36,186 @@ public class JsonReader {
     // EFFECTS: reads FitnessManager from file and returns it;
     // throws IOException if an error occurs reading data from file
     public FitnessManager read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseFitnessManager(jsonObject);
+        try (Reader in = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            return parse(in);
+        }
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+    // EFFECTS: reads FitnessManager from file and returns it, telling progress how many of the bytes of the
+    //          file have been read as it goes; throws InterruptedIOException as soon as the reading thread is
+    //          interrupted (e.g. because the load was cancelled), and IOException if an error occurs reading
+    //          data from file
+    public FitnessManager read(ProgressListener progress) throws IOException {
+        Path path = Paths.get(source);
+        try (InputStream bytes = new ProgressInputStream(Files.newInputStream(path), Files.size(path), progress);
+             Reader in = new InputStreamReader(bytes, StandardCharsets.UTF_8)) {
+            return parse(in);
         }
+    }
 
-        return contentBuilder.toString();
+    // EFFECTS: parses FitnessManager from in; throws the IOException that reading in threw, if any
+    private FitnessManager parse(Reader in) throws IOException {
+        try {
+            return parseFitnessManager(new JSONTokener(in));
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
     }
 
-    // EFFECTS: parses FitnessManager from JSON object and returns it
-    private FitnessManager parseFitnessManager(JSONObject jsonObject) {
+    // EFFECTS: parses FitnessManager from the tokens of a JSON object and returns it. The "exercises" and
+    //          "sessions" arrays may come in either order; other keys are skipped.
+    private FitnessManager parseFitnessManager(JSONTokener tokener) {
         FitnessManager fm = new FitnessManager();
-        addExercises(fm, jsonObject);
-        addSessions(fm, jsonObject);
+        ExerciseTable table = new ExerciseTable();
+        boolean hasExercises = false;
+        boolean hasSessions = false;
+
+        expect(tokener, '{');
+        if (!closes(tokener, '}')) {
+            do {
+                String key = tokener.nextValue().toString();
+                expect(tokener, ':');
+                if (key.equals("exercises")) {
+                    hasExercises = true;
+                    readArray(tokener, json -> fm.getExercises().add(table.claim((JSONObject) json)));
+                } else if (key.equals("sessions")) {
+                    hasSessions = true;
+                    readArray(tokener, json -> fm.getSessions().add(parseSession((JSONObject) json, table)));
+                } else {
+                    tokener.nextValue();
+                }
+            } while (hasMore(tokener, '}'));
+        }
+        requireKey(hasExercises, "exercises", tokener);
+        requireKey(hasSessions, "sessions", tokener);
         return fm;
     }
 
-    // MODIFIES: fm
-    // EFFECTS: parses exercises from JSON object and adds them to FitnessManager
-    private void addExercises(FitnessManager fm, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("exercises");
-        for (Object obj : jsonArray) {
-            JSONObject exerciseJson = (JSONObject) obj;
-            String name = exerciseJson.getString("name");
-            String muscle = exerciseJson.getString("targetMuscle");
-            int weight = exerciseJson.getInt("weight");
-            int reps = exerciseJson.getInt("reps");
-            Exercise e = new Exercise(name, muscle, weight, reps);
-            fm.getExercises().add(e);
+    // EFFECTS: parses a training session from JSON object, keeping its id if the file has one; its entries
+    //          refer to the shared Exercise objects of table rather than copies of them
+    private TrainingSession parseSession(JSONObject sessionJson, ExerciseTable table) {
+        String name = sessionJson.getString("name");
+        TrainingSession session = sessionJson.has("id")
+                ? new TrainingSession(sessionJson.getLong("id"), name) : new TrainingSession(name);
+        for (Object setObj : sessionJson.getJSONArray("exerciseSets")) {
+            JSONObject setJson = (JSONObject) setObj;
+            session.getExerciseSets().put(table.resolve(setJson), setJson.getInt("sets"));
+        }
+        return session;
+    }
+
+    // EFFECTS: reads a JSON array element by element, handing each to handler as soon as it is parsed
+    private void readArray(JSONTokener tokener, Consumer<Object> handler) {
+        expect(tokener, '[');
+        if (closes(tokener, ']')) {
+            return;
+        }
+        do {
+            handler.accept(tokener.nextValue());
+        } while (hasMore(tokener, ']'));
+    }
+
+    // EFFECTS: consumes the next token and returns true if it is close (an empty object or array);
+    //          otherwise leaves it unread and returns false
+    private boolean closes(JSONTokener tokener, char close) {
+        if (tokener.nextClean() == close) {
+            return true;
+        }
+        tokener.back();
+        return false;
+    }
+
+    // EFFECTS: consumes the token after a member or element; returns true for a ',' separator and false
+    //          for close, throwing JSONException on anything else
+    private boolean hasMore(JSONTokener tokener, char close) {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            return true;
+        }
+        if (c != close) {
+            throw tokener.syntaxError("Expected ',' or '" + close + "'");
+        }
+        return false;
+    }
+
+    // EFFECTS: consumes the next token, throwing JSONException if it is not expected
+    private void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    // EFFECTS: throws JSONException if a required top-level key was missing
+    private void requireKey(boolean present, String key, JSONTokener tokener) {
+        if (!present) {
+            throw tokener.syntaxError("JSONObject[\"" + key + "\"] not found");
         }
     }
 
-    // MODIFIES: fm
-    // EFFECTS: parses training sessions from JSON object and adds them to FitnessManager
-    private void addSessions(FitnessManager fm, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("sessions");
-        for (Object obj : jsonArray) {
-            JSONObject sessionJson = (JSONObject) obj;
-            String name = sessionJson.getString("name");
-            TrainingSession session = new TrainingSession(name);
-
-            JSONArray exerciseSets = sessionJson.getJSONArray("exerciseSets");
-            for (Object setObj : exerciseSets) {
-                JSONObject setJson = (JSONObject) setObj;
-                String exerciseName = setJson.getString("name");
-                String muscle = setJson.getString("targetMuscle");
-                int weight = setJson.getInt("weight");
-                int reps = setJson.getInt("reps");
-                int sets = setJson.getInt("sets");
-
-                Exercise e = new Exercise(exerciseName, muscle, weight, reps);
-                session.getExerciseSets().put(e, sets);
+    // EFFECTS: parses an exercise from JSON object, keeping its id if the file has one
+    //          (files written before exercises had ids get fresh ones)
+    private static Exercise parseExercise(JSONObject exerciseJson) {
+        String name = exerciseJson.getString("name");
+        String muscle = exerciseJson.getString("targetMuscle");
+        int weight = exerciseJson.getInt("weight");
+        int reps = exerciseJson.getInt("reps");
+        if (exerciseJson.has("id")) {
+            return new Exercise(exerciseJson.getLong("id"), name, muscle, weight, reps);
+        }
+        return new Exercise(name, muscle, weight, reps);
+    }
+
+    // EFFECTS: returns a key identifying an exercise by all of its fields, as files without ids require
+    private static String legacyKey(String name, String muscle, int weight, int reps) {
+        return name + '\u0000' + muscle + '\u0000' + weight + '\u0000' + reps;
+    }
+
+    // The Exercise objects created while reading one file. An exercise is found by id, or by all of its
+    // fields for files written before exercises had ids. Because sessions may be read before the library,
+    // a session entry can create an exercise that a library entry later claims as its own.
+    private static class ExerciseTable {
+        private final Map<Long, Exercise> byId = new HashMap<>();
+        private final Map<String, Exercise> byFields = new HashMap<>();
+        private final Set<Exercise> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // MODIFIES: this
+        // EFFECTS: returns the exercise a library entry describes, reusing one a session entry already
+        //          created if the library has not claimed it yet
+        Exercise claim(JSONObject json) {
+            Exercise e = find(json);
+            if (e == null || claimed.contains(e)) {
+                e = create(json);
             }
-            fm.getSessions().add(session);
+            claimed.add(e);
+            return e;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the exercise a session entry refers to, creating it if none is known yet
+        Exercise resolve(JSONObject json) {
+            Exercise e = find(json);
+            return e == null ? create(json) : e;
+        }
+
+        // EFFECTS: returns the first exercise known by json's id (or fields, without an id), or null
+        private Exercise find(JSONObject json) {
+            if (json.has("id")) {
+                return byId.get(json.getLong("id"));
+            }
+            return byFields.get(legacyKey(json.getString("name"), json.getString("targetMuscle"),
+                    json.getInt("weight"), json.getInt("reps")));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: parses a new exercise from json and remembers it
+        private Exercise create(JSONObject json) {
+            Exercise e = parseExercise(json);
+            byId.putIfAbsent(e.getId(), e);
+            byFields.putIfAbsent(legacyKey(e.getName(), e.getTargetMuscle(), e.getWeight(), e.getReps()), e);
+            return e;
         }
     }
 }
@@ -1,53 +1,286 @@
 package persistence;
 
+import model.Exercise;
+import model.ExerciseSnapshot;
 import model.FitnessManager;
-import org.json.JSONObject;
+import model.FitnessSnapshot;
+import model.SessionSnapshot;
+import model.TrainingSession;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 
-// Represents a writer that writes JSON representation of FitnessManager to file
+// Represents a writer that writes JSON representation of FitnessManager to file.
+// Each exercise and session is appended to a reused character buffer as it is visited, and the buffer is
+// handed to the file whenever it fills, so the document is never built in memory and writing allocates
+// next to nothing per element. Output is indented by default or compact (no whitespace) on request.
+// How the file replaces the previous one is set by a Durability: in place (the default), or atomically
+// through a temp file that close() moves over the destination, optionally forced to disk first.
 public class JsonWriter {
     private static final int TAB = 4;
-    private PrintWriter writer;
-    private String destination; // File path for JSON output
+    private static final int BUFFER_SIZE = 1 << 16;
+    private Writer writer;
+    private StringBuilder buffer; // text not yet handed to writer
+    private char[] chunk;         // reused to copy buffer into writer
+    private String destination;   // File path for JSON output
+    private boolean compact;      // true to write without indentation or line breaks
+    private Durability durability; // how the output replaces the destination
+    private AtomicFile file;      // file being written
+    private boolean failed;       // true once a write has thrown; close() then discards the output
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, compact (no whitespace) if compact is true
+    public JsonWriter(String destination, boolean compact) {
+        this(destination, compact, Durability.DIRECT);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, compact (no whitespace) if compact is true,
+    //          replacing the previous file as durability says
+    public JsonWriter(String destination, boolean compact, Durability durability) {
         this.destination = destination;
+        this.compact = compact;
+        this.durability = durability;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException (FileNotFoundException for an invalid path) if the file
+    //          cannot be opened
+    public void open() throws IOException {
+        file = new AtomicFile(destination, durability);
+        writer = new OutputStreamWriter(file.open(), StandardCharsets.UTF_8);
+        buffer = new StringBuilder(BUFFER_SIZE + BUFFER_SIZE / 4);
+        failed = false;
+    }
+
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of FitnessManager to file;
+    //          throws IOException if an error occurs writing to the file, after which close() keeps the
+    //          previous file (unless writing in place)
+    public void write(FitnessManager fm) throws IOException {
+        write(() -> {
+            writeArray("exercises", 0, true, fm.getExercises(), e -> writeExercise(e, -1, 2));
+            writeArray("sessions", 0, false, fm.getSessions(), s -> writeSession(s, 2));
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of a snapshot of a FitnessManager to file, in the same format as
+    //          write(FitnessManager); as a snapshot never changes, this can run on any thread while the
+    //          manager keeps being edited.
+    //          throws IOException if an error occurs writing to the file, after which close() keeps the
+    //          previous file (unless writing in place)
+    public void write(FitnessSnapshot snapshot) throws IOException {
+        write(() -> {
+            writeArray("exercises", 0, true, snapshot.getExercises(), e -> writeExercise(e, -1, 2));
+            writeArray("sessions", 0, false, snapshot.getSessions(), s -> writeSession(s, 2));
+        });
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if file cannot be opened
-    // public void open() throws FileNotFoundException {
-    //     writer = new PrintWriter(new File(destination));
-    // }
-    public void open() throws FileNotFoundException {
-        File file = new File(destination);
-        File parent = file.getParentFile();
-        if (parent != null && !parent.exists()) {
-            parent.mkdirs(); // create ./data on first run
+    // EFFECTS: closes writer, flushing what is left in the buffer and moving the file into place; after a
+    //          failed write the output is discarded instead.
+    //          throws IOException if an error occurs writing to the file, leaving the previous file in place
+    //          (unless writing in place)
+    public void close() throws IOException {
+        if (failed) {
+            file.abort();
+            return;
         }
-        writer = new PrintWriter(file);
+        try {
+            drain();
+            writer.flush();
+        } catch (IOException e) {
+            file.abort();
+            throw e;
+        }
+        file.commit();
     }
 
+    // MODIFIES: this
+    // EFFECTS: appends a whole document whose members are written by members to the buffer, draining it to
+    //          the file as it fills; remembers that the write failed if anything is thrown
+    private void write(Section members) throws IOException {
+        try {
+            buffer.append('{');
+            members.write();
+            newline(0);
+            buffer.append('}');
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the member key of an object whose opening brace sits at the given depth, with an array
+    //          holding what element writes for each of elements
+    private <T> void writeArray(String key, int depth, boolean first, Iterable<T> elements, Element<T> element)
+            throws IOException {
+        beginMember(key, depth + 1, first);
+        buffer.append('[');
+        boolean empty = true;
+        for (T e : elements) {
+            beginElement(depth + 2, empty);
+            element.write(e);
+            empty = false;
+        }
+        endArray(depth + 1, empty);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a session object whose opening brace sits at the given depth
+    private void writeSession(TrainingSession s, int depth) throws IOException {
+        beginSession(s.getId(), s.getName(), depth);
+        writeArray("exerciseSets", depth, false, s.getExerciseSets().entrySet(),
+                entry -> writeExercise(entry.getKey(), entry.getValue(), depth + 2));
+        newline(depth);
+        buffer.append('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a snapshot of a session as an object whose opening brace sits at the given depth
+    private void writeSession(SessionSnapshot s, int depth) throws IOException {
+        beginSession(s.getId(), s.getName(), depth);
+        writeArray("exerciseSets", depth, false, s.getExerciseSets().entrySet(),
+                entry -> writeExercise(entry.getKey(), entry.getValue(), depth + 2));
+        newline(depth);
+        buffer.append('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening brace, id and name of a session object whose opening brace sits at the given
+    //          depth
+    private void beginSession(long id, String name, int depth) throws IOException {
+        buffer.append('{');
+        beginMember("id", depth + 1, true);
+        buffer.append(id);
+        beginMember("name", depth + 1, false);
+        quote(name);
+    }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of FitnessManager to file
-    public void write(FitnessManager fm) {
-        JSONObject json = fm.toJson();
-        saveToFile(json.toString(TAB));
+    // EFFECTS: writes an exercise object whose opening brace sits at the given depth, with a "sets" member
+    //          when sets >= 0 (an entry of a session)
+    private void writeExercise(Exercise e, int sets, int depth) throws IOException {
+        writeExercise(e.getId(), e.getName(), e.getTargetMuscle(), e.getWeight(), e.getReps(), sets, depth);
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: writes a snapshot of an exercise like writeExercise(Exercise, int, int)
+    private void writeExercise(ExerciseSnapshot e, int sets, int depth) throws IOException {
+        writeExercise(e.getId(), e.getName(), e.getTargetMuscle(), e.getWeight(), e.getReps(), sets, depth);
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: writes an exercise object with the given fields whose opening brace sits at the given depth,
+    //          with a "sets" member when sets >= 0 (an entry of a session)
+    private void writeExercise(long id, String name, String targetMuscle, int weight, int reps, int sets,
+                               int depth) throws IOException {
+        buffer.append('{');
+        beginMember("id", depth + 1, true);
+        buffer.append(id);
+        beginMember("name", depth + 1, false);
+        quote(name);
+        beginMember("targetMuscle", depth + 1, false);
+        quote(targetMuscle);
+        beginMember("weight", depth + 1, false);
+        buffer.append(weight);
+        beginMember("reps", depth + 1, false);
+        buffer.append(reps);
+        if (sets >= 0) {
+            beginMember("sets", depth + 1, false);
+            buffer.append(sets);
+        }
+        newline(depth);
+        buffer.append('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator, line break and key that start an object member at the given depth
+    private void beginMember(String key, int depth, boolean first) throws IOException {
+        beginElement(depth, first);
+        quote(key);
+        buffer.append(compact ? ":" : ": ");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator and line break that start an array element at the given depth
+    private void beginElement(int depth, boolean first) throws IOException {
+        if (buffer.length() >= BUFFER_SIZE) {
+            drain();
+        }
+        if (!first) {
+            buffer.append(',');
+        }
+        newline(depth);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes an array whose key sits at the given depth; empty arrays stay on one line
+    private void endArray(int depth, boolean empty) {
+        if (!empty) {
+            newline(depth);
+        }
+        buffer.append(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands the buffered text to writer and empties the buffer
+    private void drain() throws IOException {
+        int length = buffer.length();
+        if (chunk == null || chunk.length < length) {
+            chunk = new char[Math.max(length, BUFFER_SIZE)];
+        }
+        buffer.getChars(0, length, chunk, 0);
+        writer.write(chunk, 0, length);
+        buffer.setLength(0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new line indented to the given depth, unless writing compact JSON
+    private void newline(int depth) {
+        if (compact) {
+            return;
+        }
+        buffer.append('\n');
+        for (int i = 0; i < depth * TAB; i++) {
+            buffer.append(' ');
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends s as a quoted JSON string, escaping quotes, backslashes and control characters
+    private void quote(String s) {
+        buffer.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            } else if (c < ' ') {
+                buffer.append(String.format("\\u%04x", (int) c));
+            } else {
+                buffer.append(c);
+            }
+        }
+        buffer.append('"');
+    }
+
+    // Writes part of the document to the buffer
+    private interface Section {
+        void write() throws IOException;
+    }
+
+    // Writes one element of an array to the buffer
+    private interface Element<T> {
+        void write(T element) throws IOException;
     }
 }
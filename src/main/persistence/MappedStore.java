@@ -0,0 +1,419 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.TrainingSession;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a read-only FitnessManager store kept in a memory-mapped file. Opening a store maps its
+// sections without reading them; lookups by name go through on-disk hash indexes and touch only the
+// pages of the records they return, so a large library is usable without loading it into the heap.
+// Opening checks the header; records are only checked as they are read, and one found to point outside its
+// section throws UncheckedIOException.
+// Layout (big-endian; each section is mapped on its own, so only a single section must stay under 2 GB):
+//   header     64 bytes   magic, version, exercise/extra/session/entry counts, index sizes, strings length
+//   exercises  32 bytes each   id(long) name(offset,length) muscle(offset,length) weight reps
+//                              -- the library first, then exercises used by sessions but not in the library
+//   sessions   24 bytes each   id(long) name(offset,length) first-entry entry-count
+//   entries     8 bytes each   exercise-index sets
+//   indexes     8 bytes per slot   hash, record-index + 1 (0 = empty); open addressing, linear probing
+//   strings    UTF-8 bytes of every distinct name and target muscle
+public class MappedStore implements Closeable {
+    static final int MAGIC = 0x464D4D53; // "FMMS"
+    static final int FORMAT_VERSION = 2; // 2: session records carry the session id
+    static final int HEADER_SIZE = 64;
+    static final int EXERCISE_SIZE = 32;
+    static final int SESSION_SIZE = 24;
+    static final int ENTRY_SIZE = 8;
+    static final int SLOT_SIZE = 8;
+
+    private final FileChannel channel;
+    private final int exerciseCount;   // exercises in the library
+    private final int sessionCount;
+    private final int exerciseSlots;
+    private final int sessionSlots;
+    private final ByteBuffer exercises;
+    private final ByteBuffer sessions;
+    private final ByteBuffer entries;
+    private final ByteBuffer exerciseIndex;
+    private final ByteBuffer sessionIndex;
+    private final ByteBuffer strings;
+
+    // EFFECTS: maps the sections of the store in channel; throws IOException if it is not a valid store
+    private MappedStore(FileChannel channel, String source) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = map(0, HEADER_SIZE, source);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a Fitness Manager store: " + source);
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported store version " + header.getInt(4) + ": " + source);
+        }
+        exerciseCount = count(header, 8, source);
+        sessionCount = count(header, 16, source);
+        exerciseSlots = slots(header, 24, exerciseCount, source);
+        sessionSlots = slots(header, 28, sessionCount, source);
+        long offset = HEADER_SIZE;
+        exercises = map(offset, ((long) exerciseCount + count(header, 12, source)) * EXERCISE_SIZE, source);
+        sessions = map(offset += exercises.capacity(), (long) sessionCount * SESSION_SIZE, source);
+        entries = map(offset += sessions.capacity(), (long) count(header, 20, source) * ENTRY_SIZE, source);
+        exerciseIndex = map(offset += entries.capacity(), (long) exerciseSlots * SLOT_SIZE, source);
+        sessionIndex = map(offset += exerciseIndex.capacity(), (long) sessionSlots * SLOT_SIZE, source);
+        long stringsLength = header.getLong(32);
+        if (stringsLength < 0) {
+            throw new IOException("Corrupt store header: " + source);
+        }
+        strings = map(offset + sessionIndex.capacity(), stringsLength, source);
+    }
+
+    // EFFECTS: returns the count at position of header; throws IOException if it is negative
+    private static int count(ByteBuffer header, int position, String source) throws IOException {
+        int count = header.getInt(position);
+        if (count < 0) {
+            throw new IOException("Corrupt store header: " + source);
+        }
+        return count;
+    }
+
+    // EFFECTS: returns the number of slots of a hash index at position of header, which indexes count records;
+    //          throws IOException unless it is a power of two with at least one free slot, so probes end
+    private static int slots(ByteBuffer header, int position, int count, String source) throws IOException {
+        int slots = header.getInt(position);
+        if (slots <= count || Integer.bitCount(slots) != 1) {
+            throw new IOException("Corrupt store header: " + source);
+        }
+        return slots;
+    }
+
+    // EFFECTS: opens the store at source; throws IOException if it cannot be opened or is not a valid store
+    public static MappedStore open(String source) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        try {
+            return new MappedStore(channel, source);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // EFFECTS: writes fm as a store to destination; throws IOException if an error occurs writing the file
+    public static void write(FitnessManager fm, String destination) throws IOException {
+        File file = new File(destination);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        Layout layout = new Layout(fm);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file),
+                1 << 16))) {
+            layout.writeTo(out);
+        }
+    }
+
+    // EFFECTS: returns the number of exercises in the library
+    public int exerciseCount() {
+        return exerciseCount;
+    }
+
+    // EFFECTS: returns the number of training sessions
+    public int sessionCount() {
+        return sessionCount;
+    }
+
+    // REQUIRES: 0 <= index < exerciseCount()
+    // EFFECTS: returns a copy of the exercise at index in the library
+    public Exercise getExercise(int index) {
+        return exerciseAt(index);
+    }
+
+    // REQUIRES: 0 <= index < sessionCount()
+    // EFFECTS: returns a copy of the session at index, with copies of the exercises it contains
+    public TrainingSession getSession(int index) {
+        return sessionAt(index, new HashMap<>());
+    }
+
+    // EFFECTS: returns a copy of the first library exercise with the given name (ignoring case and surrounding
+    //          whitespace), or null
+    public Exercise findExerciseByName(String name) {
+        int index = probe(exerciseIndex, exerciseSlots, FitnessManager.nameKey(name), exercises, EXERCISE_SIZE, 8);
+        return index < 0 ? null : exerciseAt(index);
+    }
+
+    // EFFECTS: returns a copy of the first session with the given name (ignoring case and surrounding
+    //          whitespace), or null
+    public TrainingSession findSessionByName(String name) {
+        int index = probe(sessionIndex, sessionSlots, FitnessManager.nameKey(name), sessions, SESSION_SIZE, 8);
+        return index < 0 ? null : getSession(index);
+    }
+
+    // EFFECTS: reads the whole store into a new FitnessManager; sessions share the library's exercises
+    public FitnessManager load() {
+        FitnessManager fm = new FitnessManager();
+        Map<Integer, Exercise> loaded = new HashMap<>();
+        for (int i = 0; i < exerciseCount; i++) {
+            fm.getExercises().add(loaded.computeIfAbsent(i, this::exerciseAt));
+        }
+        for (int i = 0; i < sessionCount; i++) {
+            fm.getSessions().add(sessionAt(i, loaded));
+        }
+        return fm;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file; mapped pages are released once the store is garbage collected
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // EFFECTS: returns a new exercise built from the record at index (library or extra)
+    private Exercise exerciseAt(int index) {
+        int at = index * EXERCISE_SIZE;
+        return new Exercise(exercises.getLong(at), string(exercises.getInt(at + 8), exercises.getInt(at + 12)),
+                string(exercises.getInt(at + 16), exercises.getInt(at + 20)),
+                exercises.getInt(at + 24), exercises.getInt(at + 28));
+    }
+
+    // MODIFIES: loaded
+    // EFFECTS: returns a new session built from the record at index; its exercises come from loaded,
+    //          which caches the exercises built so far by record index
+    private TrainingSession sessionAt(int index, Map<Integer, Exercise> loaded) {
+        int at = index * SESSION_SIZE;
+        TrainingSession session = new TrainingSession(sessions.getLong(at),
+                string(sessions.getInt(at + 8), sessions.getInt(at + 12)));
+        int first = sessions.getInt(at + 16);
+        int count = sessions.getInt(at + 20);
+        if (first < 0 || count < 0 || first > entries.capacity() / ENTRY_SIZE - count) {
+            throw corrupt("entries of session " + index + " out of range");
+        }
+        for (int i = first; i < first + count; i++) {
+            int exercise = entries.getInt(i * ENTRY_SIZE);
+            if (exercise < 0 || exercise >= exercises.capacity() / EXERCISE_SIZE) {
+                throw corrupt("exercise index " + exercise + " out of range");
+            }
+            Exercise e = loaded.computeIfAbsent(exercise, this::exerciseAt);
+            session.getExerciseSets().put(e, entries.getInt(i * ENTRY_SIZE + 4));
+        }
+        return session;
+    }
+
+    // EFFECTS: returns the record index the hash index maps key to, or -1; nameField is the position of
+    //          the (offset, length) name reference inside a record
+    private int probe(ByteBuffer index, int slots, String key, ByteBuffer records, int recordSize, int nameField) {
+        int hash = hash(key);
+        for (int slot = hash & (slots - 1); ; slot = (slot + 1) & (slots - 1)) {
+            int ref = index.getInt(slot * SLOT_SIZE + 4);
+            if (ref == 0) {
+                return -1;
+            }
+            if (ref < 0 || ref > records.capacity() / recordSize) {
+                throw corrupt("index reference " + ref + " out of range");
+            }
+            int at = (ref - 1) * recordSize + nameField;
+            if (index.getInt(slot * SLOT_SIZE) == hash
+                    && FitnessManager.nameKey(string(records.getInt(at), records.getInt(at + 4))).equals(key)) {
+                return ref - 1;
+            }
+        }
+    }
+
+    // EFFECTS: decodes the string stored at offset in the strings section; throws UncheckedIOException if the
+    //          reference points outside of it
+    private String string(int offset, int length) {
+        if (offset < 0 || length < 0 || offset > strings.capacity() - length) {
+            throw corrupt("string reference out of range");
+        }
+        byte[] bytes = new byte[length];
+        strings.get(offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns the exception thrown when a record of this store is found to be corrupt after opening it
+    private static UncheckedIOException corrupt(String what) {
+        return new UncheckedIOException(new IOException("Corrupt store: " + what));
+    }
+
+    // EFFECTS: maps length bytes of the file starting at offset; throws IOException if the file is too short
+    //          or the section too large to map
+    private ByteBuffer map(long offset, long length, String source) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Store section too large to map: " + source);
+        }
+        if (offset + length > channel.size()) {
+            throw new IOException("Truncated store: " + source);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    // EFFECTS: returns the hash a normalized name is indexed under
+    static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // The records, indexes and strings of a store, computed from a FitnessManager before writing it
+    private static class Layout {
+        private final List<Exercise> exercises = new ArrayList<>();        // library, then extras
+        private final Map<Exercise, Integer> exerciseIndexes = new HashMap<>();
+        private final Map<String, int[]> stringRefs = new HashMap<>();     // string -> {offset, length}
+        private final List<byte[]> stringBytes = new ArrayList<>();
+        private final FitnessManager fm;
+        private long stringsLength;
+        private int entryCount;
+        private int[] exerciseTable;
+        private int[] sessionTable;
+
+        // EFFECTS: lays out the store of fm; throws IOException if a section would be too large for the format
+        Layout(FitnessManager fm) throws IOException {
+            this.fm = fm;
+            for (Exercise e : fm.getExercises()) {
+                addExercise(e);
+            }
+            for (TrainingSession s : fm.getSessions()) {
+                intern(s.getName());
+                entryCount = checkedAdd(entryCount, s.getExerciseSets().size(), "entries");
+                for (Exercise e : s.getExerciseSets().keySet()) {
+                    addExercise(e);
+                }
+            }
+            exerciseTable = newTable(fm.getExercises().size());
+            for (int i = 0; i < fm.getExercises().size(); i++) {
+                insert(exerciseTable, fm.getExercises().get(i).getName(), i);
+            }
+            sessionTable = newTable(fm.getSessions().size());
+            for (int i = 0; i < fm.getSessions().size(); i++) {
+                insert(sessionTable, fm.getSessions().get(i).getName(), i);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: gives e the next record index unless it already has one
+        private void addExercise(Exercise e) throws IOException {
+            if (!exerciseIndexes.containsKey(e)) {
+                exerciseIndexes.put(e, exercises.size());
+                exercises.add(e);
+                intern(e.getName());
+                intern(e.getTargetMuscle());
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: gives s an offset in the strings section unless it already has one; throws IOException if
+        //          the strings section would no longer fit the int offsets of the format
+        private void intern(String s) throws IOException {
+            if (!stringRefs.containsKey(s)) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                int offset = (int) stringsLength;
+                stringsLength = checkedAdd(offset, bytes.length, "strings");
+                stringRefs.put(s, new int[] {offset, bytes.length});
+                stringBytes.add(bytes);
+            }
+        }
+
+        // EFFECTS: returns a + b; throws IOException if it is more than an int can hold
+        private static int checkedAdd(int a, int b, String section) throws IOException {
+            long sum = (long) a + b;
+            if (sum > Integer.MAX_VALUE) {
+                throw new IOException("Too many " + section + " for a store (over 2 GB)");
+            }
+            return (int) sum;
+        }
+
+        // EFFECTS: returns an empty hash table (hash, ref pairs) with at least twice as many slots as entries
+        private static int[] newTable(int entries) {
+            int slots = 1;
+            while (slots < entries * 2) {
+                slots <<= 1;
+            }
+            return new int[slots * 2];
+        }
+
+        // MODIFIES: table
+        // EFFECTS: adds record index of name to table, after any earlier record with the same name
+        private static void insert(int[] table, String name, int index) {
+            int hash = hash(FitnessManager.nameKey(name));
+            int mask = table.length / 2 - 1;
+            int slot = hash & mask;
+            while (table[slot * 2 + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot * 2] = hash;
+            table[slot * 2 + 1] = index + 1;
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the store
+        void writeTo(DataOutputStream out) throws IOException {
+            writeHeader(out);
+            for (Exercise e : exercises) {
+                out.writeLong(e.getId());
+                writeString(out, e.getName());
+                writeString(out, e.getTargetMuscle());
+                out.writeInt(e.getWeight());
+                out.writeInt(e.getReps());
+            }
+            writeSessions(out);
+            for (int value : exerciseTable) {
+                out.writeInt(value);
+            }
+            for (int value : sessionTable) {
+                out.writeInt(value);
+            }
+            for (byte[] bytes : stringBytes) {
+                out.write(bytes);
+            }
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the header, padded to HEADER_SIZE
+        private void writeHeader(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(fm.getExercises().size());
+            out.writeInt(exercises.size() - fm.getExercises().size());
+            out.writeInt(fm.getSessions().size());
+            out.writeInt(entryCount);
+            out.writeInt(exerciseTable.length / 2);
+            out.writeInt(sessionTable.length / 2);
+            out.writeLong(stringsLength);
+            out.write(new byte[HEADER_SIZE - 40]);
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the session records followed by the entries they point at
+        private void writeSessions(DataOutputStream out) throws IOException {
+            int first = 0;
+            for (TrainingSession s : fm.getSessions()) {
+                out.writeLong(s.getId());
+                writeString(out, s.getName());
+                out.writeInt(first);
+                out.writeInt(s.getExerciseSets().size());
+                first += s.getExerciseSets().size();
+            }
+            for (TrainingSession s : fm.getSessions()) {
+                for (Map.Entry<Exercise, Integer> entry : s.getExerciseSets().entrySet()) {
+                    out.writeInt(exerciseIndexes.get(entry.getKey()));
+                    out.writeInt(entry.getValue());
+                }
+            }
+        }
+
+        // MODIFIES: out
+        // EFFECTS: writes the (offset, length) reference to an interned string
+        private void writeString(DataOutputStream out, String s) throws IOException {
+            int[] ref = stringRefs.get(s);
+            out.writeInt(ref[0]);
+            out.writeInt(ref[1]);
+        }
+    }
+}
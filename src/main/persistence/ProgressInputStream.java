@@ -0,0 +1,74 @@
+package persistence;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+// An input stream that counts the bytes read through it and tells a ProgressListener about them every
+// REPORT_INTERVAL bytes. It also makes a load cancellable: once the reading thread is interrupted, the next
+// read throws InterruptedIOException.
+final class ProgressInputStream extends FilterInputStream {
+    private static final int REPORT_INTERVAL = 1 << 16;
+
+    private final long total;
+    private final ProgressListener listener;
+    private long count;      // bytes read so far
+    private long nextReport; // count at which the listener is told next
+
+    // EFFECTS: constructs a stream reading from in, which holds total bytes, that reports to listener
+    ProgressInputStream(InputStream in, long total, ProgressListener listener) {
+        super(in);
+        this.total = total;
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkInterrupted();
+        int b = super.read();
+        advance(b < 0 ? -1 : 1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkInterrupted();
+        int n = super.read(b, off, len);
+        advance(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkInterrupted();
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    // EFFECTS: returns the number of bytes read so far
+    long getCount() {
+        return count;
+    }
+
+    // EFFECTS: throws InterruptedIOException if the current thread has been interrupted
+    private void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Load cancelled");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts n more bytes read (n < 0 meaning the end of the stream), telling the listener if another
+    //          REPORT_INTERVAL bytes have gone by or the end was reached
+    private void advance(long n) {
+        if (n > 0) {
+            count += n;
+        }
+        if (count >= nextReport || n < 0) {
+            listener.progress(count, total);
+            nextReport = count + REPORT_INTERVAL;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package persistence;
+
+// Told how far a load has got, on the thread doing the load
+public interface ProgressListener {
+
+    // EFFECTS: handles the news that bytesRead of the totalBytes to load have been read
+    void progress(long bytesRead, long totalBytes);
+}
@@ -0,0 +1,10 @@
+package persistence;
+
+import java.io.IOException;
+
+// Told about every save an AutoSaver finishes, on the AutoSaver's background thread
+public interface SaveListener {
+
+    // EFFECTS: handles a save that took millis milliseconds, and failed with failure unless it is null
+    void saveFinished(long millis, IOException failure);
+}
@@ -0,0 +1,80 @@
+package persistence;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Variable-length encoding of non-negative ints and longs used by the binary formats: 7 bits per byte,
+// least significant group first, high bit set on every byte but the last. Small values (weights, reps,
+// sets, table indexes) take a single byte.
+final class VarInts {
+    private VarInts() {
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: out
+    // EFFECTS: writes value as a varint
+    static void writeInt(OutputStream out, int value) throws IOException {
+        writeLong(out, value);
+    }
+
+    // REQUIRES: value >= 0
+    // MODIFIES: out
+    // EFFECTS: writes value as a varint
+    static void writeLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    // EFFECTS: reads a varint that must fit in a non-negative int; throws IOException if it does not
+    static int readInt(DataInput in) throws IOException {
+        long value = readLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    // EFFECTS: reads a varint count or length of things that take at least a byte each, e.g. before allocating
+    //          room for them; throws IOException if it is more than the remaining bytes could hold
+    static int readLength(DataInput in, long remaining) throws IOException {
+        int length = readInt(in);
+        if (length > remaining) {
+            throw new IOException("Corrupt data: length " + length + " exceeds the " + remaining + " bytes left");
+        }
+        return length;
+    }
+
+    // EFFECTS: reads a varint that must fit in a non-negative long (at most 63 bits, so 9 bytes); throws
+    //          IOException if it is longer
+    static long readLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 63; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes a signed int zig-zag encoded, so values of small magnitude take a single byte
+    static void writeSignedInt(OutputStream out, int value) throws IOException {
+        writeLong(out, Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+    }
+
+    // EFFECTS: reads an int written by writeSignedInt; throws IOException if it is out of range
+    static int readSignedInt(DataInput in) throws IOException {
+        long raw = readLong(in);
+        if (raw > 0xFFFFFFFFL) {
+            throw new IOException("Varint out of range: " + raw);
+        }
+        int zigZag = (int) raw;
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+}
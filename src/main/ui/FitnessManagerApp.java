@@ -3,10 +3,10 @@ package ui;
 import model.Exercise;
 import model.FitnessManager;
 import model.TrainingSession;
+import persistence.Durability;
 import persistence.JsonReader;
 import persistence.JsonWriter;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Scanner;
@@ -23,7 +23,7 @@ public class FitnessManagerApp {
 
     // EFFECTS: runs the fitness manager application
     public FitnessManagerApp() {
-        jsonWriter = new JsonWriter(JSON_STORE);
+        jsonWriter = new JsonWriter(JSON_STORE, false, Durability.SYNC);
         jsonReader = new JsonReader(JSON_STORE);
 
         runFitnessManager();
@@ -298,7 +298,7 @@ public class FitnessManagerApp {
             jsonWriter.write(manager);
             jsonWriter.close();
             System.out.println("Saved application state to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + JSON_STORE);
         }
     }
@@ -5,7 +5,6 @@ import persistence.*;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Map;
 
@@ -21,7 +20,7 @@ public class FitnessManagerAppGUI extends JFrame {
     public FitnessManagerAppGUI() {
         super("Fitness Manager");
         manager = new FitnessManager();
-        jsonWriter = new JsonWriter(JSON_STORE);
+        jsonWriter = new JsonWriter(JSON_STORE, false, Durability.SYNC);
         jsonReader = new JsonReader(JSON_STORE);
 
         initializeGraphics();
@@ -396,7 +395,7 @@ public class FitnessManagerAppGUI extends JFrame {
             jsonWriter.write(manager);
             jsonWriter.close();
             displayArea.setText("Data saved successfully.");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             displayArea.setText("Error: Unable to save data.");
         }
     }
@@ -2,18 +2,27 @@ package ui;
 
 import model.Exercise;
 import model.FitnessManager;
+import model.FitnessSearch;
+import model.IntensityZone;
+import model.ModelListener;
 import model.TrainingSession;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import model.VolumeAnalytics;
+import model.VolumeStats;
+import persistence.AutoSaver;
+import persistence.Durability;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.swing.border.CompoundBorder;
 
 
@@ -21,9 +30,16 @@ public class FitnessManagerAppGUINew extends JFrame {
 
     // Data / Persistence
     private static final String JSON_STORE = "./data/fitness_manager.json";
-    private final JsonWriter jsonWriter = new JsonWriter(JSON_STORE);
-    private final JsonReader jsonReader = new JsonReader(JSON_STORE);
+    private static final long AUTOSAVE_QUIET_MILLIS = 2000;      // autosave once edits pause this long
+    private static final long AUTOSAVE_MAX_DELAY_MILLIS = 15000; // or this long after the first unsaved edit
+    private final AutoSaver autoSaver = new AutoSaver(JSON_STORE, Durability.SYNC, SwingUtilities::invokeLater,
+            AUTOSAVE_QUIET_MILLIS, AUTOSAVE_MAX_DELAY_MILLIS, this::saveFinished);
     private FitnessManager manager = new FitnessManager();
+    private FitnessSearch search = new FitnessSearch();       // search-as-you-type in the pickers
+    private static final int SEARCH_RESULTS = 50;             // matches listed by a picker
+    private VolumeAnalytics analytics = new VolumeAnalytics(); // volume shown in rows and detail pages
+    private boolean saveRequested; // true while a save asked for with the Save button is running
+    private SwingWorker<LoadedProgram, Void> loader; // the load that is running, or null
 
 
     // UI: top / left / main
@@ -36,6 +52,7 @@ public class FitnessManagerAppGUINew extends JFrame {
     // Compact list styling
     private static final int COMPACT_ROW_HEIGHT = 28;   // fixed row height
     private static final int COMPACT_HPAD = 8;          // left/right padding
+    private static final int ROW_GAP = 4;               // space below each row
     private static final Font ROW_FONT = new Font("SansSerif", Font.PLAIN, 12);
     private static final Insets BTN_INSETS = new Insets(2, 8, 2, 8); // compact button padding
 
@@ -53,11 +70,31 @@ public class FitnessManagerAppGUINew extends JFrame {
     private JLabel totalExercisesLbl;
     private JLabel totalSessionsLbl;
     private JLabel programsSavedLbl;
+    private JLabel lastSaveLbl;
     private int programsSavedCount = 0;
 
-    // dynamic list containers inside the two big cards
-    private JPanel exercisesListPanel;   // vertical list of exercise rows
-    private JPanel sessionsListPanel;    // vertical list of session rows
+    // muscle filter over the two big cards, answered by the manager's muscle index
+    private static final String ALL_MUSCLES = "All muscles";
+    private JComboBox<String> muscleBox;
+    private final List<String> muscleChoices = new ArrayList<>(); // muscle of each muscleBox item after the first
+    private String muscleFilter;              // muscle the dashboard lists are filtered to, or null for none
+    private List<Exercise> filteredExercises = List.of();        // what the lists show while filtered
+    private List<TrainingSession> filteredSessions = List.of();
+    private boolean refilterPending;          // true while a refilter is queued on the EDT
+    private boolean fillingMuscleBox;         // true while muscleBox is being refilled, so it is not a choice
+
+    // live lists inside the two big cards; only the visible rows are painted, by one shared renderer each
+    private final ManagerListModel<Exercise> exercisesModel =
+            new ManagerListModel<>(() -> muscleFilter == null ? manager.getExercises() : filteredExercises);
+    private final ManagerListModel<TrainingSession> sessionsModel =
+            new ManagerListModel<>(() -> muscleFilter == null ? manager.getSessions() : filteredSessions);
+    private JList<Exercise> exercisesList;
+    private JList<TrainingSession> sessionsList;
+    private JScrollPane exScroll;
+    private JScrollPane sesScroll;
+    private JComponent exercisesHint;
+    private JComponent sessionsHint;
+    private final ModelListener dashboard = new DashboardListener();
 
     // Session detail page
     private JPanel sessionDetailPage;    // card for a single session view
@@ -130,11 +167,7 @@ public class FitnessManagerAppGUINew extends JFrame {
         loadBtn.setBorder(new EmptyBorder(8, 16, 8, 16));
 
         saveBtn.addActionListener(e -> saveData());
-        loadBtn.addActionListener(e -> {
-            loadData();
-            refreshAllUI();
-            pushActivity("Loaded program from disk.");
-        });
+        loadBtn.addActionListener(e -> loadData());
  
         right.add(saveBtn);
         right.add(Box.createHorizontalStrut(8));
@@ -192,17 +225,10 @@ public class FitnessManagerAppGUINew extends JFrame {
         saveBtn.addActionListener(e -> saveData());
 
         JButton loadBtn = leftNav("\uD83D\uDCC2  Load Program");
-        loadBtn.addActionListener(e -> {
-            loadData();
-            refreshAllUI();
-            pushActivity("Loaded program from disk.");
-        });
+        loadBtn.addActionListener(e -> loadData());
 
         JButton quitBtn = leftNav("\u23F9\uFE0F  Quit Program");
-        quitBtn.addActionListener(e -> {
-            printEventLogToConsole();
-            System.exit(0);
-        });
+        quitBtn.addActionListener(e -> quit());
 
         sideBar.add(saveBtn);
         sideBar.add(loadBtn);
@@ -236,11 +262,12 @@ public class FitnessManagerAppGUINew extends JFrame {
                 "Create and manage your exercise library. Provide a name, target muscle, weight, and reps for a given exercise.");
         exercisesCard.add(exHeader, BorderLayout.NORTH);
 
-        exercisesListPanel = new JPanel();
-        exercisesListPanel.setOpaque(false);
-        exercisesListPanel.setLayout(new BoxLayout(exercisesListPanel, BoxLayout.Y_AXIS));
+        exercisesList = rowList(exercisesModel, e -> "  " + ellipsize(e.getName(), MAX_NAME_LEN) + " — "
+                + e.getTargetMuscle() + " | " + e.getWeight() + " lbs | " + e.getReps() + " reps",
+                this::openExerciseDetail);
+        exercisesHint = emptyHint("No exercises yet.");
 
-        JScrollPane exScroll = new JScrollPane(exercisesListPanel);
+        exScroll = new JScrollPane(exercisesList);
         exScroll.setBorder(null);
         exScroll.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
         exScroll.getVerticalScrollBar().setUnitIncrement(16);
@@ -263,11 +290,11 @@ public class FitnessManagerAppGUINew extends JFrame {
                 "Build custom training sessions by combining various exercises and listing each ones number of sets.");
         sessionsCard.add(sesHeader, BorderLayout.NORTH);
 
-        sessionsListPanel = new JPanel();
-        sessionsListPanel.setOpaque(false);
-        sessionsListPanel.setLayout(new BoxLayout(sessionsListPanel, BoxLayout.Y_AXIS));
+        sessionsList = rowList(sessionsModel, s -> "  " + ellipsize(s.getName(), MAX_NAME_LEN) + " — "
+                + volumeText(analytics.getSessionVolume(s)), this::openSessionDetail);
+        sessionsHint = emptyHint("No training sessions yet.");
 
-        JScrollPane sesScroll = new JScrollPane(sessionsListPanel);
+        sesScroll = new JScrollPane(sessionsList);
         sesScroll.setBorder(null);
         sesScroll.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
         sesScroll.getVerticalScrollBar().setUnitIncrement(16);
@@ -301,7 +328,7 @@ public class FitnessManagerAppGUINew extends JFrame {
         recent.add(activityScroll, BorderLayout.CENTER);
 
         // counters
-        JPanel counters = new JPanel(new GridLayout(1, 3, 16, 16));
+        JPanel counters = new JPanel(new GridLayout(1, 4, 16, 16));
         counters.setOpaque(false);
         counters.setBorder(new EmptyBorder(16, 0, 0, 0));
         totalExercisesLbl = metricNumber("0");
@@ -310,6 +337,8 @@ public class FitnessManagerAppGUINew extends JFrame {
         counters.add(wrapMetric(totalExercisesLbl, "Total Exercises"));
         counters.add(wrapMetric(totalSessionsLbl, "Training Sessions"));
         counters.add(wrapMetric(programsSavedLbl, "Programs Saved"));
+        lastSaveLbl = metricNumber("-");
+        counters.add(wrapMetric(lastSaveLbl, "Last Save Time"));
 
         home.add(buildWelcomeHeader(), BorderLayout.NORTH);
         home.add(topRow, BorderLayout.CENTER);
@@ -410,10 +439,90 @@ public class FitnessManagerAppGUINew extends JFrame {
         texts.add(Box.createVerticalStrut(4));
         texts.add(subtitle);
 
+        JPanel filter = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        filter.setOpaque(false);
+        filter.add(new JLabel("Muscle group:"));
+        filter.add(buildMuscleFilter());
+
         panel.add(texts, BorderLayout.WEST);
+        panel.add(filter, BorderLayout.EAST);
         return panel;
     }
 
+    // a drop-down of the muscle groups, each with how many exercises target it, that filters both dashboard
+    // lists; its items are read from the manager's muscle index each time it opens
+    private JComboBox<String> buildMuscleFilter() {
+        muscleBox = new JComboBox<>(new String[] {ALL_MUSCLES});
+        muscleBox.setFont(ROW_FONT);
+        muscleBox.addPopupMenuListener(new javax.swing.event.PopupMenuListener() {
+            @Override public void popupMenuWillBecomeVisible(javax.swing.event.PopupMenuEvent e) {
+                fillMuscleBox();
+            }
+
+            @Override public void popupMenuWillBecomeInvisible(javax.swing.event.PopupMenuEvent e) {
+            }
+
+            @Override public void popupMenuCanceled(javax.swing.event.PopupMenuEvent e) {
+            }
+        });
+        muscleBox.addActionListener(e -> {
+            if (!fillingMuscleBox) {
+                int i = muscleBox.getSelectedIndex();
+                muscleFilter = i <= 0 ? null : muscleChoices.get(i - 1);
+                refilter();
+            }
+        });
+        return muscleBox;
+    }
+
+    // refills the muscle drop-down from the current counts, keeping the muscle filtered to selected
+    private void fillMuscleBox() {
+        fillingMuscleBox = true;
+        muscleBox.removeAllItems();
+        muscleBox.addItem(ALL_MUSCLES);
+        muscleChoices.clear();
+        Map<String, Integer> counts = new java.util.LinkedHashMap<>(manager.getMuscleCounts());
+        if (muscleFilter != null && manager.getExercisesTargeting(muscleFilter).isEmpty()) {
+            counts.put(muscleFilter, 0);
+        }
+        int selected = 0;
+        for (Map.Entry<String, Integer> group : counts.entrySet()) {
+            muscleChoices.add(group.getKey());
+            muscleBox.addItem(group.getKey() + " (" + group.getValue() + ")");
+            if (muscleFilter != null && FitnessManager.nameKey(group.getKey())
+                    .equals(FitnessManager.nameKey(muscleFilter))) {
+                selected = muscleChoices.size();
+            }
+        }
+        muscleBox.setSelectedIndex(selected);
+        fillingMuscleBox = false;
+    }
+
+    // recomputes the filtered lists, in time proportional to what they hold, and shows them
+    private void refilter() {
+        refilterPending = false;
+        if (muscleFilter != null) {
+            filteredExercises = new ArrayList<>(manager.getExercisesTargeting(muscleFilter));
+            filteredSessions = new ArrayList<>(manager.getSessionsTargeting(muscleFilter));
+        }
+        exercisesModel.refresh();
+        sessionsModel.refresh();
+        refreshAllUI();
+    }
+
+    // queues one refilter for a burst of changes and returns true if the lists are filtered; otherwise
+    // returns false, and the changed rows are updated one by one
+    private boolean refilterIfFiltered() {
+        if (muscleFilter == null) {
+            return false;
+        }
+        if (!refilterPending) {
+            refilterPending = true;
+            SwingUtilities.invokeLater(this::refilter);
+        }
+        return true;
+    }
+
     // Dialogs / Actions (functionality preserved + list refresh)
 
     private void showCreateExerciseDialog() {
@@ -456,22 +565,31 @@ public class FitnessManagerAppGUINew extends JFrame {
             return;
         }
 
-        String[] names = manager.getExercises().stream().map(Exercise::getName).toArray(String[]::new);
-        String choice = (String) JOptionPane.showInputDialog(
-                this, "Select an exercise to edit:", "Edit Exercise",
-                JOptionPane.PLAIN_MESSAGE, null, names, names[0]
-        );
-        if (choice == null) return;
-
-        Exercise e = manager.findExerciseByName(choice);
-        if (e == null) {
-            toastError("Exercise not found.");
-            return;
-        }
+        Exercise e = chooseExercise("Edit Exercise", "Select an exercise to edit:");
+        if (e == null) return;
 
         openEditExerciseDialog(e);
     }
 
+    // lets the user pick an exercise of the library by typing part of its name or target muscle
+    private Exercise chooseExercise(String title, String prompt) {
+        return SearchChooser.choose(this, title, prompt, q -> q.isBlank()
+                ? firstFew(manager.getExercises()) : search.findExercises(q, SEARCH_RESULTS),
+                e -> e.getName() + " — " + e.getTargetMuscle());
+    }
+
+    // lets the user pick a session by typing part of its name
+    private TrainingSession chooseSession(String title, String prompt) {
+        return SearchChooser.choose(this, title, prompt, q -> q.isBlank()
+                ? firstFew(manager.getSessions()) : search.findSessions(q, SEARCH_RESULTS),
+                TrainingSession::getName);
+    }
+
+    // the first SEARCH_RESULTS items, listed before anything has been typed
+    private <T> List<T> firstFew(List<T> items) {
+        return new ArrayList<>(items.subList(0, Math.min(items.size(), SEARCH_RESULTS)));
+    }
+
     private void openEditExerciseDialog(Exercise e) {
         JTextField nameField = new JTextField(e.getName());
         JTextField muscleField = new JTextField(e.getTargetMuscle());
@@ -522,17 +640,10 @@ public class FitnessManagerAppGUINew extends JFrame {
             return;
         }
 
-        String[] names = manager.getSessions().stream().map(TrainingSession::getName).toArray(String[]::new);
-        String selected = (String) JOptionPane.showInputDialog(
-                this, "Select session to clear:", "Clear Session",
-                JOptionPane.PLAIN_MESSAGE, null, names, names[0]
-        );
-        if (selected == null) return;
-
-        TrainingSession s = manager.findSessionByName(selected);
+        TrainingSession s = chooseSession("Clear Session", "Select session to clear:");
         if (s != null) {
             s.clearSession();
-            pushActivity("Cleared session: " + selected);
+            pushActivity("Cleared session: " + s.getName());
             refreshAllUI();
             toast("Session cleared.");
         }
@@ -543,20 +654,13 @@ public class FitnessManagerAppGUINew extends JFrame {
             toast("Need at least 1 exercise and 1 session first.");
             return;
         }
-        String[] sessions = manager.getSessions().stream().map(TrainingSession::getName).toArray(String[]::new);
-        String[] exercises = manager.getExercises().stream().map(Exercise::getName).toArray(String[]::new);
-
-        String session = (String) JOptionPane.showInputDialog(
-                this, "Select session:", "Add Exercise to Session",
-                JOptionPane.PLAIN_MESSAGE, null, sessions, sessions[0]
-        );
-        if (session == null) return;
+        TrainingSession chosenSession = chooseSession("Add Exercise to Session", "Select session:");
+        if (chosenSession == null) return;
+        String session = chosenSession.getName();
 
-        String exercise = (String) JOptionPane.showInputDialog(
-                this, "Select exercise:", "Add Exercise to Session",
-                JOptionPane.PLAIN_MESSAGE, null, exercises, exercises[0]
-        );
-        if (exercise == null) return;
+        Exercise chosenExercise = chooseExercise("Add Exercise to Session", "Select exercise:");
+        if (chosenExercise == null) return;
+        String exercise = chosenExercise.getName();
 
         String setsStr = JOptionPane.showInputDialog(this, "Enter number of sets:");
         if (setsStr == null) return;
@@ -591,18 +695,8 @@ public class FitnessManagerAppGUINew extends JFrame {
             toast("No exercises to view.");
             return;
         }
-        String[] names = manager.getExercises().stream().map(Exercise::getName).toArray(String[]::new);
-        String choice = (String) JOptionPane.showInputDialog(
-                this, "Select exercise to view:", "Exercise Details",
-                JOptionPane.PLAIN_MESSAGE, null, names, names[0]
-        );
-        if (choice == null) return;
-
-        Exercise e = manager.findExerciseByName(choice);
-        if (e == null) {
-            toastError("Exercise not found.");
-            return;
-        }
+        Exercise e = chooseExercise("Exercise Details", "Select exercise to view:");
+        if (e == null) return;
         openExerciseDetail(e);
     }
 
@@ -611,18 +705,8 @@ public class FitnessManagerAppGUINew extends JFrame {
             toast("No sessions to view.");
             return;
         }
-        String[] names = manager.getSessions().stream().map(TrainingSession::getName).toArray(String[]::new);
-        String choice = (String) JOptionPane.showInputDialog(
-                this, "Select session to view:", "Session Exercises",
-                JOptionPane.PLAIN_MESSAGE, null, names, names[0]
-        );
-        if (choice == null) return;
-
-        TrainingSession s = manager.findSessionByName(choice);
-        if (s == null) {
-            toastError("Session not found.");
-            return;
-        }
+        TrainingSession s = chooseSession("Session Exercises", "Select session to view:");
+        if (s == null) return;
         openSessionDetail(s);
     }
 
@@ -643,29 +727,124 @@ public class FitnessManagerAppGUINew extends JFrame {
         cards.show(mainArea, "text");
     }
 
+    // saves in the background; saveFinished reports back. Autosave only starts once the program was loaded or
+    // saved on purpose, so edits made before loading never overwrite the saved program on their own.
     private void saveData() {
-        try {
-            jsonWriter.open();
-            jsonWriter.write(manager);
-            jsonWriter.close();
-            programsSavedCount++;
-            refreshAllUI();
+        if (loader != null) {
+            toast("Still loading.");
+            return;
+        }
+        saveRequested = true;
+        if (!autoSaver.isWatching()) {
+            autoSaver.watch(manager);
+        }
+        autoSaver.saveNow();
+    }
+
+    // called on the autosave thread after every save, whether asked for or automatic; autosaves only show in
+    // the last save time and the activity list
+    private void saveFinished(long millis, IOException failure) {
+        SwingUtilities.invokeLater(() -> {
+            boolean requested = saveRequested;
+            saveRequested = false;
+            if (failure != null) {
+                toastError("Unable to write to file: " + JSON_STORE);
+                return;
+            }
+            lastSaveLbl.setText(millis + " ms");
+            if (!requested) {
+                pushActivity("Autosaved program to disk.");
+                return;
+            }
+            programsSavedCount++; // only saves asked for count as saved programs
+            refreshHomeCounts();
             pushActivity("Saved program to disk.");
             toast("Saved to " + new File(JSON_STORE).getPath());
-        } catch (FileNotFoundException e) {
-            toastError("Unable to write to file: " + JSON_STORE);
-        }
+        });
     }
 
+    // loads on a worker thread, showing its progress in a dialog that can cancel it; the current program
+    // stays on screen and editable until the loaded one replaces it in loadFinished. Autosave stops while
+    // loading, since the snapshot and journal are read on its thread once the saves already started are written.
     private void loadData() {
+        if (loader != null) {
+            toast("Already loading.");
+            return;
+        }
+        boolean autosaving = autoSaver.isWatching();
+        if (autosaving && autoSaver.isDirty()) {
+            autoSaver.saveNow(); // written before the load reads the files
+        }
+        autoSaver.unwatch();
+        ProgressMonitor monitor = new ProgressMonitor(this, "Loading program...", null, 0, 100);
+        loader = new SwingWorker<>() {
+            @Override
+            protected LoadedProgram doInBackground() throws IOException {
+                return new LoadedProgram(autoSaver.load((read, total) ->
+                        setProgress(total == 0 ? 100 : (int) Math.min(100, read * 100 / total))));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                loader = null;
+                loadFinished(this, autosaving);
+            }
+        };
+        loader.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName()) && loader != null) {
+                monitor.setProgress((Integer) e.getNewValue());
+                if (monitor.isCanceled()) {
+                    loader.cancel(true);
+                }
+            }
+        });
+        loader.execute();
+    }
+
+    // on the EDT once worker has finished: swaps the loaded program in, in one step, or goes back to
+    // autosaving the current one if it was before the load
+    private void loadFinished(SwingWorker<LoadedProgram, Void> worker, boolean autosaving) {
+        if (worker.isCancelled()) {
+            resumeAutosave(autosaving);
+            toast("Load cancelled.");
+            return;
+        }
         try {
-            manager = jsonReader.read();
-            toast("Loaded from " + new File(JSON_STORE).getPath());
-        } catch (IOException e) {
+            showManager(worker.get());
+        } catch (InterruptedException | ExecutionException e) {
+            resumeAutosave(autosaving);
             toastError("Unable to read from file: " + JSON_STORE);
+            return;
+        }
+        autoSaver.watch(manager);
+        pushActivity("Loaded program from disk.");
+        toast("Loaded from " + new File(JSON_STORE).getPath());
+    }
+
+    // autosaves the current program again if it was autosaved before a load that did not replace it; edits
+    // made while loading were not recorded, so this saves it in full
+    private void resumeAutosave(boolean autosaving) {
+        if (autosaving) {
+            autoSaver.watch(manager);
+            autoSaver.saveNow();
         }
     }
 
+    // saves what is not saved yet (if autosave has started), then exits
+    private void quit() {
+        if (loader != null) {
+            loader.cancel(true);
+        }
+        try {
+            autoSaver.close();
+        } catch (IOException e) {
+            System.err.println("Unable to write to file: " + JSON_STORE);
+        }
+        printEventLogToConsole();
+        System.exit(0);
+    }
+
     private void printEventLogToConsole() {
         System.out.println("\nEvent Log:");
         for (model.Event ev : model.EventLog.getInstance()) {
@@ -673,10 +852,12 @@ public class FitnessManagerAppGUINew extends JFrame {
         }
     }
 
+    // brings the counters, empty-list hints and CTAs up to date; the lists themselves follow the manager row
+    // by row through the dashboard listener, so this costs the same however big the library is
     private void refreshAllUI() {
         refreshHomeCounts();
-        rebuildExerciseList();
-        rebuildSessionList();
+        showRowsOrHint(exScroll, exercisesList, exercisesHint);
+        showRowsOrHint(sesScroll, sessionsList, sessionsHint);
         if (startExerciseCTA != null) {
             startExerciseCTA.setVisible(manager.getExercises().isEmpty());
         }
@@ -685,86 +866,147 @@ public class FitnessManagerAppGUINew extends JFrame {
         }
     }
 
-    private void rebuildExerciseList() {
-        exercisesListPanel.removeAll();
-        if (manager.getExercises().isEmpty()) {
-            exercisesListPanel.add(emptyHint("No exercises yet."));
-        } else {
-            for (Exercise e : manager.getExercises()) {
-                exercisesListPanel.add(exerciseRow(e));
-                exercisesListPanel.add(Box.createVerticalStrut(4));
-            }
+    // shows the program that was just loaded in place of the current one, with the search index and
+    // analytics already built for it
+    private void showManager(LoadedProgram loaded) {
+        manager.removeListener(dashboard);
+        manager = loaded.manager;
+        search = loaded.search;
+        analytics = loaded.analytics;
+        manager.addListener(dashboard);
+        refilter();
+    }
+
+    // a loaded manager together with its search index and analytics, built on the loading thread so that
+    // showing a large program does not hold up the EDT
+    private static final class LoadedProgram {
+        private final FitnessManager manager;
+        private final FitnessSearch search = new FitnessSearch();
+        private final VolumeAnalytics analytics = new VolumeAnalytics();
+
+        LoadedProgram(FitnessManager manager) {
+            this.manager = manager;
+            search.watch(manager);
+            analytics.watch(manager);
         }
-        exercisesListPanel.revalidate();
-        exercisesListPanel.repaint();
     }
 
-    private void rebuildSessionList() {
-        sessionsListPanel.removeAll();
-        if (manager.getSessions().isEmpty()) {
-            sessionsListPanel.add(emptyHint("No training sessions yet."));
-        } else {
-            for (TrainingSession s : manager.getSessions()) {
-                sessionsListPanel.add(sessionRow(s));
-                sessionsListPanel.add(Box.createVerticalStrut(4));
+    // keeps the dashboard lists in step with the manager, touching only the rows that changed, or refiltering
+    // them when they are filtered by muscle
+    private class DashboardListener implements ModelListener {
+        @Override
+        public void exerciseAdded(Exercise exercise, int index) {
+            if (!refilterIfFiltered()) {
+                exercisesModel.rowAdded(index);
             }
         }
-        sessionsListPanel.revalidate();
-        sessionsListPanel.repaint();
-    }
 
-    private JPanel exerciseRow(Exercise e) {
-        JPanel row = new JPanel(new BorderLayout());
-        row.setBackground(Color.WHITE);
-        row.setBorder(new LineBorder(new Color(230, 232, 236)));
-        row.setPreferredSize(new Dimension(Integer.MAX_VALUE, COMPACT_ROW_HEIGHT));
-        row.setMaximumSize(new Dimension(Integer.MAX_VALUE, COMPACT_ROW_HEIGHT));
-        row.setMinimumSize(new Dimension(0, COMPACT_ROW_HEIGHT));
+        @Override
+        public void exerciseRemoved(Exercise exercise, int index) {
+            if (!refilterIfFiltered()) {
+                exercisesModel.rowRemoved(index);
+            }
+        }
 
-        String left = ellipsize(e.getName(), MAX_NAME_LEN) + " — " + e.getTargetMuscle()
-                + " | " + e.getWeight() + " lbs | " + e.getReps() + " reps";
-        JLabel lbl = new JLabel("  " + left);
-        lbl.setFont(ROW_FONT);
-        lbl.setBorder(new EmptyBorder(0, COMPACT_HPAD, 0, 0));
-        row.add(lbl, BorderLayout.CENTER);
+        @Override
+        public void exerciseUpdated(Exercise exercise, int index) {
+            if (!refilterIfFiltered()) {
+                exercisesModel.rowChanged(index);
+            }
+            sessionsList.repaint(); // the volume of the sessions containing it changed
+        }
 
-        JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 3));
-        right.setOpaque(false);
+        @Override
+        public void sessionAdded(TrainingSession session, int index) {
+            if (!refilterIfFiltered()) {
+                sessionsModel.rowAdded(index);
+            }
+        }
+
+        @Override
+        public void sessionRemoved(TrainingSession session, int index) {
+            if (!refilterIfFiltered()) {
+                sessionsModel.rowRemoved(index);
+            }
+        }
 
-        row.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        row.addMouseListener(new java.awt.event.MouseAdapter() {
-            @Override public void mouseClicked(java.awt.event.MouseEvent ev) { openExerciseDetail(e); }
+        @Override
+        public void sessionUpdated(TrainingSession session, int index) {
+            if (!refilterIfFiltered()) {
+                sessionsModel.rowChanged(index);
+            }
+        }
+
+        @Override
+        public void sessionExerciseAdded(TrainingSession session, Exercise exercise, int sets) {
+            refilterIfFiltered();
+            sessionsList.repaint();
+        }
+
+        @Override
+        public void sessionExerciseRemoved(TrainingSession session, Exercise exercise) {
+            refilterIfFiltered();
+            sessionsList.repaint();
+        }
+
+        @Override
+        public void sessionExerciseUpdated(TrainingSession session, Exercise exercise, int sets) {
+            sessionsList.repaint();
+        }
+    }
+
+    // a list that paints only its visible rows with one shared renderer; clicking a row opens it
+    private <T> JList<T> rowList(ManagerListModel<T> model, Function<T, String> text, Consumer<T> open) {
+        JList<T> list = new JList<>(model);
+        list.setCellRenderer(new RowRenderer<>(text, ROW_FONT, COMPACT_HPAD, ROW_GAP));
+        // fixed cell sizes, so the list never measures every row; it still stretches to the card's width
+        list.setFixedCellHeight(COMPACT_ROW_HEIGHT + ROW_GAP);
+        list.setFixedCellWidth(1);
+        list.setBackground(Color.WHITE);
+        list.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        list.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override public void mouseClicked(java.awt.event.MouseEvent ev) {
+                int i = list.locationToIndex(ev.getPoint());
+                if (i >= 0 && list.getCellBounds(i, i).contains(ev.getPoint())) {
+                    open.accept(model.getElementAt(i));
+                }
+            }
         });
+        return list;
+    }
 
+    // shows the list in scroll, or hint instead if the list is empty
+    private void showRowsOrHint(JScrollPane scroll, JList<?> list, JComponent hint) {
+        JComponent view = list.getModel().getSize() == 0 ? hint : list;
+        if (scroll.getViewport().getView() != view) {
+            scroll.setViewportView(view);
+        }
+    }
 
-        return row;
+    // e.g. "1,980 lbs | 5 sets"
+    private static String volumeText(VolumeStats v) {
+        return String.format("%,d lbs | %d sets", v.getVolume(), v.getSets());
     }
 
+    // the volume followed by how many sets fall in each intensity zone
+    private static String zonesText(VolumeStats v) {
+        StringBuilder text = new StringBuilder(volumeText(v));
+        for (IntensityZone zone : IntensityZone.values()) {
+            String name = zone.name().toLowerCase(java.util.Locale.ROOT);
+            text.append(" | ").append(v.getSets(zone)).append(' ').append(name);
+        }
+        return text.toString();
+    }
 
-    private JPanel sessionRow(TrainingSession s) {
+    // a compact read-only row for a detail page
+    private JPanel detailRow(String text) {
         JPanel row = new JPanel(new BorderLayout());
-        row.setBackground(Color.WHITE);
+        row.setBackground(new Color(248, 250, 252));
         row.setBorder(new LineBorder(new Color(230, 232, 236)));
+        row.add(new JLabel("  " + text), BorderLayout.CENTER);
         row.setPreferredSize(new Dimension(Integer.MAX_VALUE, COMPACT_ROW_HEIGHT));
         row.setMaximumSize(new Dimension(Integer.MAX_VALUE, COMPACT_ROW_HEIGHT));
         row.setMinimumSize(new Dimension(0, COMPACT_ROW_HEIGHT));
-
-        // clickable row (opens detail)
-        row.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        row.addMouseListener(new java.awt.event.MouseAdapter() {
-            @Override public void mouseClicked(java.awt.event.MouseEvent e) { openSessionDetail(s); }
-        });
-
-        JLabel lbl = new JLabel("  " + ellipsize(s.getName(), MAX_NAME_LEN));
-        lbl.setFont(ROW_FONT);
-        lbl.setBorder(new EmptyBorder(0, COMPACT_HPAD, 0, 0));
-        row.add(lbl, BorderLayout.CENTER);
-
-        JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 6, 3));
-        right.setOpaque(false);
-        // right.add(view);
-        row.add(right, BorderLayout.EAST);
-
         return row;
     }
 
@@ -798,6 +1040,8 @@ public class FitnessManagerAppGUINew extends JFrame {
         if (s.getExerciseSets().isEmpty()) {
             sessionDetailList.add(emptyHint("No exercises in this session yet."));
         } else {
+            sessionDetailList.add(detailRow("Volume: " + zonesText(analytics.getSessionVolume(s))));
+            sessionDetailList.add(Box.createVerticalStrut(6));
             for (Map.Entry<Exercise, Integer> entry : s.getExerciseSets().entrySet()) {
                 Exercise e = entry.getKey();
                 int sets = entry.getValue();
@@ -906,6 +1150,10 @@ public class FitnessManagerAppGUINew extends JFrame {
 
         exerciseDetailList.add(row);
         exerciseDetailList.add(Box.createVerticalStrut(6));
+        int sessions = manager.getSessionsContaining(e).size();
+        exerciseDetailList.add(detailRow("Programmed in " + sessions + (sessions == 1 ? " session: " : " sessions: ")
+                + zonesText(analytics.getExerciseVolume(e))));
+        exerciseDetailList.add(Box.createVerticalStrut(6));
 
         exerciseDetailList.revalidate();
         exerciseDetailList.repaint();
@@ -971,27 +1219,16 @@ public class FitnessManagerAppGUINew extends JFrame {
             return;
         }
 
-        String[] exerciseNames = manager.getExercises().stream()
-                .map(Exercise::getName).toArray(String[]::new);
-
-        JComboBox<String> exercise = new JComboBox<>(exerciseNames);
-        JTextField setsField = new JTextField();
-
-        Object[] fields = {
-                "Exercise:", exercise,
-                "Sets:",     setsField
-        };
-
-        int result = JOptionPane.showConfirmDialog(this, fields,
-                "Add Exercise to " + s.getName(),
-                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        Exercise exercise = chooseExercise("Add Exercise to " + s.getName(), "Exercise:");
+        if (exercise == null) return;
 
-        if (result != JOptionPane.OK_OPTION) return;
+        String setsStr = JOptionPane.showInputDialog(this, "Sets:");
+        if (setsStr == null) return;
 
         try {
-            int sets = Integer.parseInt(setsField.getText().trim());
-            manager.addExerciseToSession(s.getName(), (String) exercise.getSelectedItem(), sets);
-            pushActivity("Added " + exercise.getSelectedItem() + " (" + sets + " sets) to " + s.getName());
+            int sets = Integer.parseInt(setsStr.trim());
+            manager.addExerciseToSession(s.getName(), exercise.getName(), sets);
+            pushActivity("Added " + exercise.getName() + " (" + sets + " sets) to " + s.getName());
             // refresh the detail page and dashboard
             openSessionDetail(s);
             refreshAllUI();
@@ -1021,10 +1258,12 @@ public class FitnessManagerAppGUINew extends JFrame {
         setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
         addWindowListener(new java.awt.event.WindowAdapter() {
             @Override public void windowClosing(java.awt.event.WindowEvent e) {
-                printEventLogToConsole();
-                System.exit(0);
+                quit();
             }
         });
+        manager.addListener(dashboard);
+        search.watch(manager);
+        analytics.watch(manager);
         setVisible(true);
     }
 
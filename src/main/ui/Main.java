@@ -1,7 +1,43 @@
 package ui;
 
+import model.EventHistory;
+import model.EventLog;
+import persistence.AsyncEventAppender;
+import persistence.BackPressure;
+
+import java.io.IOException;
+
 public class Main {
+    private static final int EVENT_LOG_CAPACITY = 10_000; // most recent events kept for the log printed on quit
+    private static final String EVENT_LOG_FILE = "./data/event_log.txt";
+    private static final int EVENT_QUEUE_CAPACITY = 8192;
+    private static final int EVENT_HISTORY_CAPACITY = 10_000; // most recent events that can be queried
+    private static final EventHistory EVENT_HISTORY = new EventHistory(EVENT_HISTORY_CAPACITY);
+
     public static void main(String[] args) throws Exception {
+        EventLog.getInstance().setCapacity(EVENT_LOG_CAPACITY);
+        EventLog.getInstance().addSink(EVENT_HISTORY);
+        recordEventsToFile();
         new FitnessManagerAppGUINew();
     }
+
+    // EFFECTS: returns the history of the EVENT_HISTORY_CAPACITY most recent events, for querying
+    public static EventHistory getEventHistory() {
+        return EVENT_HISTORY;
+    }
+
+    // EFFECTS: appends every logged event to EVENT_LOG_FILE from a background thread, writing out what is
+    //          still queued when the program exits
+    private static void recordEventsToFile() throws IOException {
+        AsyncEventAppender appender = new AsyncEventAppender(EVENT_LOG_FILE, EVENT_QUEUE_CAPACITY,
+                BackPressure.BLOCK);
+        EventLog.getInstance().addSink(appender);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                appender.close();
+            } catch (IOException e) {
+                System.err.println("Unable to write event log: " + e.getMessage());
+            }
+        }));
+    }
 }
@@ -0,0 +1,67 @@
+package ui;
+
+import javax.swing.AbstractListModel;
+import java.util.List;
+import java.util.function.Supplier;
+
+// A list model that shows a list of the FitnessManager (e.g. its exercises) to a JList without copying it: the
+// JList asks only for the rows it is painting. rows is asked for the list each time, so it can follow a manager
+// that has been replaced (e.g. by a load). On the EDT, tell it about each row that changed (e.g. from a
+// ModelListener), or call refresh() after the whole list changed.
+public class ManagerListModel<T> extends AbstractListModel<T> {
+    private final Supplier<List<T>> rows;
+    private int size; // size of the list when last refreshed
+
+    // EFFECTS: constructs a model over the list that rows returns
+    public ManagerListModel(Supplier<List<T>> rows) {
+        this.rows = rows;
+        this.size = rows.get().size();
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public T getElementAt(int index) {
+        return rows.get().get(index);
+    }
+
+    // REQUIRES: a row was just inserted into the list at index
+    // MODIFIES: this
+    // EFFECTS: tells the list about the new row
+    public void rowAdded(int index) {
+        size++;
+        fireIntervalAdded(this, index, index);
+    }
+
+    // REQUIRES: the row at index was just removed from the list
+    // MODIFIES: this
+    // EFFECTS: tells the list that the row is gone
+    public void rowRemoved(int index) {
+        size--;
+        fireIntervalRemoved(this, index, index);
+    }
+
+    // EFFECTS: tells the list to repaint the row at index
+    public void rowChanged(int index) {
+        fireContentsChanged(this, index, index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells the list that rows were added or removed at the end and that every row may have changed,
+    //          so it repaints the rows it shows
+    public void refresh() {
+        int oldSize = size;
+        size = rows.get().size();
+        if (size < oldSize) {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        } else if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        }
+        if (Math.min(size, oldSize) > 0) {
+            fireContentsChanged(this, 0, Math.min(size, oldSize) - 1);
+        }
+    }
+}
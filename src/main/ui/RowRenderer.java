@@ -0,0 +1,34 @@
+package ui;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.util.function.Function;
+
+// Paints every row of a dashboard list with the same label, so a list of any length costs one component.
+// Each row is a bordered box with the row's text, followed by a gap.
+public class RowRenderer<T> extends JLabel implements ListCellRenderer<T> {
+    private final Function<T, String> text;
+
+    // EFFECTS: constructs a renderer that shows the text of a row in font, padded by hpad on the left and
+    //          followed by a gap of gap pixels
+    public RowRenderer(Function<T, String> text, Font font, int hpad, int gap) {
+        this.text = text;
+        setFont(font);
+        setOpaque(false);
+        setBorder(BorderFactory.createCompoundBorder(BorderFactory.createEmptyBorder(0, 0, gap, 0),
+                BorderFactory.createCompoundBorder(BorderFactory.createLineBorder(new Color(230, 232, 236)),
+                        BorderFactory.createEmptyBorder(0, hpad, 0, 0))));
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends T> list, T value, int index,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        setText(text.apply(value));
+        return this;
+    }
+}
@@ -0,0 +1,115 @@
+package ui;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.List;
+import java.util.function.Function;
+
+// A dialog for picking one item (e.g. an exercise) by typing part of its name. Every keystroke asks search
+// for the best matches of what has been typed and lists them, best first; Enter or a double click picks.
+public final class SearchChooser<T> {
+    private final Function<String, List<T>> search;
+    private final JTextField field = new JTextField();
+    private final DefaultListModel<T> results = new DefaultListModel<>();
+    private final JList<T> list = new JList<>(results);
+    private final JOptionPane pane;
+
+    // EFFECTS: constructs a chooser that lists what search finds for the typed text, shown by text, under prompt
+    private SearchChooser(String prompt, Function<String, List<T>> search, Function<T, String> text) {
+        this.search = search;
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Component getListCellRendererComponent(JList<?> l, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(l, text.apply((T) value), index, isSelected,
+                        cellHasFocus);
+            }
+        });
+        JPanel panel = new JPanel(new BorderLayout(0, 6));
+        panel.add(new JLabel(prompt), BorderLayout.NORTH);
+        panel.add(field, BorderLayout.CENTER);
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setPreferredSize(new Dimension(360, 240));
+        panel.add(scroll, BorderLayout.SOUTH);
+        panel.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+        pane = new JOptionPane(panel, JOptionPane.PLAIN_MESSAGE, JOptionPane.OK_CANCEL_OPTION);
+        listen();
+    }
+
+    // EFFECTS: shows a chooser titled title over parent and returns the item picked, or null if cancelled or
+    //          nothing matched
+    public static <T> T choose(Component parent, String title, String prompt, Function<String, List<T>> search,
+                               Function<T, String> text) {
+        SearchChooser<T> chooser = new SearchChooser<>(prompt, search, text);
+        chooser.update();
+        JDialog dialog = chooser.pane.createDialog(parent, title);
+        dialog.addWindowFocusListener(new java.awt.event.WindowAdapter() {
+            @Override public void windowGainedFocus(java.awt.event.WindowEvent e) {
+                chooser.field.requestFocusInWindow();
+            }
+        });
+        dialog.setVisible(true);
+        dialog.dispose();
+        return Integer.valueOf(JOptionPane.OK_OPTION).equals(chooser.pane.getValue()) ? chooser.picked() : null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lists the matches of the text typed so far, the best one selected
+    private void update() {
+        results.clear();
+        results.addAll(search.apply(field.getText()));
+        if (!results.isEmpty()) {
+            list.setSelectedIndex(0);
+        }
+    }
+
+    // EFFECTS: returns the selected item, or null if nothing matched
+    private T picked() {
+        return list.getSelectedValue();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the matches on every keystroke, and picks on Enter or a double click
+    private void listen() {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { update(); }
+            @Override public void removeUpdate(DocumentEvent e) { update(); }
+            @Override public void changedUpdate(DocumentEvent e) { update(); }
+        });
+        field.addActionListener(e -> pane.setValue(JOptionPane.OK_OPTION));
+        field.addKeyListener(new java.awt.event.KeyAdapter() {
+            @Override public void keyPressed(java.awt.event.KeyEvent e) {
+                int step = e.getKeyCode() == java.awt.event.KeyEvent.VK_DOWN ? 1
+                        : e.getKeyCode() == java.awt.event.KeyEvent.VK_UP ? -1 : 0;
+                int next = list.getSelectedIndex() + step;
+                if (step != 0 && next >= 0 && next < results.size()) {
+                    list.setSelectedIndex(next);
+                    list.ensureIndexIsVisible(next);
+                }
+            }
+        });
+        list.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override public void mouseClicked(java.awt.event.MouseEvent e) {
+                if (e.getClickCount() == 2 && list.getSelectedIndex() >= 0) {
+                    pane.setValue(JOptionPane.OK_OPTION);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// A benchmark of ConcurrentFitnessManager under contention: N reader threads look exercises up by name and take
+// snapshots while M writer threads change weights and add and delete exercises, for a fixed time. It prints
+// the reads and writes per second of each mix of 1, 2, 4, ... up to N readers with 0 to M writers. Run it on a
+// multi-core machine:
+//   java -cp <classes>:json.jar model.ConcurrentFitnessManagerBenchmark [N] [M] [seconds]
+// N defaults to the number of available processors, M to 2 and seconds (per mix) to 2; each mix runs once
+// for a second to warm up before it is measured.
+public class ConcurrentFitnessManagerBenchmark {
+    private static final int EXERCISES = 10_000;
+    private static final String[] MUSCLES = {"Chest", "Legs", "Back", "Shoulders", "Arms", "Core"};
+    private static final int SNAPSHOT_EVERY = 64; // a reader takes a snapshot once every this many lookups
+    private static final int WARMUP_MILLIS = 1000;
+
+    // EFFECTS: runs the benchmark and prints the throughput of each mix of readers and writers
+    public static void main(String[] args) throws InterruptedException {
+        int maxReaders = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int maxWriters = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int millis = (int) (1000 * (args.length > 2 ? Double.parseDouble(args[2]) : 2));
+        System.out.printf("%d exercises, %d available processors%n", EXERCISES,
+                Runtime.getRuntime().availableProcessors());
+        for (int writers = 0; writers <= maxWriters; writers++) {
+            for (int readers : counts(maxReaders)) {
+                ConcurrentFitnessManager manager = library();
+                run(manager, readers, writers, WARMUP_MILLIS);
+                long[] done = run(manager, readers, writers, millis);
+                System.out.printf("%2d readers, %2d writers: %12.0f reads/s  %10.0f writes/s%n", readers, writers,
+                        done[0] * 1000.0 / millis, done[1] * 1000.0 / millis);
+            }
+        }
+    }
+
+    // EFFECTS: returns a concurrent manager with EXERCISES exercises
+    private static ConcurrentFitnessManager library() {
+        FitnessManager fm = new FitnessManager();
+        for (int i = 0; i < EXERCISES; i++) {
+            fm.createExercise("Exercise " + i, MUSCLES[i % MUSCLES.length], 5 * (i % 40), 3 + i % 13);
+        }
+        return new ConcurrentFitnessManager(fm);
+    }
+
+    // MODIFIES: manager
+    // EFFECTS: runs the given numbers of readers and writers on manager for millis milliseconds and returns
+    //          the number of reads and of writes they did
+    private static long[] run(ConcurrentFitnessManager manager, int readers, int writers, int millis)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            int seed = r;
+            threads.add(thread(start, () -> read(manager, seed, stop, reads)));
+        }
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            threads.add(thread(start, () -> write(manager, seed, stop, writes)));
+        }
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread t : threads) {
+            t.join();
+        }
+        return new long[] {reads.sum(), writes.sum()};
+    }
+
+    // EFFECTS: looks exercises up by name, taking a snapshot every SNAPSHOT_EVERY lookups, until stop is set;
+    //          counts every lookup and snapshot in reads
+    private static void read(ConcurrentFitnessManager manager, int seed, AtomicBoolean stop, LongAdder reads) {
+        long count = 0;
+        for (int i = seed * 7919; !stop.get(); i++) {
+            if (i % SNAPSHOT_EVERY == 0) {
+                manager.snapshot();
+            } else {
+                manager.findExerciseByName("Exercise " + Math.floorMod(i * 31, EXERCISES));
+            }
+            count++;
+        }
+        reads.add(count);
+    }
+
+    // EFFECTS: changes the weight of an exercise, then creates and deletes an exercise of its own, until stop is
+    //          set; counts every change in writes
+    private static void write(ConcurrentFitnessManager manager, int seed, AtomicBoolean stop, LongAdder writes) {
+        long count = 0;
+        String own = "Writer " + seed + " exercise";
+        for (int i = seed * 104_729; !stop.get(); i++) {
+            String name = "Exercise " + Math.floorMod(i * 17, EXERCISES);
+            int weight = i % 200;
+            manager.update(fm -> fm.findExerciseByName(name).setWeight(weight));
+            manager.createExercise(own, "Legs", weight, 5);
+            manager.deleteExercise(own);
+            count += 3;
+        }
+        writes.add(count);
+    }
+
+    // EFFECTS: starts a thread that waits for start and then runs body
+    private static Thread thread(CountDownLatch start, Runnable body) {
+        Thread t = new Thread(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            body.run();
+        });
+        t.start();
+        return t;
+    }
+
+    // EFFECTS: returns 1, 2, 4, ... up to max, and max itself
+    private static List<Integer> counts(int max) {
+        List<Integer> result = new ArrayList<>();
+        for (int n = 1; n < max; n *= 2) {
+            result.add(n);
+        }
+        result.add(Math.max(1, max));
+        return result;
+    }
+}
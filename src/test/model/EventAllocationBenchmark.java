@@ -0,0 +1,80 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import com.sun.management.ThreadMXBean;
+
+// A benchmark of how much memory logging an event allocates: it changes the weight and reps of every exercise
+// of a large library over and over, and measures the bytes the editing thread allocated per edit, once with
+// structured events (whose description is only built if someone asks for it) and once with every description
+// built as it is logged, as when events were logged as formatted strings. Run:
+//   java -cp <classes>:json.jar model.EventAllocationBenchmark [exercises] [passes]
+// exercises defaults to 10,000 and passes to 20; each figure is the lowest of several runs after warming up.
+public class EventAllocationBenchmark {
+    private static final String[] MUSCLES = {"Chest", "Legs", "Back", "Shoulders", "Arms", "Core"};
+    private static final int LOG_CAPACITY = 1 << 16;
+    private static final int WARMUP_RUNS = 5;
+    private static final int TIMED_RUNS = 7;
+
+    // EFFECTS: runs the benchmark and prints the bytes allocated per edit both ways
+    public static void main(String[] args) {
+        int exercises = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("this JVM cannot measure the memory a thread allocates");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        EventLog.getInstance().setCapacity(LOG_CAPACITY); // the log keeps the same number of events both ways
+        FitnessManager fm = program(exercises);
+        long edits = 2L * exercises * passes;
+        System.out.printf("%d exercises, %d edits per run%n", exercises, edits);
+
+        double structured = bytesPerEdit(threads, fm, passes, edits);
+        EventSink describer = e -> e.getDescription();
+        EventLog.getInstance().addSink(describer);
+        double eager = bytesPerEdit(threads, fm, passes, edits);
+        EventLog.getInstance().removeSink(describer);
+        System.out.printf("structured events:     %8.1f bytes/edit%n", structured);
+        System.out.printf("descriptions built:    %8.1f bytes/edit  (%.2fx)%n", eager, eager / structured);
+    }
+
+    // EFFECTS: returns a manager with the given number of exercises
+    private static FitnessManager program(int exercises) {
+        FitnessManager fm = new FitnessManager();
+        for (int i = 0; i < exercises; i++) {
+            fm.createExercise("Exercise " + i, MUSCLES[i % MUSCLES.length], 5 * (i % 40), 3 + i % 13);
+        }
+        return fm;
+    }
+
+    // MODIFIES: fm
+    // EFFECTS: changes the weight and then the reps of every exercise of fm, passes times
+    private static void edit(FitnessManager fm, int passes) {
+        List<Exercise> library = fm.getExercises();
+        for (int p = 0; p < passes; p++) {
+            for (Exercise e : library) {
+                e.setWeight(e.getWeight() + 5);
+                e.setReps(e.getReps() % 20 + 1);
+            }
+        }
+    }
+
+    // MODIFIES: fm
+    // EFFECTS: edits fm WARMUP_RUNS times, then returns the lowest number of bytes this thread allocated per
+    //          edit over TIMED_RUNS more
+    private static double bytesPerEdit(ThreadMXBean threads, FitnessManager fm, int passes, long edits) {
+        long id = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            edit(fm, passes);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long before = threads.getThreadAllocatedBytes(id);
+            edit(fm, passes);
+            best = Math.min(best, threads.getThreadAllocatedBytes(id) - before);
+        }
+        return (double) best / edits;
+    }
+}
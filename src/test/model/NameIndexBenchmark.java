@@ -0,0 +1,132 @@
+package model;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// A benchmark of the name index of FitnessManager against the linear scans it replaced: on a library of N
+// exercises used by N / 10 sessions, it times looking exercises up by name and deleting exercises, once through
+// findExerciseByName and deleteExercise and once by scanning the library (and every session) as before. Run:
+//   java -cp <classes>:json.jar model.NameIndexBenchmark [N] [lookups] [deletes]
+// N defaults to 100,000, lookups to 1,000 and deletes to 1,000; each time is the best of several runs after
+// warming up.
+public class NameIndexBenchmark {
+    private static final String[] MUSCLES = {"Chest", "Legs", "Back", "Shoulders", "Arms", "Core"};
+    private static final int SESSION_EVERY = 10; // one session per this many exercises
+    private static final int WARMUP_RUNS = 3;
+    private static final int TIMED_RUNS = 5;
+
+    // EFFECTS: runs the benchmark and prints the time of each operation both ways
+    public static void main(String[] args) {
+        int exercises = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int deletes = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        System.out.printf("%d exercises, %d sessions%n", exercises, exercises / SESSION_EVERY);
+
+        FitnessManager library = program(exercises);
+        for (int i = 0; i < lookups; i++) {
+            String name = name(i, lookups, exercises);
+            if (library.findExerciseByName(name) != linearFind(library, name)) {
+                throw new AssertionError("index and scan disagree on " + name);
+            }
+        }
+        report("findExerciseByName x " + lookups,
+                time(exercises, fm -> lookUp(fm, lookups, exercises, false)),
+                time(exercises, fm -> lookUp(fm, lookups, exercises, true)));
+        report("deleteExercise x " + deletes,
+                time(exercises, fm -> delete(fm, deletes, exercises, false)),
+                time(exercises, fm -> delete(fm, deletes, exercises, true)));
+    }
+
+    // EFFECTS: prints the time of an operation by scan and by index
+    private static void report(String operation, double scan, double index) {
+        System.out.printf("%-28s scan: %10.2f ms   index: %8.2f ms  (%.0fx)%n", operation, scan, index,
+                scan / index);
+    }
+
+    // EFFECTS: returns a manager with the given number of exercises and a session of 3 of them per
+    //          SESSION_EVERY exercises
+    private static FitnessManager program(int exercises) {
+        FitnessManager fm = new FitnessManager();
+        for (int i = 0; i < exercises; i++) {
+            fm.createExercise("Exercise " + i, MUSCLES[i % MUSCLES.length], 5 * (i % 40), 3 + i % 13);
+        }
+        List<Exercise> library = fm.getExercises();
+        for (int s = 0; s < exercises / SESSION_EVERY; s++) {
+            TrainingSession session = fm.createSession("Session " + s);
+            for (int k = 0; k < 3; k++) {
+                session.addExercise(library.get((s * SESSION_EVERY + k * 7919) % exercises), 3);
+            }
+        }
+        return fm;
+    }
+
+    // EFFECTS: returns the name of the i-th of count exercises spread evenly over a library of the given size
+    private static String name(int i, int count, int exercises) {
+        return "exercise " + (int) ((long) i * exercises / count) + " ";
+    }
+
+    // EFFECTS: looks up count exercises spread over the library of fm, by index or by scan
+    private static void lookUp(FitnessManager fm, int count, int exercises, boolean indexed) {
+        for (int i = 0; i < count; i++) {
+            String name = name(i, count, exercises);
+            Exercise e = indexed ? fm.findExerciseByName(name) : linearFind(fm, name);
+            if (e == null) {
+                throw new AssertionError(name + " not found");
+            }
+        }
+    }
+
+    // MODIFIES: fm
+    // EFFECTS: deletes count exercises spread over the library of fm, by index or by scan
+    private static void delete(FitnessManager fm, int count, int exercises, boolean indexed) {
+        for (int i = 0; i < count; i++) {
+            String name = name(i, count, exercises);
+            if (!(indexed ? fm.deleteExercise(name) : linearDelete(fm, name))) {
+                throw new AssertionError(name + " not deleted");
+            }
+        }
+    }
+
+    // EFFECTS: finds an exercise by name the way FitnessManager did before it had an index, or returns null
+    private static Exercise linearFind(FitnessManager fm, String name) {
+        for (Exercise e : fm.getExercises()) {
+            if (e.getName().equalsIgnoreCase(name.trim())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: fm
+    // EFFECTS: deletes an exercise the way FitnessManager did before it had an index: finds it by scanning the
+    //          library, then checks every session for it; returns true if it was found
+    private static boolean linearDelete(FitnessManager fm, String name) {
+        Exercise e = linearFind(fm, name);
+        if (e == null) {
+            return false;
+        }
+        fm.getExercises().remove(e);
+        for (TrainingSession s : fm.getSessions()) {
+            if (s.getExerciseSets().containsKey(e)) {
+                s.removeExercise(e);
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: runs work on a fresh manager with the given number of exercises WARMUP_RUNS times, then returns
+    //          the best time of TIMED_RUNS more, in milliseconds, not counting building the managers
+    private static double time(int exercises, Consumer<FitnessManager> work) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            work.accept(program(exercises));
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            FitnessManager fm = program(exercises);
+            long start = System.nanoTime();
+            work.accept(fm);
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
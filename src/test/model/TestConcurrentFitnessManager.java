@@ -0,0 +1,187 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestConcurrentFitnessManager {
+    private ConcurrentFitnessManager manager;
+
+    @BeforeEach
+    void runBefore() {
+        manager = new ConcurrentFitnessManager();
+    }
+
+    @Test
+    void testBehavesLikeFitnessManager() {
+        ExerciseSnapshot squat = manager.createExercise("Squat", "Legs", 225, 5);
+        SessionSnapshot legs = manager.createSession("Leg Day");
+        manager.addExerciseToSession("leg day", "squat", 4);
+
+        ExerciseSnapshot foundSquat = manager.findExerciseByName(" SQUAT ");
+        assertEquals(squat.getId(), foundSquat.getId());
+        assertEquals(225, foundSquat.getWeight());
+        SessionSnapshot foundLegs = manager.findSessionByName("Leg Day");
+        assertEquals(legs.getId(), foundLegs.getId());
+        assertEquals(List.of(4), new ArrayList<>(foundLegs.getExerciseSets().values()));
+        assertNull(manager.findSessionByName("Push Day"));
+        assertNull(manager.findExerciseByName("Bench"));
+        assertEquals(List.of(squat.getId()), ids(manager.getExercises()));
+        assertEquals(List.of(legs.getId()), sessionIds(manager.getSessions()));
+        List<SessionSnapshot> containing = manager.getSessionsContaining("Squat");
+        assertEquals(List.of(legs.getId()), sessionIds(containing));
+        assertEquals(List.of(4), new ArrayList<>(containing.get(0).getExerciseSets().values()));
+        assertTrue(manager.getSessionsContaining("Bench").isEmpty());
+        assertEquals(1, manager.toJson().getJSONArray("exercises").length());
+
+        assertTrue(manager.removeExerciseFromSession("Leg Day", "Squat"));
+        assertTrue(manager.deleteExercise("Squat"));
+        assertTrue(manager.getExercises().isEmpty());
+    }
+
+    @Test
+    void testListsAreReadOnlyCopies() {
+        manager.createExercise("Squat", "Legs", 225, 5);
+        List<ExerciseSnapshot> exercises = manager.getExercises();
+        assertThrows(UnsupportedOperationException.class, () -> exercises.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> manager.getSessions().add(null));
+        assertThrows(UnsupportedOperationException.class, () -> manager.getSessionsContaining("Squat").clear());
+
+        manager.createExercise("Bench", "Chest", 135, 8);
+        assertEquals(1, exercises.size());
+        assertEquals(2, manager.getExercises().size());
+    }
+
+    @Test
+    void testUpdateAndRead() {
+        ExerciseSnapshot squat = manager.createExercise("Squat", "Legs", 225, 5);
+        ExerciseSnapshot before = manager.findExerciseByName("Squat");
+        manager.update(fm -> fm.findExerciseByName("Squat").setWeight(245));
+        assertEquals(225, squat.getWeight());
+        assertEquals(225, before.getWeight());
+        assertEquals(245, manager.getExercises().get(0).getWeight());
+        assertEquals(245, manager.findExerciseByName("Squat").getWeight());
+        assertEquals(245, (int) manager.read(fm -> fm.getExercises().get(0).getWeight()));
+    }
+
+    @Test
+    void testReadersAndWritersUnderContention() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 1000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(thread(failure, () -> {
+                while (!done.get()) {
+                    for (ExerciseSnapshot e : manager.getExercises()) {
+                        ExerciseSnapshot found = manager.findExerciseByName(e.getName());
+                        assertTrue(found == null || found.getId() == e.getId(),
+                                "found the exercise unless it was deleted since");
+                    }
+                }
+            }));
+        }
+        List<Thread> writing = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String prefix = "Writer " + w + " exercise ";
+            writing.add(thread(failure, () -> write(prefix, perWriter)));
+        }
+        join(writing);
+        done.set(true);
+        join(readers);
+
+        assertNull(failure.get());
+        assertEquals(writers * perWriter / 2, manager.getExercises().size());
+        assertEquals(writers, manager.getSessions().size());
+    }
+
+    @Test
+    void testSnapshotIsReusedUntilAChange() {
+        manager.createExercise("Squat", "Legs", 225, 5);
+        FitnessSnapshot first = manager.snapshot();
+        assertSame(first, manager.snapshot());
+        assertSame(first.getExercises(), manager.getExercises());
+
+        manager.addExerciseToSession("Leg Day", "Squat", 3);
+        manager.createSession("Leg Day");
+        FitnessSnapshot second = manager.snapshot();
+        assertNotSame(first, second);
+        assertEquals(0, first.getSessions().size());
+        assertEquals(1, second.getSessions().size());
+    }
+
+    @Test
+    void testSnapshotWhileAnotherThreadReads() throws InterruptedException {
+        manager.createExercise("Squat", "Legs", 225, 5);
+        AtomicReference<FitnessSnapshot> taken = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        manager.read(fm -> {
+            try {
+                join(List.of(thread(failure, () -> taken.set(manager.snapshot()))));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+        assertNull(failure.get());
+        assertEquals(1, taken.get().getExercises().size());
+    }
+
+    // EFFECTS: returns the ids of exercises, in order
+    private List<Long> ids(List<ExerciseSnapshot> exercises) {
+        List<Long> ids = new ArrayList<>();
+        for (ExerciseSnapshot e : exercises) {
+            ids.add(e.getId());
+        }
+        return ids;
+    }
+
+    // EFFECTS: returns the ids of sessions, in order
+    private List<Long> sessionIds(List<SessionSnapshot> sessions) {
+        List<Long> ids = new ArrayList<>();
+        for (SessionSnapshot s : sessions) {
+            ids.add(s.getId());
+        }
+        return ids;
+    }
+
+    // EFFECTS: creates count exercises named prefix + i and a session named prefix, adds every exercise to the
+    //          session, then deletes every other exercise
+    private void write(String prefix, int count) {
+        manager.createSession(prefix);
+        for (int i = 0; i < count; i++) {
+            manager.createExercise(prefix + i, "Legs", i, 5);
+            manager.addExerciseToSession(prefix, prefix + i, 3);
+        }
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(manager.deleteExercise(prefix + i));
+        }
+    }
+
+    // EFFECTS: starts a thread running body, recording the first thing it throws in failure
+    private Thread thread(AtomicReference<Throwable> failure, Runnable body) {
+        Thread t = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+        t.start();
+        return t;
+    }
+
+    // EFFECTS: waits for every thread in threads to finish
+    private void join(List<Thread> threads) throws InterruptedException {
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEvent {
+
+    @BeforeEach
+    void runBefore() {
+        EventLog.getInstance().setCapacity(100);
+        EventLog.getInstance().clear();
+    }
+
+    @AfterEach
+    void runAfter() {
+        EventLog.getInstance().setCapacity(0);
+    }
+
+    @Test
+    void testMessageEvent() {
+        long before = System.currentTimeMillis();
+        Event e = new Event("Saved program.");
+        assertEquals(EventKind.MESSAGE, e.getKind());
+        assertEquals("Saved program.", e.getDescription());
+        assertTrue(e.getTimestamp() >= before && e.getTimestamp() <= System.currentTimeMillis());
+        assertEquals(e.getTimestamp(), e.getDate().getTime());
+        assertEquals(e.getDate() + "\nSaved program.", e.toString());
+    }
+
+    @Test
+    void testStructuredEventFields() {
+        Event e = new Event(EventKind.SETS_ADDED, "Squat", "Leg Day", null, 4);
+        assertEquals("Squat", e.getExercise());
+        assertEquals("Leg Day", e.getSession());
+        assertNull(e.getDetail());
+        assertEquals(4, e.getValue());
+        assertEquals("Added 4sets of Squat to Leg Day!", e.getDescription());
+        assertSame(e.getDescription(), e.getDescription());
+    }
+
+    @Test
+    void testEqualsComparesTimeAndDescription() {
+        Event structured = new Event(EventKind.SESSION_CLEARED, null, "Leg Day", null, 0);
+        Event plain = new Event("Cleared session Leg Day!");
+        assertEquals(structured.getTimestamp() == plain.getTimestamp(), structured.equals(plain));
+        assertEquals(structured, structured);
+        assertNotEquals(structured, null);
+        assertNotEquals(structured, new Event(EventKind.SESSION_CLEARED, null, "Arm Day", null, 0));
+    }
+
+    @Test
+    void testModelLogsSameDescriptionsAsBefore() {
+        FitnessManager fm = new FitnessManager();
+        Exercise squat = fm.createExercise("Squat", "Legs", 225, 5);
+        fm.createSession("Leg Day");
+        fm.addExerciseToSession("Leg Day", "Squat", 3);
+        squat.setWeight(235);
+        squat.setReps(6);
+        squat.setTargetMuscle("Quads");
+        squat.setName("Back Squat");
+        fm.removeExerciseFromSession("Leg Day", "Back Squat");
+        fm.findSessionByName("Leg Day").clearSession();
+        fm.deleteExercise("Back Squat");
+
+        assertEquals(List.of("Event log cleared.", "Created new exercise Squat!", "Created new session Leg Day!",
+                "Added Squat to Leg Day!", "Added 3sets of Squat to Leg Day!", "Changed exercise weight to 235lbs!",
+                "Changed exercise reps to 6 per set!", "Changed exercise target muscle to Quads!",
+                "Changed exercise name to Back Squat!", "Removed Back Squat from Leg Day!",
+                "Removed Back Squat from session Leg Day.", "Cleared session Leg Day!",
+                "Deleted exercise Back Squat from library and all sessions!"), descriptions());
+    }
+
+    // EFFECTS: returns the descriptions of the events in the log, oldest first
+    private List<String> descriptions() {
+        List<String> descriptions = new ArrayList<>();
+        for (Event e : EventLog.getInstance()) {
+            descriptions.add(e.getDescription());
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,163 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEventHistory {
+    private EventHistory history;
+
+    @BeforeEach
+    void runBefore() {
+        history = new EventHistory();
+    }
+
+    @Test
+    void testEmpty() {
+        assertEquals(0, history.size());
+        assertTrue(history.query(Long.MIN_VALUE, Long.MAX_VALUE, null, null, null).isEmpty());
+    }
+
+    @Test
+    void testQueryByKindAndNames() {
+        history.eventLogged(new Event(EventKind.EXERCISE_CREATED, "Bench", null, null, 0));
+        history.eventLogged(new Event(EventKind.SESSION_CREATED, null, "Push", null, 0));
+        history.eventLogged(new Event(EventKind.SETS_ADDED, "Bench", "Push", null, 3));
+        history.eventLogged(new Event(EventKind.SETS_ADDED, "Squat", "Legs", null, 5));
+        history.eventLogged(new Event(EventKind.WEIGHT_CHANGED, "Bench", null, null, 135));
+
+        assertEquals(5, history.size());
+        assertEquals(List.of("Added 3sets of Bench to Push!", "Added 5sets of Squat to Legs!"),
+                descriptions(query(EventKind.SETS_ADDED, null, null)));
+        assertEquals(3, query(null, "bench ", null).size());
+        assertEquals(List.of("Added 3sets of Bench to Push!"),
+                descriptions(query(EventKind.SETS_ADDED, "BENCH", "push")));
+        assertEquals(2, query(null, null, "Push").size());
+        assertTrue(query(EventKind.SESSION_CLEARED, null, null).isEmpty());
+        assertTrue(query(null, "Deadlift", null).isEmpty());
+        assertTrue(query(EventKind.WEIGHT_CHANGED, "Squat", null).isEmpty());
+    }
+
+    @Test
+    void testQueryByTime() throws InterruptedException {
+        Event first = new Event("first");
+        history.eventLogged(first);
+        Thread.sleep(5);
+        Event second = new Event("second");
+        history.eventLogged(second);
+        Thread.sleep(5);
+        Event third = new Event(EventKind.SESSION_CLEARED, null, "Push", null, 0);
+        history.eventLogged(third);
+
+        assertEquals(List.of(second, third), history.query(second.getTimestamp(), Long.MAX_VALUE, null, null, null));
+        assertEquals(List.of(first), history.query(Long.MIN_VALUE, second.getTimestamp(), null, null, null));
+        assertEquals(List.of(third), history.query(second.getTimestamp(), third.getTimestamp() + 1,
+                EventKind.SESSION_CLEARED, null, "Push"));
+        assertTrue(history.query(third.getTimestamp(), first.getTimestamp(), null, null, null).isEmpty());
+    }
+
+    @Test
+    void testEventsFromEventLog() {
+        EventLog.getInstance().addSink(history);
+        new FitnessManager().createSession("Push");
+        EventLog.getInstance().removeSink(history);
+        new FitnessManager().createSession("Pull");
+
+        assertEquals(List.of("Created new session Push!"),
+                descriptions(query(EventKind.SESSION_CREATED, null, null)));
+    }
+
+    @Test
+    void testManyEventsFromManyThreads() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String session = "Session " + p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    history.eventLogged(new Event(EventKind.SETS_ADDED, "Exercise " + i % 100, session, null, i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(producers * perProducer, history.size());
+        List<Event> found = query(EventKind.SETS_ADDED, "Exercise 42", "Session 3");
+        assertEquals(perProducer / 100, found.size());
+        int last = -1;
+        for (Event e : found) {
+            assertTrue(e.getValue() > last);
+            last = e.getValue();
+        }
+        assertEquals(perProducer, query(null, null, "Session 7").size());
+    }
+
+    @Test
+    void testQueriesWhileLogging() throws InterruptedException {
+        int count = 100_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                history.eventLogged(new Event(EventKind.SETS_ADDED, "Bench", "Push", null, i));
+            }
+        });
+        producer.start();
+        int seen = 0;
+        while (producer.isAlive() || seen < count) {
+            List<Integer> values = values(query(EventKind.SETS_ADDED, "Bench", null));
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(i, values.get(i), "every event once, in order");
+            }
+            seen = values.size();
+        }
+        producer.join();
+        assertEquals(count, history.size());
+    }
+
+    @Test
+    void testKeepsOnlyMostRecentEvents() {
+        history = new EventHistory(3);
+        for (int i = 0; i < 10; i++) {
+            history.eventLogged(new Event(EventKind.SETS_ADDED, "Exercise " + i % 2, "Session " + i, null, i));
+        }
+
+        assertEquals(3, history.size());
+        assertEquals(3, history.getCapacity());
+        assertEquals(List.of(7, 8, 9), values(query(null, null, null)));
+        assertEquals(List.of(7, 9), values(query(EventKind.SETS_ADDED, "Exercise 1", null)));
+        assertEquals(List.of(8), values(query(null, "Exercise 0", null)));
+        assertTrue(query(null, null, "Session 6").isEmpty());
+        assertEquals(List.of(9), values(query(null, null, "Session 9")));
+        assertThrows(IllegalArgumentException.class, () -> new EventHistory(0));
+    }
+
+    // EFFECTS: returns the values of events, in order
+    private List<Integer> values(List<Event> events) {
+        List<Integer> values = new ArrayList<>();
+        for (Event e : events) {
+            values.add(e.getValue());
+        }
+        return values;
+    }
+
+    // EFFECTS: returns the events of history of kind about exercise and session, at any time
+    private List<Event> query(EventKind kind, String exercise, String session) {
+        return history.query(Long.MIN_VALUE, Long.MAX_VALUE, kind, exercise, session);
+    }
+
+    // EFFECTS: returns the descriptions of events, in order
+    private List<String> descriptions(List<Event> events) {
+        List<String> descriptions = new ArrayList<>();
+        for (Event e : events) {
+            descriptions.add(e.getDescription());
+        }
+        return descriptions;
+    }
+}
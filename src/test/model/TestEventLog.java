@@ -0,0 +1,206 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEventLog {
+
+    @AfterEach
+    void runAfter() {
+        EventLog.getInstance().setCapacity(0);
+    }
+
+    @Test
+    void testUnboundedByDefault() {
+        EventLog log = EventLog.getInstance();
+        log.clear();
+        for (int i = 0; i < 50; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        assertEquals(0, log.getCapacity());
+        assertEquals(51, descriptions(log).size());
+    }
+
+    @Test
+    void testBoundedLogKeepsNewestEvents() {
+        EventLog log = EventLog.getInstance();
+        log.setCapacity(3);
+        assertEquals(3, log.getCapacity());
+        for (int i = 0; i < 10; i++) {
+            log.logEvent(new Event("event " + i));
+        }
+        assertEquals(List.of("event 7", "event 8", "event 9"), descriptions(log));
+
+        log.clear();
+        assertEquals(List.of("Event log cleared."), descriptions(log));
+    }
+
+    @Test
+    void testSetCapacityKeepsNewestEvents() {
+        EventLog log = EventLog.getInstance();
+        log.clear();
+        log.logEvent(new Event("a"));
+        log.logEvent(new Event("b"));
+        log.setCapacity(2);
+        assertEquals(List.of("a", "b"), descriptions(log));
+        log.setCapacity(1);
+        assertEquals(List.of("b"), descriptions(log));
+        log.setCapacity(0);
+        log.logEvent(new Event("c"));
+        assertEquals(List.of("b", "c"), descriptions(log));
+    }
+
+    @Test
+    void testIteratorIsSnapshotOfWindow() {
+        EventLog log = EventLog.getInstance();
+        log.setCapacity(2);
+        log.logEvent(new Event("a"));
+        log.logEvent(new Event("b"));
+        Iterator<Event> it = log.iterator();
+        log.logEvent(new Event("c"));
+        assertEquals("a", it.next().getDescription());
+        assertEquals("b", it.next().getDescription());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void testRingConcurrentProducers() throws InterruptedException {
+        EventRing ring = new EventRing(1000);
+        int producers = 8;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String prefix = p + ":";
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.add(new Event(prefix + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        List<Event> window = ring.snapshot();
+        assertEquals(1000, window.size());
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        Set<String> seen = new HashSet<>();
+        for (Event e : window) {
+            String[] parts = e.getDescription().split(":");
+            int producer = Integer.parseInt(parts[0]);
+            int i = Integer.parseInt(parts[1]);
+            assertTrue(i > last[producer], "events of one producer stay in order");
+            last[producer] = i;
+            assertTrue(seen.add(e.getDescription()));
+        }
+        assertTrue(seen.stream().anyMatch(d -> d.endsWith(":" + (perProducer - 1))));
+    }
+
+    @Test
+    void testGetInstanceFromManyThreads() throws InterruptedException {
+        Set<EventLog> instances = ConcurrentHashMap.newKeySet();
+        runThreads(16, t -> instances.add(EventLog.getInstance()));
+        assertEquals(Set.of(EventLog.getInstance()), instances);
+    }
+
+    @Test
+    void testUnboundedConcurrentProducersAndReaders() throws InterruptedException {
+        assertNoLossWhileReading(EventLog.getInstance(), 8, 20_000);
+    }
+
+    @Test
+    void testBoundedConcurrentProducersAndReaders() throws InterruptedException {
+        EventLog log = EventLog.getInstance();
+        log.setCapacity(500);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = startReader(log, done, failure, window -> assertTrue(window <= 500));
+        runThreads(8, t -> {
+            for (int i = 0; i < 20_000; i++) {
+                log.logEvent(new Event(t + ":" + i));
+            }
+        });
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(500, descriptions(log).size());
+    }
+
+    // EFFECTS: logs perProducer events to log from each of producers threads while two other threads keep
+    //          iterating over it, then checks that readers never failed and that every event is in the log
+    private void assertNoLossWhileReading(EventLog log, int producers, int perProducer)
+            throws InterruptedException {
+        log.clear();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = List.of(startReader(log, done, failure, window -> { }),
+                startReader(log, done, failure, window -> { }));
+        runThreads(producers, t -> {
+            for (int i = 0; i < perProducer; i++) {
+                log.logEvent(new Event(t + ":" + i));
+            }
+        });
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        Set<String> seen = new HashSet<>(descriptions(log));
+        assertEquals(producers * perProducer + 1, seen.size());
+        log.clear();
+    }
+
+    // EFFECTS: starts a thread that iterates over log until done, handing the number of events it saw on
+    //          each pass to check, and recording the first thing thrown in failure
+    private Thread startReader(EventLog log, AtomicBoolean done, AtomicReference<Throwable> failure,
+                               IntConsumer check) {
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    check.accept(descriptions(log).size());
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+        reader.start();
+        return reader;
+    }
+
+    // EFFECTS: runs body on each of count threads, passing it the thread's number, and waits for them all
+    private void runThreads(int count, IntConsumer body) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < count; t++) {
+            int number = t;
+            threads.add(new Thread(() -> body.accept(number)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    // EFFECTS: returns the descriptions of the events in log, in iteration order
+    private List<String> descriptions(EventLog log) {
+        List<String> descriptions = new ArrayList<>();
+        for (Event e : log) {
+            descriptions.add(e.getDescription());
+        }
+        return descriptions;
+    }
+}
@@ -3,6 +3,10 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestExercise {
@@ -33,4 +37,46 @@ public class TestExercise {
         assertEquals(15, testExercise.getWeight());
         assertEquals(20, testExercise.getReps());
     }
+
+    @Test
+    void testIdsAreUniqueAndStable() {
+        Exercise other = new Exercise("Curl", "Bicep", 30, 12);
+        assertNotEquals(testExercise.getId(), other.getId());
+        assertNotEquals(testExercise, other);
+
+        long id = testExercise.getId();
+        testExercise.setName("Hammer Curl");
+        testExercise.setWeight(40);
+        assertEquals(id, testExercise.getId());
+    }
+
+    @Test
+    void testKnownIdConstructor() {
+        Exercise copy = new Exercise(testExercise.getId(), "Curl", "Bicep", 30, 12);
+        assertEquals(testExercise, copy);
+        assertEquals(testExercise.hashCode(), copy.hashCode());
+
+        Exercise restored = new Exercise(1_000_000, "Row", "Back", 90, 10);
+        assertTrue(new Exercise("Dip", "Tricep", 0, 20).getId() > restored.getId());
+    }
+
+    @Test
+    void testRestoreUpdatesManagerWithoutLogging() {
+        FitnessManager manager = new FitnessManager();
+        Exercise curl = manager.createExercise("Curl", "Bicep", 30, 12);
+        manager.createSession("Arms").addExercise(curl, 3);
+        List<Event> logged = new ArrayList<>();
+        EventSink sink = logged::add;
+        EventLog.getInstance().addSink(sink);
+        curl.restore("Hammer Curl", "Forearm", 35, 10);
+        EventLog.getInstance().removeSink(sink);
+
+        assertTrue(logged.isEmpty());
+        assertSame(curl, manager.findExerciseByName("hammer curl"));
+        assertNull(manager.findExerciseByName("Curl"));
+        assertEquals(Set.of(curl), manager.getExercisesTargeting("forearm"));
+        assertEquals(Set.of(manager.findSessionByName("Arms")), manager.getSessionsTargeting("Forearm"));
+        assertEquals(35, manager.snapshot().getExercises().get(0).getWeight());
+        assertEquals(10, curl.getReps());
+    }
 }
@@ -3,6 +3,9 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TestFitnessManager {
@@ -87,4 +90,234 @@ public class TestFitnessManager {
         assertNull(testManager.findExerciseByName("Squat"));
 
     }
+
+    @Test
+    void testFindByNameIgnoresCaseAndWhitespace() {
+        Exercise squat = testManager.createExercise("Squat", "Legs", 225, 5);
+        TrainingSession legDay = testManager.createSession("Leg Day");
+
+        assertSame(squat, testManager.findExerciseByName("  sQuAt "));
+        assertSame(legDay, testManager.findSessionByName("LEG DAY"));
+    }
+
+    @Test
+    void testFindByNameAfterRename() {
+        Exercise squat = testManager.createExercise("Squat", "Legs", 225, 5);
+        TrainingSession legDay = testManager.createSession("Leg Day");
+
+        squat.setName("Back Squat");
+        legDay.setName("Legs");
+
+        assertNull(testManager.findExerciseByName("Squat"));
+        assertSame(squat, testManager.findExerciseByName("Back Squat"));
+        assertNull(testManager.findSessionByName("Leg Day"));
+        assertSame(legDay, testManager.findSessionByName("Legs"));
+    }
+
+    @Test
+    void testFindByNameAfterDelete() {
+        testManager.createExercise("Squat", "Legs", 225, 5);
+        assertTrue(testManager.deleteExercise("Squat"));
+
+        assertNull(testManager.findExerciseByName("Squat"));
+        assertFalse(testManager.deleteExercise("Squat"));
+    }
+
+    @Test
+    void testFindByNameWithDuplicateNames() {
+        Exercise first = testManager.createExercise("Curl", "Bicep", 30, 12);
+        Exercise second = testManager.createExercise("Curl", "Bicep", 35, 10);
+        assertSame(first, testManager.findExerciseByName("Curl"));
+
+        testManager.getExercises().remove(first);
+        assertSame(second, testManager.findExerciseByName("Curl"));
+    }
+
+    @Test
+    void testFindByNameWithDuplicateNamesAfterRenamesAndDeletes() {
+        Exercise first = testManager.createExercise("Curl", "Bicep", 30, 12);
+        Exercise second = testManager.createExercise(" curl", "Bicep", 35, 10);
+        Exercise third = testManager.createExercise("CURL", "Bicep", 40, 8);
+        testManager.getExercises().remove(second);
+        assertSame(first, testManager.findExerciseByName("Curl"));
+        first.setName("Hammer Curl");
+        assertSame(third, testManager.findExerciseByName("Curl"));
+        assertSame(first, testManager.findExerciseByName("hammer curl"));
+        third.setName("Hammer Curl");
+        assertNull(testManager.findExerciseByName("Curl"));
+        assertSame(first, testManager.findExerciseByName("Hammer Curl"));
+
+        TrainingSession push = testManager.createSession("Push");
+        TrainingSession again = testManager.createSession("Push");
+        testManager.getSessions().remove(push);
+        assertSame(again, testManager.findSessionByName("push"));
+    }
+
+    @Test
+    void testFindByNameAfterDirectListChanges() {
+        Exercise dip = new Exercise("Dip", "Tricep", 0, 20);
+        testManager.getExercises().add(dip);
+        TrainingSession push = new TrainingSession("Push Day");
+        testManager.getSessions().add(push);
+
+        assertSame(dip, testManager.findExerciseByName("dip"));
+        assertSame(push, testManager.findSessionByName("push day"));
+
+        testManager.getExercises().clear();
+        testManager.getSessions().clear();
+        assertNull(testManager.findExerciseByName("Dip"));
+        assertNull(testManager.findSessionByName("Push Day"));
+
+        dip.setName("Weighted Dip"); // no longer in the library, must not be re-indexed
+        assertNull(testManager.findExerciseByName("Weighted Dip"));
+    }
+
+    @Test
+    void testGetSessionsContaining() {
+        Exercise squat = testManager.createExercise("Squat", "Legs", 225, 5);
+        Exercise curl = testManager.createExercise("Curl", "Bicep", 30, 12);
+        TrainingSession legDay = testManager.createSession("Leg Day");
+        TrainingSession fullBody = testManager.createSession("Full Body");
+        assertTrue(testManager.getSessionsContaining(squat).isEmpty());
+
+        testManager.addExerciseToSession("Leg Day", "Squat", 3);
+        fullBody.addExercise(squat, 2);
+        fullBody.addExercise(curl, 2);
+        assertEquals(2, testManager.getSessionsContaining(squat).size());
+        assertTrue(testManager.getSessionsContaining(squat).contains(legDay));
+        assertTrue(testManager.getSessionsContaining(squat).contains(fullBody));
+
+        fullBody.removeExercise(squat);
+        assertEquals(1, testManager.getSessionsContaining(squat).size());
+        fullBody.clearSession();
+        assertTrue(testManager.getSessionsContaining(curl).isEmpty());
+    }
+
+    @Test
+    void testGetSessionsContainingPrebuiltSession() {
+        Exercise dip = new Exercise("Dip", "Tricep", 0, 20);
+        TrainingSession push = new TrainingSession("Push Day");
+        push.getExerciseSets().put(dip, 3);
+        testManager.getSessions().add(push);
+        assertTrue(testManager.getSessionsContaining(dip).contains(push));
+
+        testManager.getSessions().remove(push);
+        assertTrue(testManager.getSessionsContaining(dip).isEmpty());
+    }
+
+    @Test
+    void testDeleteExerciseRemovesFromSessions() {
+        Exercise squat = testManager.createExercise("Squat", "Legs", 225, 5);
+        TrainingSession legDay = testManager.createSession("Leg Day");
+        TrainingSession armDay = testManager.createSession("Arm Day");
+        testManager.addExerciseToSession("Leg Day", "Squat", 3);
+
+        assertTrue(testManager.deleteExercise("squat"));
+        assertFalse(legDay.getExerciseSets().containsKey(squat));
+        assertTrue(armDay.getExerciseSets().isEmpty());
+        assertTrue(testManager.getSessionsContaining(squat).isEmpty());
+        assertFalse(testManager.getExercises().contains(squat));
+    }
+
+    @Test
+    void testListenersSeeChanges() {
+        List<String> changes = new ArrayList<>();
+        ModelListener listener = new ModelListener() {
+            @Override
+            public void exerciseAdded(Exercise e, int index) {
+                changes.add("+" + e.getName());
+            }
+
+            @Override
+            public void exerciseUpdated(Exercise e, int index) {
+                changes.add("~" + e.getName() + e.getWeight());
+            }
+
+            @Override
+            public void sessionAdded(TrainingSession s, int index) {
+                changes.add("+" + s.getName() + s.getExerciseSets().size());
+            }
+
+            @Override
+            public void sessionExerciseAdded(TrainingSession s, Exercise e, int sets) {
+                changes.add(s.getName() + "+" + e.getName() + sets);
+            }
+
+            @Override
+            public void sessionExerciseUpdated(TrainingSession s, Exercise e, int sets) {
+                changes.add(s.getName() + "~" + e.getName() + sets);
+            }
+
+            @Override
+            public void sessionExerciseRemoved(TrainingSession s, Exercise e) {
+                changes.add(s.getName() + "-" + e.getName());
+            }
+        };
+        testManager.addListener(listener);
+        Exercise squat = testManager.createExercise("Squat", "Legs", 225, 5);
+        squat.setWeight(235);
+        TrainingSession legDay = testManager.createSession("Leg Day");
+        legDay.addExercise(squat, 3);
+        legDay.getExerciseSets().put(squat, 3);
+        legDay.getExerciseSets().put(squat, 4);
+        legDay.getExerciseSets().entrySet().iterator().next().setValue(5);
+        legDay.clearSession();
+        TrainingSession armDay = new TrainingSession("Arm Day");
+        armDay.addExercise(squat, 1);
+        testManager.getSessions().add(armDay);
+        testManager.removeListener(listener);
+        squat.setReps(6);
+
+        assertEquals(List.of("+Squat", "~Squat235", "+Leg Day0", "Leg Day+Squat3", "Leg Day~Squat4",
+                "Leg Day~Squat5", "Leg Day-Squat", "+Arm Day1"), changes);
+    }
+
+    @Test
+    void testListenersSeeIndexes() {
+        Exercise squat = testManager.createExercise("Squat", "Legs", 225, 5);
+        Exercise bench = testManager.createExercise("Bench", "Chest", 135, 8);
+        TrainingSession push = testManager.createSession("Push");
+        List<String> changes = new ArrayList<>();
+        testManager.addListener(new ModelListener() {
+            @Override
+            public void exerciseAdded(Exercise e, int index) {
+                changes.add("+" + e.getName() + index);
+            }
+
+            @Override
+            public void exerciseRemoved(Exercise e, int index) {
+                changes.add("-" + e.getName() + index);
+            }
+
+            @Override
+            public void exerciseUpdated(Exercise e, int index) {
+                changes.add("~" + e.getName() + index);
+            }
+
+            @Override
+            public void sessionAdded(TrainingSession s, int index) {
+                changes.add("+" + s.getName() + index);
+            }
+
+            @Override
+            public void sessionRemoved(TrainingSession s, int index) {
+                changes.add("-" + s.getName() + index);
+            }
+
+            @Override
+            public void sessionUpdated(TrainingSession s, int index) {
+                changes.add("~" + s.getName() + index);
+            }
+        });
+        testManager.getExercises().add(0, new Exercise("Dip", "Tricep", 0, 10));
+        bench.setReps(10);
+        testManager.deleteExercise("Squat");
+        bench.setName("Incline");
+        testManager.createSession("Pull");
+        testManager.getSessions().remove(push);
+        testManager.getSessions().get(0).setName("Back");
+
+        assertEquals(List.of("+Dip0", "~Bench2", "-Squat1", "~Incline1", "+Pull1", "-Push0", "~Back0"), changes);
+        assertFalse(testManager.getExercises().contains(squat));
+    }
 }
@@ -0,0 +1,60 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFitnessSearch {
+    private FitnessManager manager;
+    private FitnessSearch search;
+
+    @BeforeEach
+    void runBefore() {
+        manager = new FitnessManager();
+        manager.createExercise("Bench Press", "Chest", 185, 8);
+        manager.createSession("Push Day");
+        search = new FitnessSearch();
+        search.watch(manager);
+    }
+
+    @Test
+    void testFindsWhatWasThereBeforeWatching() {
+        assertEquals("Bench Press", search.findExercises("bench", 5).get(0).getName());
+        assertEquals("Bench Press", search.findExercises("chest", 5).get(0).getName());
+        assertEquals("Push Day", search.findSessions("push", 5).get(0).getName());
+    }
+
+    @Test
+    void testFollowsChanges() {
+        Exercise squat = manager.createExercise("Squat", "Legs", 225, 5);
+        TrainingSession legs = manager.createSession("Leg Day");
+        assertEquals(List.of(squat), search.findExercises("squ", 5));
+        assertEquals(List.of(legs), search.findSessions("leg", 5));
+
+        squat.setTargetMuscle("Quads");
+        assertTrue(search.findExercises("legs", 5).isEmpty());
+        assertEquals(List.of(squat), search.findExercises("quads", 5));
+        legs.setName("Lower Body");
+        assertEquals(List.of(legs), search.findSessions("lower", 5));
+
+        manager.deleteExercise("Squat");
+        manager.getSessions().remove(legs);
+        assertTrue(search.findExercises("squat", 5).isEmpty());
+        assertTrue(search.findSessions("lower", 5).isEmpty());
+    }
+
+    @Test
+    void testWatchAnotherManager() {
+        FitnessManager loaded = new FitnessManager();
+        loaded.createExercise("Deadlift", "Back", 315, 3);
+        search.watch(loaded);
+        manager.createExercise("Deadlift Variation", "Back", 225, 5);
+
+        assertTrue(search.findExercises("bench", 5).isEmpty());
+        assertEquals(1, search.findExercises("deadlift", 5).size());
+        assertTrue(search.findSessions("push", 5).isEmpty());
+    }
+}
@@ -0,0 +1,173 @@
+package model;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFitnessSnapshot {
+    private FitnessManager manager;
+
+    @BeforeEach
+    void runBefore() {
+        manager = new FitnessManager();
+    }
+
+    @Test
+    void testEmpty() {
+        FitnessSnapshot snapshot = manager.snapshot();
+        assertTrue(snapshot.getExercises().isEmpty());
+        assertTrue(snapshot.getSessions().isEmpty());
+    }
+
+    @Test
+    void testSnapshotMatchesManager() {
+        Exercise bench = manager.createExercise("Bench", "Chest", 135, 8);
+        manager.createSession("Push");
+        manager.addExerciseToSession("Push", "Bench", 3);
+
+        FitnessSnapshot snapshot = manager.snapshot();
+        assertSame(snapshot, manager.snapshot());
+        assertTrue(snapshot.toJson().similar(manager.toJson()));
+        ExerciseSnapshot benchSnapshot = snapshot.getExercises().get(0);
+        assertEquals(bench.getId(), benchSnapshot.getId());
+        assertEquals("Chest", benchSnapshot.getTargetMuscle());
+        SessionSnapshot push = snapshot.getSessions().get(0);
+        assertEquals("Push", push.getName());
+        assertSame(benchSnapshot, push.getExerciseSets().keySet().iterator().next(), "shared with the library");
+        assertEquals(3, push.getExerciseSets().get(benchSnapshot));
+    }
+
+    @Test
+    void testSnapshotIgnoresLaterChanges() {
+        Exercise bench = manager.createExercise("Bench", "Chest", 135, 8);
+        TrainingSession push = manager.createSession("Push");
+        manager.addExerciseToSession("Push", "Bench", 3);
+        FitnessSnapshot snapshot = manager.snapshot();
+        JSONObject before = manager.toJson();
+
+        bench.setWeight(145);
+        bench.setName("Bench Press");
+        push.getExerciseSets().put(bench, 5);
+        push.setName("Push Day");
+        manager.createExercise("Dip", "Tricep", 0, 12);
+        manager.createSession("Pull");
+        manager.deleteExercise("Bench Press");
+
+        assertTrue(snapshot.toJson().similar(before));
+        assertNotSame(snapshot, manager.snapshot());
+        assertTrue(manager.snapshot().toJson().similar(manager.toJson()));
+    }
+
+    @Test
+    void testSessionsSeeEditsToTheirExercisesAtTheNextSnapshot() {
+        Exercise bench = manager.createExercise("Bench", "Chest", 135, 8);
+        manager.createExercise("Dip", "Tricep", 0, 12);
+        manager.createSession("Push");
+        manager.createSession("Upper");
+        manager.addExerciseToSession("Push", "Bench", 3);
+        manager.addExerciseToSession("Upper", "Bench", 2);
+        manager.addExerciseToSession("Upper", "Dip", 4);
+        FitnessSnapshot before = manager.snapshot();
+
+        bench.setWeight(145);
+        bench.setReps(6);
+        bench.setName("Bench Press");
+        manager.removeExerciseFromSession("Upper", "Bench Press");
+
+        FitnessSnapshot after = manager.snapshot();
+        assertTrue(after.toJson().similar(manager.toJson()));
+        ExerciseSnapshot benchSnapshot = after.getExercises().get(0);
+        assertEquals(145, benchSnapshot.getWeight());
+        assertSame(benchSnapshot, after.getSessions().get(0).getExerciseSets().keySet().iterator().next());
+        assertEquals(1, after.getSessions().get(1).getExerciseSets().size());
+        assertEquals(135, before.getSessions().get(0).getExerciseSets().keySet().iterator().next().getWeight());
+        assertEquals(2, before.getSessions().get(1).getExerciseSets().size());
+    }
+
+    @Test
+    void testSnapshotIsReadOnly() {
+        manager.createExercise("Bench", "Chest", 135, 8);
+        manager.createSession("Push");
+        manager.addExerciseToSession("Push", "Bench", 3);
+        FitnessSnapshot snapshot = manager.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getExercises().remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getSessions().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.getSessions().get(0).getExerciseSets().clear());
+    }
+
+    @Test
+    void testEverySnapshotKeepsItsMoment() {
+        Random random = new Random(42);
+        List<FitnessSnapshot> snapshots = new ArrayList<>();
+        List<JSONObject> expected = new ArrayList<>();
+        for (int step = 0; step < 2000; step++) {
+            change(random);
+            if (random.nextInt(10) == 0) {
+                snapshots.add(manager.snapshot());
+                expected.add(manager.toJson());
+            }
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertTrue(snapshots.get(i).toJson().similar(expected.get(i)), "snapshot " + i);
+        }
+    }
+
+    @Test
+    void testUpdatesAfterShiftsReportTheirIndex() {
+        List<Exercise> exercises = manager.getExercises();
+        for (int i = 0; i < 6; i++) {
+            manager.createExercise("E" + i, "M", i, 1);
+        }
+        List<Integer> updated = new ArrayList<>();
+        manager.addListener(new ModelListener() {
+            @Override
+            public void exerciseUpdated(Exercise e, int index) {
+                updated.add(index);
+            }
+        });
+        Exercise e4 = exercises.get(4);
+        Exercise e1 = exercises.get(1);
+        manager.deleteExercise("E2");
+        e4.setWeight(40);
+        exercises.add(0, new Exercise("First", "M", 0, 1));
+        e1.setWeight(10);
+        e4.setWeight(41);
+        exercises.remove(3);
+        e4.setWeight(42);
+
+        assertEquals(List.of(3, 2, 4, 3), updated);
+        assertEquals(exercises.indexOf(e4), updated.get(3));
+        assertTrue(manager.snapshot().toJson().similar(manager.toJson()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes one random change to manager, through its methods or its lists
+    private void change(Random random) {
+        List<Exercise> exercises = manager.getExercises();
+        List<TrainingSession> sessions = manager.getSessions();
+        int pick = random.nextInt(8);
+        if (pick == 0 || exercises.isEmpty()) {
+            exercises.add(random.nextInt(exercises.size() + 1), new Exercise("E" + random.nextInt(1000), "M", 1, 1));
+        } else if (pick == 1 || sessions.isEmpty()) {
+            sessions.add(random.nextInt(sessions.size() + 1), new TrainingSession("S" + random.nextInt(1000)));
+        } else if (pick == 2) {
+            exercises.remove(random.nextInt(exercises.size()));
+        } else if (pick == 3) {
+            sessions.remove(random.nextInt(sessions.size()));
+        } else if (pick == 4) {
+            exercises.get(random.nextInt(exercises.size())).setWeight(random.nextInt(300));
+        } else if (pick == 5) {
+            sessions.get(random.nextInt(sessions.size())).setName("S" + random.nextInt(1000));
+        } else {
+            Exercise e = exercises.get(random.nextInt(exercises.size()));
+            sessions.get(random.nextInt(sessions.size())).getExerciseSets().put(e, 1 + random.nextInt(5));
+        }
+    }
+}
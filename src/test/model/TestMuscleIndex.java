@@ -0,0 +1,83 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMuscleIndex {
+    private FitnessManager manager;
+    private Exercise bench;
+    private Exercise fly;
+    private Exercise squat;
+    private TrainingSession push;
+    private TrainingSession legs;
+
+    @BeforeEach
+    void runBefore() {
+        manager = new FitnessManager();
+        bench = manager.createExercise("Bench", "Chest", 135, 8);
+        fly = manager.createExercise("Fly", " chest ", 30, 12);
+        squat = manager.createExercise("Squat", "Legs", 225, 5);
+        push = manager.createSession("Push");
+        legs = manager.createSession("Legs");
+        manager.addExerciseToSession("Push", "Bench", 3);
+        manager.addExerciseToSession("Push", "Fly", 3);
+        manager.addExerciseToSession("Legs", "Squat", 5);
+    }
+
+    @Test
+    void testQueriesIgnoreCaseAndWhitespace() {
+        assertEquals(List.of(bench, fly), List.copyOf(manager.getExercisesTargeting("CHEST")));
+        assertEquals(Set.of(push), manager.getSessionsTargeting("Chest "));
+        assertEquals(Set.of(squat), manager.getExercisesTargeting("legs"));
+        assertTrue(manager.getExercisesTargeting("Back").isEmpty());
+        assertTrue(manager.getSessionsTargeting("Back").isEmpty());
+        assertEquals(Map.of("Chest", 2, "Legs", 1), manager.getMuscleCounts());
+        assertThrows(UnsupportedOperationException.class, () -> manager.getExercisesTargeting("chest").clear());
+    }
+
+    @Test
+    void testSetTargetMuscleMovesExerciseAndSessions() {
+        Set<Exercise> chest = manager.getExercisesTargeting("Chest");
+        bench.setTargetMuscle("Back");
+        assertEquals(Set.of(fly), chest);
+        assertEquals(Set.of(bench), manager.getExercisesTargeting("back"));
+        assertEquals(Set.of(push), manager.getSessionsTargeting("Back"));
+        assertEquals(Set.of(push), manager.getSessionsTargeting("Chest"));
+
+        fly.setTargetMuscle("Back");
+        assertTrue(manager.getSessionsTargeting("Chest").isEmpty());
+        assertEquals(Map.of("Legs", 1, "Back", 2), manager.getMuscleCounts());
+    }
+
+    @Test
+    void testDeletesAndSessionChangesUpdateIndex() {
+        manager.removeExerciseFromSession("Push", "Bench");
+        assertEquals(Set.of(push), manager.getSessionsTargeting("Chest"));
+        assertTrue(manager.deleteExercise("Fly"));
+        assertEquals(Set.of(bench), manager.getExercisesTargeting("Chest"));
+        assertTrue(manager.getSessionsTargeting("Chest").isEmpty());
+
+        manager.getSessions().remove(legs);
+        assertTrue(manager.getSessionsTargeting("Legs").isEmpty());
+        assertEquals(Set.of(squat), manager.getExercisesTargeting("Legs"));
+        manager.getSessions().add(legs);
+        assertEquals(Set.of(legs), manager.getSessionsTargeting("Legs"));
+    }
+
+    @Test
+    void testSessionOnlyExerciseIsUnindexedFromItsGroup() {
+        Exercise dip = new Exercise("Dip", "Tricep", 0, 10);
+        push.addExercise(dip, 3);
+        assertEquals(Set.of(push), manager.getSessionsTargeting("Tricep"));
+        dip.setTargetMuscle("Chest");  // not in the library, so the manager is not told
+        push.removeExercise(dip);
+        assertTrue(manager.getSessionsTargeting("Tricep").isEmpty());
+        assertFalse(manager.getMuscleCounts().containsKey("Tricep"));
+    }
+}
@@ -0,0 +1,106 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSearchIndex {
+    private SearchIndex<Exercise> index;
+    private Exercise bench;
+    private Exercise inclineBench;
+    private Exercise benchPress;
+    private Exercise squat;
+
+    @BeforeEach
+    void runBefore() {
+        index = new SearchIndex<>(Exercise::getName, Exercise::getTargetMuscle);
+        inclineBench = add("Incline Bench", "Chest");
+        benchPress = add("Bench Press", "Chest");
+        squat = add("Back Squat", "Legs");
+        bench = add("Bench", "Chest");
+    }
+
+    @Test
+    void testWords() {
+        assertArrayEquals(new String[] {"dumbbell", "row", "1", "arm"},
+                SearchIndex.words("  Dumbbell-Row (1 ARM) "));
+        assertEquals(0, SearchIndex.words(" -- ").length);
+    }
+
+    @Test
+    void testPrefixMatchesRankedExactThenNameStartThenShorter() {
+        assertEquals(List.of(bench, benchPress, inclineBench), index.search("bench", 10));
+        assertEquals(List.of(bench, benchPress, inclineBench), index.search("BEN", 10));
+        assertEquals(List.of(bench, benchPress), index.search("ben", 2));
+        assertEquals(List.of(squat), index.search("sq", 10));
+    }
+
+    @Test
+    void testEveryQueryWordMustMatch() {
+        assertEquals(List.of(benchPress), index.search("bench pr", 10));
+        assertEquals(List.of(inclineBench), index.search("inc chest", 10));
+        assertEquals(List.of(squat), index.search("legs back", 10));
+        assertTrue(index.search("bench legs", 10).isEmpty());
+    }
+
+    @Test
+    void testFuzzyMatchesComeLast() {
+        assertEquals(List.of(squat), index.search("sqaut", 10));
+        assertEquals(List.of(squat), index.search("bak squat", 10));
+        List<Exercise> found = index.search("benhc", 10);
+        assertEquals(3, found.size());
+        assertTrue(found.containsAll(List.of(bench, benchPress, inclineBench)));
+        assertTrue(index.search("zzz", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        squat.setName("Front Squat");
+        index.update(squat);
+        assertTrue(index.search("back", 10).isEmpty());
+        assertEquals(List.of(squat), index.search("front", 10));
+
+        index.remove(bench);
+        index.remove(bench);
+        assertEquals(List.of(benchPress, inclineBench), index.search("bench", 10));
+        assertEquals(3, index.size());
+
+        Exercise dip = add("Bench Dip", "Tricep");
+        assertEquals(List.of(dip, benchPress, inclineBench), index.search("bench", 10));
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.search("bench", 10).isEmpty());
+        assertTrue(index.search("bnech", 10).isEmpty());
+
+        Exercise fly = add("Cable Fly", "Chest");
+        assertEquals(List.of(fly), index.search("chest", 10));
+        assertEquals(List.of(fly), index.search("cabel", 10));
+    }
+
+    @Test
+    void testManyItems() {
+        index.clear();
+        List<Exercise> all = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            all.add(add("Exercise " + i, i % 2 == 0 ? "Legs" : "Chest"));
+        }
+        assertEquals(List.of(all.get(1234)), index.search("exercise 1234", 1));
+        assertEquals(5, index.search("legs exercise 12", 5).size());
+        for (Exercise e : index.search("legs", 100)) {
+            assertEquals("Legs", e.getTargetMuscle());
+        }
+        assertEquals(List.of(all.get(7), all.get(70), all.get(71)), index.search("exercise 7", 3));
+    }
+
+    // EFFECTS: indexes and returns a new exercise with the given name and target muscle
+    private Exercise add(String name, String muscle) {
+        Exercise e = new Exercise(name, muscle, 100, 10);
+        index.add(e);
+        return e;
+    }
+}
@@ -47,6 +47,20 @@ public class TestTrainingSession {
         assertEquals(0, testTrainingSessionLegs.getExerciseSets().size());
     }
 
+    @Test
+    void testIdsAreUniqueAndStable() {
+        TrainingSession other = new TrainingSession("Leg Day");
+        assertNotEquals(testTrainingSessionLegs.getId(), other.getId());
+
+        long id = testTrainingSessionLegs.getId();
+        testTrainingSessionLegs.setName("Legs");
+        assertEquals(id, testTrainingSessionLegs.getId());
+
+        TrainingSession restored = new TrainingSession(2_000_000, "Pull Day");
+        assertEquals(2_000_000, restored.getId());
+        assertTrue(new TrainingSession("Push Day").getId() > restored.getId());
+    }
+
     @Test
     void testAddExercises() {
         testTrainingSessionLegs.addExercise(squat, 3);
@@ -93,4 +107,15 @@ public class TestTrainingSession {
         assertEquals("Full Body Day", testTrainingSessionFull.getName());
     }
 
+    @Test
+    void testEditExerciseAfterAdding() {
+        squat.setWeight(425);
+        squat.setReps(5);
+        squat.setName("Back Squat");
+
+        assertTrue(testTrainingSessionFull.getExerciseSets().containsKey(squat));
+        assertEquals(1, testTrainingSessionFull.getExerciseSets().get(squat));
+        testTrainingSessionFull.removeExercise(squat);
+        assertEquals(7, testTrainingSessionFull.getExerciseSets().size());
+    }
 }
@@ -0,0 +1,94 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestVolumeAnalytics {
+    private FitnessManager manager;
+    private VolumeAnalytics analytics;
+    private Exercise bench;
+    private Exercise fly;
+    private Exercise squat;
+    private TrainingSession push;
+    private TrainingSession legs;
+
+    @BeforeEach
+    void runBefore() {
+        manager = new FitnessManager();
+        bench = manager.createExercise("Bench", "Chest", 100, 5);
+        fly = manager.createExercise("Fly", "chest", 20, 12);
+        squat = manager.createExercise("Squat", "Legs", 200, 15);
+        push = manager.createSession("Push");
+        manager.addExerciseToSession("Push", "Bench", 3);
+        analytics = new VolumeAnalytics();
+        analytics.watch(manager);
+        legs = manager.createSession("Legs");
+        manager.addExerciseToSession("Push", "Fly", 2);
+        manager.addExerciseToSession("Legs", "Squat", 4);
+    }
+
+    @Test
+    void testVolumeSetsAndZones() {
+        VolumeStats pushStats = analytics.getSessionVolume(push);
+        assertEquals(3 * 5 * 100 + 2 * 12 * 20, pushStats.getVolume());
+        assertEquals(5, pushStats.getSets());
+        assertEquals(3 * 5 + 2 * 12, pushStats.getReps());
+        assertEquals(3, pushStats.getSets(IntensityZone.STRENGTH));
+        assertEquals(2, pushStats.getSets(IntensityZone.HYPERTROPHY));
+        assertEquals(0, pushStats.getSets(IntensityZone.ENDURANCE));
+        assertEquals(1980.0 / 39, pushStats.getAverageWeight(), 1e-9);
+
+        assertEquals(1980, analytics.getMuscleVolume(" CHEST").getVolume());
+        assertEquals(4 * 15 * 200, analytics.getMuscleVolume("Legs").getVolume());
+        assertEquals(4, analytics.getMuscleVolume("legs").getSets(IntensityZone.ENDURANCE));
+        assertEquals(Set.of("chest", "legs"), analytics.getMuscleVolumes().keySet());
+        assertEquals(480, analytics.getExerciseVolume(fly).getVolume());
+        assertEquals(1980 + 12000, analytics.getTotalVolume().getVolume());
+        assertTrue(analytics.getMuscleVolume("Back").isEmpty());
+    }
+
+    @Test
+    void testExerciseEditsMoveTheirContribution() {
+        bench.setWeight(110);
+        bench.setReps(8);
+        assertEquals(3 * 8 * 110 + 480, analytics.getSessionVolume(push).getVolume());
+        assertEquals(5, analytics.getSessionVolume(push).getSets(IntensityZone.HYPERTROPHY));
+
+        fly.setTargetMuscle("Shoulders");
+        assertEquals(480, analytics.getMuscleVolume("shoulders").getVolume());
+        assertEquals(2640, analytics.getMuscleVolume("chest").getVolume());
+        assertEquals(2640 + 480 + 12000, analytics.getTotalVolume().getVolume());
+    }
+
+    @Test
+    void testSessionChangesAreCountedOutAndIn() {
+        push.getExerciseSets().put(bench, 1);
+        assertEquals(500 + 480, analytics.getSessionVolume(push).getVolume());
+        manager.removeExerciseFromSession("Push", "Fly");
+        assertEquals(500, analytics.getExerciseVolume(bench).getVolume());
+        assertTrue(analytics.getExerciseVolume(fly).isEmpty());
+
+        assertTrue(manager.deleteExercise("Squat"));
+        assertTrue(analytics.getSessionVolume(legs).isEmpty());
+        assertFalse(analytics.getMuscleVolumes().containsKey("legs"));
+
+        manager.getSessions().remove(push);
+        assertEquals(0, analytics.getTotalVolume().getVolume());
+        assertEquals(0, analytics.getTotalVolume().getSets());
+        assertTrue(analytics.getMuscleVolumes().isEmpty());
+    }
+
+    @Test
+    void testIntensityZoneBoundaries() {
+        assertEquals(IntensityZone.STRENGTH, IntensityZone.of(5));
+        assertEquals(IntensityZone.HYPERTROPHY, IntensityZone.of(6));
+        assertEquals(IntensityZone.HYPERTROPHY, IntensityZone.of(12));
+        assertEquals(IntensityZone.ENDURANCE, IntensityZone.of(13));
+        assertEquals(6, IntensityZone.HYPERTROPHY.getMinReps());
+        assertEquals(Integer.MAX_VALUE, IntensityZone.ENDURANCE.getMaxReps());
+    }
+}
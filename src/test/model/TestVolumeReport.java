@@ -0,0 +1,111 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestVolumeReport {
+    private FitnessManager manager;
+
+    @BeforeEach
+    void runBefore() {
+        manager = new FitnessManager();
+    }
+
+    @Test
+    void testSmallReport() {
+        manager.createExercise("Bench", "Chest", 100, 5);
+        manager.createExercise("Fly", " chest", 20, 12);
+        manager.createExercise("Squat", "Legs", 200, 15);
+        manager.createSession("Push");
+        manager.createSession("Legs");
+        manager.createSession("Also Push");
+        manager.addExerciseToSession("Push", "Bench", 3);
+        manager.addExerciseToSession("Legs", "Squat", 1);
+        manager.addExerciseToSession("Also Push", "Bench", 3);
+
+        VolumeReport report = VolumeReport.of(manager.snapshot(), 2);
+        assertEquals(6000, report.getTotal().getVolume());
+        assertEquals(List.of("chest", "legs"), new ArrayList<>(report.getMuscleVolumes().keySet()));
+        assertEquals(3000, report.getMuscleVolumes().get("chest").getVolume());
+        assertEquals(Map.of("chest", 2, "legs", 1), report.getLibraryMuscleCounts());
+
+        List<VolumeReport.SessionVolume> top = report.getTopSessions();
+        assertEquals(2, top.size());
+        assertEquals("Legs", top.get(0).getSession().getName());
+        assertEquals(3000, top.get(0).getVolume());
+        assertEquals("Push", top.get(1).getSession().getName());       // ties go to the earlier session
+        assertEquals(1500, top.get(1).getVolume());
+        assertEquals(0, top.get(1).getPosition());
+        assertTrue(VolumeReport.of(manager.snapshot(), 0).getTopSessions().isEmpty());
+    }
+
+    @Test
+    void testParallelReportEqualsSequential() {
+        fill(20_000, 40);
+        FitnessSnapshot snapshot = manager.snapshot();
+        VolumeReport sequential = VolumeReport.of(snapshot, 25);
+        for (int parallelism : new int[] {1, 2, 4, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                assertEquals(sequential, VolumeReport.of(snapshot, 25, pool), "parallelism " + parallelism);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        assertEquals(sequential, VolumeReport.of(snapshot, 25, ForkJoinPool.commonPool()));
+        assertEquals(25, sequential.getTopSessions().size());
+    }
+
+    @Test
+    void testReportMatchesIncrementalAnalytics() {
+        fill(3000, 20);
+        VolumeAnalytics analytics = new VolumeAnalytics();
+        analytics.watch(manager);
+        VolumeReport report = VolumeReport.of(manager.snapshot(), 1, ForkJoinPool.commonPool());
+        assertEquals(analytics.getTotalVolume(), report.getTotal());
+        assertEquals(analytics.getMuscleVolumes(), report.getMuscleVolumes());
+        TrainingSession best = manager.getSessions().get(report.getTopSessions().get(0).getPosition());
+        assertEquals(analytics.getSessionVolume(best).getVolume(), report.getTopSessions().get(0).getVolume());
+    }
+
+    @Test
+    void testRangeSpliteratorSplitsWholeRange() {
+        RangeSpliterator right = new RangeSpliterator(0, 10, 3);
+        Spliterator.OfInt left = right.trySplit();
+        assertEquals(5, left.estimateSize());
+        assertEquals(5, right.estimateSize());
+        assertNull(right.trySplit());
+        List<Integer> seen = new ArrayList<>();
+        assertTrue(left.tryAdvance((int i) -> seen.add(i)));
+        left.forEachRemaining((int i) -> seen.add(i));
+        right.forEachRemaining((int i) -> seen.add(i));
+        assertFalse(right.tryAdvance((int i) -> seen.add(i)));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), seen);
+        assertTrue(right.hasCharacteristics(Spliterator.SUBSIZED | Spliterator.ORDERED));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds exercises exercises over a few muscles, and sessions sessions of up to 8 of them, with
+    //          many sessions of equal volume
+    private void fill(int sessions, int exercises) {
+        String[] muscles = {"Chest", "Legs", "back", "Shoulders", "Arms"};
+        for (int i = 0; i < exercises; i++) {
+            manager.createExercise("Exercise " + i, muscles[i % muscles.length], 5 * (i % 7), 3 + i % 13);
+        }
+        List<Exercise> library = manager.getExercises();
+        for (int s = 0; s < sessions; s++) {
+            TrainingSession session = manager.createSession("Session " + s);
+            for (int k = 0; k < 1 + s % 8; k++) {
+                session.addExercise(library.get((s * 7 + k * 3) % exercises), 1 + (s + k) % 5);
+            }
+        }
+    }
+}
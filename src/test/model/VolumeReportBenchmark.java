@@ -0,0 +1,86 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// A benchmark of how VolumeReport scales from one core to many: it builds a large program, times the
+// sequential report and then the parallel one on pools of 1, 2, 4, ... up to N threads, and checks that every
+// parallel report equals the sequential one. Run it on a multi-core machine:
+//   java -cp <classes>:json.jar model.VolumeReportBenchmark [sessions] [N]
+// sessions defaults to 300,000 and N to the number of available processors; each time is the best of several
+// runs after warming up.
+public class VolumeReportBenchmark {
+    private static final int EXERCISES = 500;
+    private static final String[] MUSCLES = {"Chest", "Legs", "Back", "Shoulders", "Arms", "Core"};
+    private static final int TOP_N = 100;
+    private static final int WARMUP_RUNS = 5;
+    private static final int TIMED_RUNS = 7;
+
+    // EFFECTS: runs the benchmark and prints the time of each configuration
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        int maxParallelism = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        FitnessSnapshot snapshot = program(sessions).snapshot();
+        System.out.printf("%d sessions, %d available processors%n", sessions,
+                Runtime.getRuntime().availableProcessors());
+
+        VolumeReport expected = VolumeReport.of(snapshot, TOP_N);
+        double sequential = time(() -> VolumeReport.of(snapshot, TOP_N));
+        System.out.printf("sequential:     %8.1f ms%n", sequential);
+        for (int parallelism : parallelisms(maxParallelism)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                if (!expected.equals(VolumeReport.of(snapshot, TOP_N, pool))) {
+                    throw new AssertionError("parallel report differs with parallelism " + parallelism);
+                }
+                double millis = time(() -> VolumeReport.of(snapshot, TOP_N, pool));
+                System.out.printf("parallelism %2d: %8.1f ms  (%.2fx sequential)%n", parallelism, millis,
+                        sequential / millis);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // EFFECTS: returns a manager with EXERCISES exercises and the given number of sessions of 1 to 8 entries
+    private static FitnessManager program(int sessions) {
+        FitnessManager fm = new FitnessManager();
+        for (int i = 0; i < EXERCISES; i++) {
+            fm.createExercise("Exercise " + i, MUSCLES[i % MUSCLES.length], 5 * (i % 40), 3 + i % 13);
+        }
+        List<Exercise> library = fm.getExercises();
+        for (int s = 0; s < sessions; s++) {
+            TrainingSession session = fm.createSession("Session " + s);
+            for (int k = 0; k < 1 + s % 8; k++) {
+                session.addExercise(library.get((s * 7 + k * 31) % EXERCISES), 1 + (s + k) % 5);
+            }
+        }
+        return fm;
+    }
+
+    // EFFECTS: returns 1, 2, 4, ... up to max, and max itself
+    private static List<Integer> parallelisms(int max) {
+        List<Integer> result = new ArrayList<>();
+        for (int p = 1; p < max; p *= 2) {
+            result.add(p);
+        }
+        result.add(Math.max(1, max));
+        return result;
+    }
+
+    // EFFECTS: runs report WARMUP_RUNS times, then returns the best time of TIMED_RUNS more, in milliseconds
+    private static double time(Runnable report) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            report.run();
+        }
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            report.run();
+            best = Math.min(best, (System.nanoTime() - start) / 1e6);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,146 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncEventAppenderTest {
+    @TempDir
+    Path tempDir;
+    private String logFile;
+
+    @BeforeEach
+    void runBefore() {
+        logFile = tempDir.resolve("events.txt").toString();
+    }
+
+    @Test
+    void testWritesEveryEventInOrder() throws IOException {
+        AsyncEventAppender appender = new AsyncEventAppender(logFile, 16, BackPressure.BLOCK);
+        for (int i = 0; i < 1000; i++) {
+            appender.eventLogged(new Event("event " + i));
+        }
+        appender.close();
+
+        List<String> lines = lines();
+        assertEquals(1000, lines.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(lines.get(i).endsWith("\tevent " + i));
+        }
+        assertEquals(1000, appender.getWrittenCount());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void testBlockLosesNothingUnderContention() throws Exception {
+        AsyncEventAppender appender = new AsyncEventAppender(logFile, 64, BackPressure.BLOCK, 10, true);
+        runProducers(appender, 4, 5000);
+        appender.close();
+        assertEquals(20_000, lines().size());
+        assertEquals(20_000, appender.getWrittenCount());
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    void testDropAndSampleAccountForEveryEvent() throws Exception {
+        for (BackPressure policy : new BackPressure[] {BackPressure.DROP, BackPressure.SAMPLE}) {
+            Files.deleteIfExists(Paths.get(logFile));
+            AsyncEventAppender appender = new AsyncEventAppender(logFile, 8, policy, 4, false);
+            runProducers(appender, 4, 5000);
+            appender.close();
+            assertEquals(appender.getWrittenCount(), lines().size());
+            assertEquals(20_000, appender.getWrittenCount() + appender.getDroppedCount());
+        }
+    }
+
+    @Test
+    void testEventsAfterCloseAreDropped() throws IOException {
+        AsyncEventAppender appender = new AsyncEventAppender(logFile, 16, BackPressure.BLOCK);
+        appender.eventLogged(new Event("before"));
+        appender.close();
+        appender.eventLogged(new Event("after"));
+        appender.close();
+        assertEquals(1, lines().size());
+        assertEquals(1, appender.getDroppedCount());
+    }
+
+    @Test
+    void testCloseRacingProducersAccountsForEveryEvent() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AsyncEventAppender appender = new AsyncEventAppender(tempDir.resolve("race" + round).toString(), 4,
+                    BackPressure.BLOCK);
+            Thread producers = new Thread(() -> {
+                try {
+                    runProducers(appender, 4, 500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producers.start();
+            Thread.sleep(round % 3);
+            appender.close();
+            producers.join();
+            assertEquals(2000, appender.getWrittenCount() + appender.getDroppedCount());
+        }
+    }
+
+    @Test
+    void testLineBreaksAreEscaped() throws IOException {
+        AsyncEventAppender appender = new AsyncEventAppender(logFile, 16, BackPressure.BLOCK);
+        Event event = new Event("two\nlines \\ one");
+        appender.eventLogged(event);
+        appender.close();
+        String time = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC)
+                .format(event.getDate().toInstant());
+        assertEquals(List.of(time + "\ttwo\\nlines \\\\ one"), lines());
+    }
+
+    @Test
+    void testSinkOfEventLog() throws IOException {
+        AsyncEventAppender appender = new AsyncEventAppender(logFile, 16, BackPressure.BLOCK);
+        EventLog.getInstance().addSink(appender);
+        EventLog.getInstance().logEvent(new Event("logged"));
+        EventLog.getInstance().removeSink(appender);
+        EventLog.getInstance().logEvent(new Event("not logged"));
+        appender.close();
+        List<String> lines = lines();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("\tlogged"));
+    }
+
+    // EFFECTS: logs perProducer events to appender from each of producers threads, and waits for them
+    private void runProducers(AsyncEventAppender appender, int producers, int perProducer)
+            throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    appender.eventLogged(new Event("event " + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    // EFFECTS: returns the lines of the log file
+    private List<String> lines() throws IOException {
+        return Files.readAllLines(Paths.get(logFile), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,200 @@
+package persistence;
+
+import model.FitnessManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutoSaverTest {
+    @TempDir
+    Path tempDir;
+    private String file;
+    private ExecutorService model;         // stands in for the Swing EDT
+    private BlockingQueue<Object> saves;   // the time of each save, or its failure
+    private FitnessManager manager;
+
+    @BeforeEach
+    void runBefore() throws Exception {
+        file = tempDir.resolve("autosave.json").toString();
+        model = Executors.newSingleThreadExecutor();
+        saves = new LinkedBlockingQueue<>();
+        manager = new FitnessManager();
+    }
+
+    @AfterEach
+    void runAfter() {
+        model.shutdownNow();
+    }
+
+    @Test
+    void testBurstIsCoalescedIntoOneSave() throws Exception {
+        AutoSaver saver = autoSaver(file, 100, 10_000);
+        onModel(() -> {
+            for (int i = 0; i < 50; i++) {
+                manager.createExercise("Exercise " + i, "Legs", i, 5);
+            }
+        });
+        assertTrue(saves.poll(5, TimeUnit.SECONDS) instanceof Long);
+        assertNull(saves.poll(300, TimeUnit.MILLISECONDS));
+        assertEquals(50, new JsonReader(file).read().getExercises().size());
+        assertTrue(saver.getLastSaveMillis() >= 0);
+        assertFalse(saver.isDirty());
+        onModel(() -> close(saver));
+    }
+
+    @Test
+    void testLongBurstIsSavedByMaxDelay() throws Exception {
+        AutoSaver saver = autoSaver(file, 200, 400);
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1200);
+        int i = 0;
+        while (System.nanoTime() < end) {
+            String name = "Exercise " + i++;
+            onModel(() -> manager.createExercise(name, "Legs", 1, 5));
+            Thread.sleep(20);
+        }
+        assertFalse(saves.isEmpty(), "saved while changes kept coming");
+        onModel(() -> close(saver));
+    }
+
+    @Test
+    void testCloseSavesPendingChanges() throws Exception {
+        AutoSaver saver = autoSaver(file, 60_000, 60_000);
+        onModel(() -> {
+            manager.createSession("Push");
+            assertTrue(saver.isDirty());
+            close(saver);
+        });
+        assertEquals(1, saves.size());
+        assertEquals("Push", new JsonReader(file).read().getSessions().get(0).getName());
+    }
+
+    @Test
+    void testNothingSavedWithoutChanges() throws Exception {
+        AutoSaver saver = autoSaver(file, 50, 50);
+        Thread.sleep(150);
+        onModel(() -> close(saver));
+        assertTrue(saves.isEmpty());
+        assertFalse(Files.exists(Paths.get(file)));
+    }
+
+    @Test
+    void testLaterSavesAppendToJournal() throws Exception {
+        AutoSaver saver = autoSaver(file, 60_000, 60_000);
+        onModel(() -> {
+            manager.createExercise("Bench Press", "Chest", 185, 10);
+            saver.saveNow();
+        });
+        assertTrue(saves.poll(5, TimeUnit.SECONDS) instanceof Long);
+        long snapshotSize = Files.size(Paths.get(file));
+        long journalSize = Files.size(Paths.get(file + ".journal"));
+
+        onModel(() -> {
+            manager.createExercise("Squat", "Legs", 225, 5);
+            manager.findExerciseByName("Bench Press").setReps(8);
+            saver.saveNow();
+        });
+        assertTrue(saves.poll(5, TimeUnit.SECONDS) instanceof Long);
+        assertEquals(snapshotSize, Files.size(Paths.get(file)));
+        assertTrue(Files.size(Paths.get(file + ".journal")) > journalSize);
+        FitnessManager loaded = new ChangeJournal(file).load();
+        assertEquals(2, loaded.getExercises().size());
+        assertEquals(8, loaded.findExerciseByName("Bench Press").getReps());
+        onModel(() -> close(saver));
+    }
+
+    @Test
+    void testLoadedManagerKeepsAppending() throws Exception {
+        AutoSaver saver = autoSaver(file, 60_000, 60_000);
+        onModel(() -> {
+            manager.createExercise("Bench Press", "Chest", 185, 10);
+            saver.saveNow();
+            saver.unwatch();
+            assertFalse(saver.isWatching());
+        });
+        FitnessManager loaded = saver.load((read, total) -> { });
+        assertTrue(saves.poll(5, TimeUnit.SECONDS) instanceof Long);
+        long snapshotSize = Files.size(Paths.get(file));
+        onModel(() -> {
+            saver.watch(loaded);
+            assertFalse(saver.isDirty());
+            loaded.createSession("Push");
+            close(saver);
+        });
+        assertEquals(snapshotSize, Files.size(Paths.get(file)));
+        FitnessManager reloaded = new ChangeJournal(file).load();
+        assertEquals(1, reloaded.getExercises().size());
+        assertEquals("Push", reloaded.getSessions().get(0).getName());
+    }
+
+    @Test
+    void testNothingSavedBeforeWatching() throws Exception {
+        AutoSaver saver = new AutoSaver(file, Durability.ATOMIC, model, 10, 10,
+                (millis, failure) -> saves.add(failure == null ? (Object) millis : failure));
+        onModel(() -> {
+            assertFalse(saver.isWatching());
+            manager.createSession("Not loaded yet");
+            close(saver);
+        });
+        assertTrue(saves.isEmpty());
+        assertFalse(Files.exists(Paths.get(file)));
+    }
+
+    @Test
+    void testWatchStopsWatchingPreviousManager() throws Exception {
+        AutoSaver saver = autoSaver(file, 60_000, 60_000);
+        FitnessManager loaded = new FitnessManager();
+        onModel(() -> {
+            saver.watch(loaded);
+            manager.createSession("Not watched");
+            assertFalse(saver.isDirty());
+            loaded.createSession("Watched");
+            close(saver);
+        });
+        assertEquals("Watched", new JsonReader(file).read().getSessions().get(0).getName());
+    }
+
+    @Test
+    void testFailedSaveIsReported() throws Exception {
+        AutoSaver saver = autoSaver(tempDir + "/my\0illegal:fileName.json", 10, 10);
+        onModel(saver::saveNow);
+        assertTrue(saves.poll(5, TimeUnit.SECONDS) instanceof IOException);
+        assertEquals(-1, saver.getLastSaveMillis());
+        onModel(() -> close(saver));
+    }
+
+    // EFFECTS: returns an autosave of manager to destination that reports its saves to saves
+    private AutoSaver autoSaver(String destination, long quietMillis, long maxDelayMillis) throws Exception {
+        AutoSaver saver = new AutoSaver(destination, Durability.ATOMIC, model, quietMillis, maxDelayMillis,
+                (millis, failure) -> saves.add(failure == null ? (Object) millis : failure));
+        onModel(() -> saver.watch(manager));
+        assertTrue(saver.isWatching());
+        return saver;
+    }
+
+    // EFFECTS: runs task on the model thread and waits for it, rethrowing what it throws
+    private void onModel(Runnable task) throws Exception {
+        model.submit(task).get();
+    }
+
+    // EFFECTS: closes saver, failing the test if that throws
+    private void close(AutoSaver saver) {
+        try {
+            saver.close();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package persistence;
+
+import model.FitnessManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/noSuchFile.bin");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        BinaryReader reader = new BinaryReader("./data/testReaderGeneralFitnessManager.json");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderUnsupportedVersion() throws IOException {
+        Path path = Paths.get(file("testWriterFutureVersion.bin"));
+        Files.write(path, new byte[] {0x46, 0x4D, 0x47, 0x53, 0x7F, 0, 0, 0, 0});
+        IOException e = assertThrows(IOException.class, () -> new BinaryReader(path.toString()).read());
+        assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    void testReaderTruncatedSnapshot() throws IOException {
+        FitnessManager manager = new FitnessManager();
+        manager.createExercise("Squat", "Legs", 315, 6);
+        manager.createSession("Leg Day");
+        manager.addExerciseToSession("Leg Day", "Squat", 3);
+        BinaryWriter writer = new BinaryWriter(file("testWriterTruncated.bin"));
+        writer.open();
+        writer.write(manager);
+        writer.close();
+
+        Path path = Paths.get(file("testWriterTruncated.bin"));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> new BinaryReader(path.toString()).read());
+    }
+
+    @Test
+    void testReaderRejectsCorruptCounts() throws IOException {
+        byte[] header = {0x46, 0x4D, 0x47, 0x53, 1};
+        // 268 million strings in a 4-byte file
+        assertCorrupt(header, new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F});
+        byte[] negative = new byte[10];                                        // a 10-byte varint
+        Arrays.fill(negative, (byte) 0xFF);
+        negative[9] = 1;
+        assertCorrupt(header, negative);
+        assertCorrupt(header, new byte[] {1, (byte) 0xF0, (byte) 0xFF, 0x7F}); // a 2-million-byte string
+    }
+
+    // EFFECTS: writes header followed by rest to a file and checks that reading it throws IOException
+    private void assertCorrupt(byte[] header, byte[] rest) throws IOException {
+        Path path = tempDir.resolve("corrupt.bin");
+        byte[] bytes = Arrays.copyOf(header, header.length + rest.length);
+        System.arraycopy(rest, 0, bytes, header.length, rest.length);
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> new BinaryReader(path.toString()).read());
+    }
+
+    // EFFECTS: returns the path of a file named name in this test's temporary directory
+    private String file(String name) {
+        return tempDir + "/" + name;
+    }
+}
@@ -0,0 +1,100 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.TrainingSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryWriterTest extends JsonTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriterInvalidFile() {
+        assertThrows(IOException.class, () -> {
+            BinaryWriter writer = new BinaryWriter(file("my\0illegal:fileName.bin"));
+            writer.open();
+        });
+    }
+
+    @Test
+    void testWriterEmptyFitnessManager() {
+        try {
+            FitnessManager loaded = roundTrip(new FitnessManager(), file("testWriterEmptyFitnessManager.bin"));
+            assertEquals(0, loaded.getExercises().size());
+            assertEquals(0, loaded.getSessions().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterGeneralFitnessManager() {
+        try {
+            FitnessManager manager = new FitnessManager();
+            Exercise bench = manager.createExercise("Bench Press", "Chest", 185, 10);
+            Exercise fly = manager.createExercise("Flÿ \"Cable\"", "Chest", -20, 300);
+            TrainingSession session = manager.createSession("Push Day");
+            session.addExercise(bench, 4);
+            manager.findSessionByName("Push Day").addExercise(fly, 2);
+            manager.createSession("Rest Day");
+
+            FitnessManager loaded = roundTrip(manager, file("testWriterGeneralFitnessManager.bin"));
+            assertEquals(2, loaded.getExercises().size());
+            checkExercise("Bench Press", "Chest", 185, 10, loaded.getExercises().get(0));
+            checkExercise("Flÿ \"Cable\"", "Chest", -20, 300, loaded.getExercises().get(1));
+            assertEquals(bench.getId(), loaded.getExercises().get(0).getId());
+
+            TrainingSession push = loaded.getSessions().get(0);
+            assertEquals("Push Day", push.getName());
+            assertEquals(session.getId(), push.getId());
+            assertEquals(4, push.getExerciseSets().get(bench));
+            assertEquals(2, push.getExerciseSets().get(fly));
+            assertSame(loaded.getExercises().get(0), loaded.findExerciseByName("Bench Press"));
+            assertTrue(push.getExerciseSets().containsKey(loaded.getExercises().get(0)));
+            assertTrue(loaded.getSessions().get(1).getExerciseSets().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterExerciseOnlyInSession() {
+        try {
+            FitnessManager manager = new FitnessManager();
+            Exercise dip = new Exercise("Dip", "Tricep", 0, 20);
+            TrainingSession push = manager.createSession("Push Day");
+            push.addExercise(dip, 3);
+            manager.createSession("Dip Day").addExercise(dip, 5);
+
+            FitnessManager loaded = roundTrip(manager, file("testWriterOnlySessions.bin"));
+            assertEquals(0, loaded.getExercises().size());
+            Exercise loadedDip = loaded.getSessions().get(0).getExerciseSets().keySet().iterator().next();
+            checkExercise("Dip", "Tricep", 0, 20, loadedDip);
+            assertSame(loadedDip, loaded.getSessions().get(1).getExerciseSets().keySet().iterator().next());
+            assertEquals(5, loaded.getSessions().get(1).getExerciseSets().get(dip));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: writes manager to destination and reads it back
+    private FitnessManager roundTrip(FitnessManager manager, String destination) throws IOException {
+        BinaryWriter writer = new BinaryWriter(destination);
+        writer.open();
+        writer.write(manager);
+        writer.close();
+        return new BinaryReader(destination).read();
+    }
+
+    // EFFECTS: returns the path of a file named name in this test's temporary directory
+    private String file(String name) {
+        return tempDir + "/" + name;
+    }
+}
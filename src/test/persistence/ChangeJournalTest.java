@@ -0,0 +1,218 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import model.EventSink;
+import model.Exercise;
+import model.FitnessManager;
+import model.TrainingSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeJournalTest extends JsonTest {
+    @TempDir
+    Path tempDir;
+    private String snapshotFile;
+    private String journalFile;
+
+    @BeforeEach
+    void runBefore() {
+        snapshotFile = tempDir.resolve("journal.json").toString();
+        journalFile = snapshotFile + ".journal";
+    }
+
+    @Test
+    void testLoadWithoutSnapshot() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        assertTrue(fm.getExercises().isEmpty());
+        assertTrue(fm.getSessions().isEmpty());
+        assertEquals(-1, journal.getJournalLength());
+    }
+
+    @Test
+    void testSaveAppendsOnlyChanges() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        Exercise bench = fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        long snapshotSize = Files.size(Paths.get(snapshotFile));
+        FileTime snapshotTime = Files.getLastModifiedTime(Paths.get(snapshotFile));
+        long header = journal.getJournalLength();
+
+        makeChanges(fm, bench);
+        assertEquals(9, journal.getPendingChanges());
+        journal.save(fm);
+        assertEquals(0, journal.getPendingChanges());
+        assertTrue(journal.getJournalLength() > header);
+        assertEquals(journal.getJournalLength(), Files.size(Paths.get(journalFile)));
+        assertEquals(snapshotSize, Files.size(Paths.get(snapshotFile)));
+        assertEquals(snapshotTime, Files.getLastModifiedTime(Paths.get(snapshotFile)));
+
+        checkChanges(new ChangeJournal(snapshotFile).load(), bench);
+    }
+
+    @Test
+    void testLoadReportsProgressThroughSnapshotAndJournal() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        Exercise bench = fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        makeChanges(fm, bench);
+        journal.save(fm);
+        long total = Files.size(Paths.get(snapshotFile)) + Files.size(Paths.get(journalFile));
+
+        long[] last = {0};
+        FitnessManager loaded = new ChangeJournal(snapshotFile).load((read, size) -> {
+            assertEquals(total, size);
+            assertTrue(read >= last[0]);
+            last[0] = read;
+        });
+        assertEquals(total, last[0]);
+        checkChanges(loaded, bench);
+    }
+
+    @Test
+    void testSaveCompactsLargeJournal() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile, journalFile, 1, Durability.ATOMIC);
+        FitnessManager fm = journal.load();
+        Exercise bench = fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        long header = journal.getJournalLength();
+
+        makeChanges(fm, bench);
+        journal.save(fm);
+        assertEquals(header, journal.getJournalLength());
+        assertEquals(header, Files.size(Paths.get(journalFile)));
+        checkChanges(new JsonReader(snapshotFile).read(), bench);
+        checkChanges(new ChangeJournal(snapshotFile, journalFile, 1, Durability.ATOMIC).load(), bench);
+    }
+
+    @Test
+    void testLoadIgnoresTornTail() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        Exercise bench = fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        makeChanges(fm, bench);
+        journal.save(fm);
+        long length = journal.getJournalLength();
+        Files.write(Paths.get(journalFile), new byte[] {42, 1, 2}, StandardOpenOption.APPEND);
+
+        ChangeJournal reopened = new ChangeJournal(snapshotFile);
+        FitnessManager loaded = reopened.load();
+        checkChanges(loaded, bench);
+        assertEquals(length, reopened.getJournalLength());
+
+        loaded.findExerciseByName("Bench Press").setReps(5);
+        reopened.save(loaded);
+        assertEquals(5, new ChangeJournal(snapshotFile).load().findExerciseByName("Bench Press").getReps());
+    }
+
+    @Test
+    void testLoadIgnoresJournalOfOtherSnapshot() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        fm.createExercise("Squat", "Legs", 225, 5);
+        journal.save(fm);
+
+        FitnessManager other = new FitnessManager();
+        other.createExercise("Deadlift", "Back", 315, 3);
+        JsonWriter writer = new JsonWriter(snapshotFile);
+        writer.open();
+        writer.write(other);
+        writer.close();
+
+        ChangeJournal reopened = new ChangeJournal(snapshotFile);
+        FitnessManager loaded = reopened.load();
+        assertEquals(1, loaded.getExercises().size());
+        checkExercise("Deadlift", "Back", 315, 3, loaded.getExercises().get(0));
+        assertEquals(-1, reopened.getJournalLength());
+    }
+
+    @Test
+    void testSaveOtherManagerWritesCheckpoint() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        fm.createExercise("Squat", "Legs", 225, 5);
+
+        FitnessManager other = new FitnessManager();
+        other.createExercise("Deadlift", "Back", 315, 3);
+        journal.save(other);
+        fm.createExercise("Curl", "Bicep", 30, 12);
+        assertEquals(0, journal.getPendingChanges());
+
+        FitnessManager loaded = new ChangeJournal(snapshotFile).load();
+        assertEquals(1, loaded.getExercises().size());
+        checkExercise("Deadlift", "Back", 315, 3, loaded.getExercises().get(0));
+    }
+
+    @Test
+    void testReplayLogsNoEvents() throws IOException {
+        ChangeJournal journal = new ChangeJournal(snapshotFile);
+        FitnessManager fm = journal.load();
+        Exercise bench = fm.createExercise("Bench Press", "Chest", 185, 10);
+        journal.save(fm);
+        makeChanges(fm, bench);
+        bench.setName("Flat Bench");
+        bench.setTargetMuscle("Pecs");
+        bench.setReps(6);
+        journal.save(fm);
+
+        List<Event> logged = new ArrayList<>();
+        EventSink sink = logged::add;
+        EventLog.getInstance().addSink(sink);
+        FitnessManager loaded;
+        try {
+            loaded = new ChangeJournal(snapshotFile).load();
+        } finally {
+            EventLog.getInstance().removeSink(sink);
+        }
+        assertTrue(logged.isEmpty(), "replayed edits are not new user actions");
+        checkExercise("Flat Bench", "Pecs", 205, 6, loaded.findExerciseByName("flat bench"));
+        assertNull(loaded.findExerciseByName("Bench Press"));
+    }
+
+    // EFFECTS: makes one change of every kind the journal records
+    private void makeChanges(FitnessManager fm, Exercise bench) {
+        fm.createExercise("Squat", "Legs", 225, 5);
+        Exercise curl = fm.createExercise("Curl", "Bicep", 30, 12);
+        bench.setWeight(205);
+        TrainingSession push = fm.createSession("Push");
+        push.addExercise(bench, 4);
+        push.addExercise(curl, 3);
+        push.setName("Push Day");
+        fm.deleteExercise("Curl");
+    }
+
+    // EFFECTS: checks that loaded holds what makeChanges left behind
+    private void checkChanges(FitnessManager loaded, Exercise bench) {
+        assertEquals(2, loaded.getExercises().size());
+        checkExercise("Bench Press", "Chest", 205, 10, loaded.getExercises().get(0));
+        checkExercise("Squat", "Legs", 225, 5, loaded.getExercises().get(1));
+        assertEquals(bench.getId(), loaded.getExercises().get(0).getId());
+        assertNull(loaded.findExerciseByName("Curl"));
+
+        assertEquals(1, loaded.getSessions().size());
+        TrainingSession push = loaded.findSessionByName("Push Day");
+        assertEquals(1, push.getExerciseSets().size());
+        assertEquals(4, push.getExerciseSets().get(bench));
+        assertSame(loaded.getExercises().get(0), push.getExerciseSets().keySet().iterator().next());
+    }
+}
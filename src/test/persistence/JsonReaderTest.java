@@ -3,9 +3,14 @@ package persistence;
 import model.Exercise;
 import model.FitnessManager;
 import model.TrainingSession;
+import org.json.JSONException;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,6 +55,7 @@ class JsonReaderTest extends JsonTest {
             Exercise squat = loaded.getExercises().get(1);
             assertTrue(session.getExerciseSets().containsKey(squat));
             assertEquals(3, session.getExerciseSets().get(squat));
+            assertSame(squat, session.getExerciseSets().keySet().iterator().next());
 
         } catch (IOException e) {
             fail("Couldn't read general fitness manager");
@@ -67,4 +73,85 @@ class JsonReaderTest extends JsonTest {
             fail("Couldn't read from file");
         }
     }
+
+    @Test
+    void testReaderSharesLibraryExercises() {
+        JsonReader reader = new JsonReader("./data/testReaderSharedExercises.json");
+        try {
+            FitnessManager loaded = reader.read();
+            Exercise bench = loaded.getExercises().get(0);
+            Exercise dip = loaded.getExercises().get(1);
+            TrainingSession push = loaded.findSessionByName("Push Day");
+            TrainingSession chest = loaded.findSessionByName("Chest Day");
+            TrainingSession fly = loaded.findSessionByName("Fly Day");
+
+            for (Exercise e : push.getExerciseSets().keySet()) {
+                assertTrue(e == bench || e == dip); // by id, and by fields for the entry without one
+            }
+            for (Exercise e : chest.getExerciseSets().keySet()) {
+                if (e.getId() == 501) {
+                    assertSame(bench, e);
+                } else {
+                    checkExercise("Cable Fly", "Chest", 40, 15, e); // not in the library
+                    assertSame(e, fly.getExerciseSets().keySet().iterator().next());
+                }
+            }
+
+            bench.setWeight(195);
+            assertEquals(2, loaded.getSessionsContaining(bench).size());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderSessionsBeforeExercises() {
+        JsonReader reader = new JsonReader("./data/testReaderSessionsFirst.json");
+        try {
+            FitnessManager loaded = reader.read();
+            assertEquals(2, loaded.getExercises().size());
+            checkExercise("Incline Bench", "Chest", 100, 16, loaded.getExercises().get(0));
+            checkExercise("Squat", "Legs", 315, 6, loaded.getExercises().get(1));
+
+            TrainingSession session = loaded.getSessions().get(0);
+            Exercise squat = loaded.getExercises().get(1);
+            assertSame(squat, session.getExerciseSets().keySet().iterator().next());
+            assertEquals(3, session.getExerciseSets().get(squat));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderTruncatedFile() {
+        JsonReader reader = new JsonReader("./data/testReaderTruncated.json");
+        assertThrows(JSONException.class, reader::read);
+    }
+
+    @Test
+    void testReaderReportsProgress() throws IOException {
+        String file = "./data/testReaderGeneralFitnessManager.json";
+        long size = Files.size(Paths.get(file));
+        List<Long> reads = new ArrayList<>();
+        FitnessManager loaded = new JsonReader(file).read((read, total) -> {
+            assertEquals(size, total);
+            reads.add(read);
+        });
+        assertEquals(2, loaded.getExercises().size());
+        assertEquals(size, (long) reads.get(reads.size() - 1));
+        for (int i = 1; i < reads.size(); i++) {
+            assertTrue(reads.get(i) >= reads.get(i - 1));
+        }
+    }
+
+    @Test
+    void testReaderStopsWhenInterrupted() {
+        JsonReader reader = new JsonReader("./data/testReaderGeneralFitnessManager.json");
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, () -> reader.read((read, total) -> { }));
+        } finally {
+            Thread.interrupted();
+        }
+    }
 }
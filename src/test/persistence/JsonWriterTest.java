@@ -2,19 +2,34 @@ package persistence;
 
 import model.Exercise;
 import model.FitnessManager;
+import model.FitnessSnapshot;
 import model.TrainingSession;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class JsonWriterTest extends JsonTest {
+    @TempDir
+    Path tempDir;
 
     @Test
     void testWriterInvalidFile() {
         assertThrows(IOException.class, () -> {
-            JsonWriter writer = new JsonWriter("./data/my\0illegal:fileName.json");
+            JsonWriter writer = new JsonWriter(file("my\0illegal:fileName.json"));
             writer.open();
         });
     }
@@ -23,12 +38,12 @@ class JsonWriterTest extends JsonTest {
     void testWriterEmptyFitnessManager() {
         try {
             FitnessManager manager = new FitnessManager();
-            JsonWriter writer = new JsonWriter("./data/testWriterEmptyFitnessManager.json");
+            JsonWriter writer = new JsonWriter(file("testWriterEmptyFitnessManager.json"));
             writer.open();
             writer.write(manager);
             writer.close();
 
-            JsonReader reader = new JsonReader("./data/testWriterEmptyFitnessManager.json");
+            JsonReader reader = new JsonReader(file("testWriterEmptyFitnessManager.json"));
             FitnessManager loaded = reader.read();
             assertEquals(0, loaded.getExercises().size());
             assertEquals(0, loaded.getSessions().size());
@@ -52,12 +67,12 @@ class JsonWriterTest extends JsonTest {
             session.getExerciseSets().put(e2, 4);
             manager.getSessions().add(session);
 
-            JsonWriter writer = new JsonWriter("./data/testWriterGeneralFitnessManager.json");
+            JsonWriter writer = new JsonWriter(file("testWriterGeneralFitnessManager.json"));
             writer.open();
             writer.write(manager);
             writer.close();
 
-            JsonReader reader = new JsonReader("./data/testWriterGeneralFitnessManager.json");
+            JsonReader reader = new JsonReader(file("testWriterGeneralFitnessManager.json"));
             FitnessManager loaded = reader.read();
             assertEquals(2, loaded.getExercises().size());
             checkExercise("Bench Press", "Chest", 185, 10, loaded.getExercises().get(0));
@@ -66,8 +81,11 @@ class JsonWriterTest extends JsonTest {
             assertEquals(1, loaded.getSessions().size());
             TrainingSession loadedSession = loaded.getSessions().get(0);
             assertEquals("Leg Day", loadedSession.getName());
+            assertEquals(session.getId(), loadedSession.getId());
             assertTrue(loadedSession.getExerciseSets().containsKey(e2));
             assertEquals(4, loadedSession.getExerciseSets().get(e2));
+            assertEquals(e1.getId(), loaded.getExercises().get(0).getId());
+            assertEquals(e2.getId(), loaded.getExercises().get(1).getId());
 
         } catch (IOException e) {
             fail("Exception should not have been thrown");
@@ -95,4 +113,150 @@ class JsonWriterTest extends JsonTest {
         Exercise ex = new Exercise("Pull-up", "Back", 0, 15);
         assertNotNull(ex.toJson());
     }
+
+    @Test
+    void testWriterCompactFitnessManager() {
+        try {
+            FitnessManager manager = new FitnessManager();
+            Exercise e1 = manager.createExercise("Row \"Pendlay\"", "Back", 135, 5);
+            manager.createSession("Pull Day").addExercise(e1, 3);
+            manager.createSession("Rest Day");
+
+            JsonWriter writer = new JsonWriter(file("testWriterCompactFitnessManager.json"), true);
+            writer.open();
+            writer.write(manager);
+            writer.close();
+
+            String text = new String(Files.readAllBytes(Paths.get(file("testWriterCompactFitnessManager.json"))),
+                    StandardCharsets.UTF_8);
+            assertFalse(text.contains("\n"));
+            assertFalse(text.contains(": "));
+
+            FitnessManager loaded = new JsonReader(file("testWriterCompactFitnessManager.json")).read();
+            checkExercise("Row \"Pendlay\"", "Back", 135, 5, loaded.getExercises().get(0));
+            TrainingSession pull = loaded.getSessions().get(0);
+            assertEquals(3, pull.getExerciseSets().get(loaded.getExercises().get(0)));
+            assertTrue(loaded.getSessions().get(1).getExerciseSets().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterAtomicReplacesFileOnClose() throws IOException {
+        String path = file("testWriterAtomic.json");
+        FitnessManager first = new FitnessManager();
+        first.createExercise("Squat", "Legs", 225, 5);
+        writeFile(first, path, Durability.DIRECT);
+
+        FitnessManager second = new FitnessManager();
+        second.createExercise("Deadlift", "Back", 315, 3);
+        JsonWriter writer = new JsonWriter(path, false, Durability.SYNC);
+        writer.open();
+        writer.write(second);
+        assertEquals("Squat", new JsonReader(path).read().getExercises().get(0).getName());
+        assertEquals(1, tempFiles(path));
+
+        writer.close();
+        assertEquals("Deadlift", new JsonReader(path).read().getExercises().get(0).getName());
+        assertEquals(0, tempFiles(path));
+    }
+
+    @Test
+    void testWriterAtomicKeepsFileAfterFailedWrite() throws IOException {
+        String path = file("testWriterAtomicFailure.json");
+        FitnessManager first = new FitnessManager();
+        first.createExercise("Squat", "Legs", 225, 5);
+        writeFile(first, path, Durability.ATOMIC);
+
+        FitnessManager broken = new FitnessManager();
+        TrainingSession pull = new TrainingSession("Pull Day");
+        pull.getExerciseSets().put(new Exercise(null, "Back", 315, 3), 3);
+        broken.getSessions().add(pull);
+        JsonWriter writer = new JsonWriter(path, false, Durability.ATOMIC);
+        writer.open();
+        assertThrows(NullPointerException.class, () -> writer.write(broken));
+        writer.close();
+
+        FitnessManager loaded = new JsonReader(path).read();
+        assertEquals(1, loaded.getExercises().size());
+        checkExercise("Squat", "Legs", 225, 5, loaded.getExercises().get(0));
+        assertEquals(0, tempFiles(path));
+    }
+
+    @Test
+    void testWriterAtomicKeepsFilePermissions() throws IOException {
+        assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null, "needs POSIX");
+        String path = file("testWriterPermissions.json");
+        FitnessManager fm = new FitnessManager();
+        fm.createExercise("Squat", "Legs", 225, 5);
+        writeFile(fm, path, Durability.DIRECT);
+        Set<PosixFilePermission> shared = PosixFilePermissions.fromString("rw-rw-r--");
+        Files.setPosixFilePermissions(Paths.get(path), shared);
+
+        writeFile(fm, path, Durability.ATOMIC);
+        assertEquals(shared, Files.getPosixFilePermissions(Paths.get(path)));
+        Set<PosixFilePermission> readOnly = PosixFilePermissions.fromString("r--r-----");
+        Files.setPosixFilePermissions(Paths.get(path), readOnly);
+        writeFile(fm, path, Durability.SYNC);
+        assertEquals(readOnly, Files.getPosixFilePermissions(Paths.get(path)));
+        assertEquals(0, tempFiles(path));
+    }
+
+    @Test
+    void testWriterSnapshotOnBackgroundThreadWhileEditing() throws Exception {
+        FitnessManager manager = new FitnessManager();
+        for (int i = 0; i < 1000; i++) {
+            manager.createExercise("Exercise " + i, "Legs", i, 5);
+        }
+        TrainingSession legs = manager.createSession("Legs");
+        manager.addExerciseToSession("Legs", "Exercise 7", 3);
+        FitnessSnapshot snapshot = manager.snapshot();
+        JSONObject expected = manager.toJson();
+
+        Thread saver = new Thread(() -> {
+            try {
+                JsonWriter writer = new JsonWriter(file("testWriterSnapshot.json"));
+                writer.open();
+                writer.write(snapshot);
+                writer.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        saver.start();
+        for (Exercise e : manager.getExercises()) {
+            e.setWeight(e.getWeight() + 1);
+        }
+        legs.setName("Leg Day");
+        manager.deleteExercise("Exercise 7");
+        saver.join();
+
+        FitnessManager loaded = new JsonReader(file("testWriterSnapshot.json")).read();
+        assertTrue(loaded.toJson().similar(expected));
+        assertEquals(1000, loaded.getExercises().size());
+        assertEquals("Legs", loaded.getSessions().get(0).getName());
+    }
+
+    // EFFECTS: writes fm to path at the given durability
+    private void writeFile(FitnessManager fm, String path, Durability durability) throws IOException {
+        JsonWriter writer = new JsonWriter(path, false, durability);
+        writer.open();
+        writer.write(fm);
+        writer.close();
+    }
+
+    // EFFECTS: returns the number of temp files left next to path
+    private long tempFiles(String path) throws IOException {
+        String prefix = Paths.get(path).getFileName() + ".";
+        try (Stream<Path> files = Files.list(Paths.get(path).getParent())) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(".tmp")).count();
+        }
+    }
+
+    // EFFECTS: returns the path of a file named name in this test's temporary directory
+    private String file(String name) {
+        return tempDir + "/" + name;
+    }
 }
@@ -0,0 +1,141 @@
+package persistence;
+
+import model.Exercise;
+import model.FitnessManager;
+import model.TrainingSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedStoreTest extends JsonTest {
+    @TempDir
+    Path tempDir;
+    private String storeFile;
+    private FitnessManager manager;
+    private Exercise bench;
+    private Exercise squat;
+    private Exercise curl;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        storeFile = tempDir.resolve("store.fms").toString();
+        manager = new FitnessManager();
+        bench = manager.createExercise("Bench Press", "Chest", 185, 8);
+        squat = manager.createExercise("Squat", "Legs", 315, 5);
+        curl = manager.createExercise("Curl", "Bicep", 30, 12);
+        manager.createExercise("curl ", "Bicep", 35, 10); // duplicate name, found second
+        manager.createSession("Leg Day").addExercise(squat, 5);
+        manager.createSession("Full Body").addExercise(bench, 3);
+        manager.findSessionByName("Full Body").addExercise(squat, 3);
+        manager.findSessionByName("Full Body").addExercise(new Exercise("Plank", "Core", 0, 1), 2);
+        MappedStore.write(manager, storeFile);
+    }
+
+    @Test
+    void testCountsAndRandomAccess() throws IOException {
+        try (MappedStore store = MappedStore.open(storeFile)) {
+            assertEquals(4, store.exerciseCount());
+            assertEquals(2, store.sessionCount());
+            checkExercise("Squat", "Legs", 315, 5, store.getExercise(1));
+            assertEquals(squat.getId(), store.getExercise(1).getId());
+            assertEquals("Full Body", store.getSession(1).getName());
+            assertEquals(manager.getSessions().get(1).getId(), store.getSession(1).getId());
+        }
+    }
+
+    @Test
+    void testFindByName() throws IOException {
+        try (MappedStore store = MappedStore.open(storeFile)) {
+            assertEquals(bench, store.findExerciseByName(" bench PRESS"));
+            assertEquals(curl, store.findExerciseByName("Curl"));
+            assertNull(store.findExerciseByName("Deadlift"));
+
+            TrainingSession fullBody = store.findSessionByName("full body");
+            assertEquals(3, fullBody.getExerciseSets().size());
+            assertEquals(3, fullBody.getExerciseSets().get(bench));
+            assertEquals(3, fullBody.getExerciseSets().get(squat));
+            assertNull(store.findSessionByName("Arm Day"));
+        }
+    }
+
+    @Test
+    void testLoad() throws IOException {
+        try (MappedStore store = MappedStore.open(storeFile)) {
+            FitnessManager loaded = store.load();
+            assertEquals(4, loaded.getExercises().size());
+            assertEquals(2, loaded.getSessions().size());
+            Exercise loadedSquat = loaded.getExercises().get(1);
+            assertEquals(2, loaded.getSessionsContaining(loadedSquat).size());
+            assertEquals(5, loaded.findSessionByName("Leg Day").getExerciseSets().get(loadedSquat));
+            for (int i = 0; i < manager.getSessions().size(); i++) {
+                assertEquals(manager.getSessions().get(i).getId(), loaded.getSessions().get(i).getId());
+            }
+            assertEquals(manager.findSessionByName("Leg Day").getId(), store.findSessionByName("leg day").getId());
+        }
+    }
+
+    @Test
+    void testEmptyStore() throws IOException {
+        MappedStore.write(new FitnessManager(), storeFile);
+        try (MappedStore store = MappedStore.open(storeFile)) {
+            assertEquals(0, store.exerciseCount());
+            assertNull(store.findExerciseByName("Squat"));
+            assertNull(store.findSessionByName("Leg Day"));
+            assertTrue(store.load().getExercises().isEmpty());
+        }
+    }
+
+    @Test
+    void testInvalidStores() throws IOException {
+        assertThrows(IOException.class, () -> MappedStore.open("./data/noSuchFile.fms"));
+        assertThrows(IOException.class, () -> MappedStore.open("./data/testReaderGeneralFitnessManager.json"));
+
+        Path path = Paths.get(storeFile);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MappedStore.open(storeFile));
+    }
+
+    @Test
+    void testCorruptHeadersAndRecords() throws IOException {
+        Path path = Paths.get(storeFile);
+        byte[] bytes = Files.readAllBytes(path);
+        assertCorruptHeader(bytes, 8, -1);   // negative exercise count
+        assertCorruptHeader(bytes, 20, -5);  // negative entry count
+        assertCorruptHeader(bytes, 24, 3);   // index size not a power of two
+        assertCorruptHeader(bytes, 28, 1);   // session index with no free slot
+        byte[] header = Arrays.copyOf(bytes, bytes.length);
+        ByteBuffer.wrap(header).putLong(32, -1);
+        Files.write(path, header);
+        assertThrows(IOException.class, () -> MappedStore.open(storeFile));
+        assertCorruptHeader(bytes, 4, 1);    // version 1 sessions had no ids
+
+        byte[] record = Arrays.copyOf(bytes, bytes.length);
+        ByteBuffer.wrap(record).putInt(MappedStore.HEADER_SIZE + 8, Integer.MAX_VALUE); // name offset
+        Files.write(path, record);
+        try (MappedStore store = MappedStore.open(storeFile)) {
+            UncheckedIOException e = assertThrows(UncheckedIOException.class,
+                    () -> store.getExercise(0));
+            assertTrue(e.getMessage().contains("Corrupt"));
+        }
+    }
+
+    // EFFECTS: checks that opening a copy of bytes with the header int at position set to value throws
+    //          IOException
+    private void assertCorruptHeader(byte[] bytes, int position, int value) throws IOException {
+        byte[] corrupt = Arrays.copyOf(bytes, bytes.length);
+        ByteBuffer.wrap(corrupt).putInt(position, value);
+        Files.write(Paths.get(storeFile), corrupt);
+        assertThrows(IOException.class, () -> MappedStore.open(storeFile));
+    }
+}